@@ -1,5 +1,6 @@
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListModel;
+import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JDialog;
@@ -22,7 +23,6 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import render.ScaledImageCache;
 import sprites.NPCSpriteSheet;
 
 
@@ -60,8 +61,9 @@ public class CharacterSelectPanel extends JPanel {
     private static final String ANIM_MAP = "src/assets/npc_animations.json";
     private static final int NPC_CELL = 64;
 
-    private final Map<String, ImageIcon> thumbCache = new HashMap<>();
+    private final Map<String, Icon> thumbCache = new HashMap<>();
     private NPCSpriteSheet previewNPC;
+    // a menu animation, so a Swing timer of its own: it keeps running while the game loop is parked
     private Timer previewTimer;
     private WindowAdapter windowFocusRestorer;
 
@@ -193,15 +195,14 @@ public class CharacterSelectPanel extends JPanel {
         previewPanel.repaint();
     }
 
-    private ImageIcon getThumbnail(String name) {
+    private Icon getThumbnail(String name) {
         return thumbCache.computeIfAbsent(name, key -> {
             String path = NPC_DIR + "/" + key;
             try {
                 NPCSpriteSheet sheet = new NPCSpriteSheet(path, NPC_CELL, ANIM_MAP);
                 BufferedImage frame = sheet.get(NPCSpriteSheet.Action.IDLE_DOWN, System.currentTimeMillis());
                 int size = 32;
-                Image scaled = frame.getScaledInstance(size, size, Image.SCALE_SMOOTH);
-                return new ImageIcon(scaled);
+                return ScaledImageCache.shared().icon(path, frame, size, size, ScaledImageCache.Quality.SMOOTH, npcList);
             } catch (Exception ex) {
                 BufferedImage stub = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
                 Graphics2D g = stub.createGraphics();
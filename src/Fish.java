@@ -30,12 +30,12 @@ public class Fish {
         this.biteSpeedMul = biteSpeedMul;
     }
 
-    private static Fish fallbackRandom() {
-        int i = RND.nextInt(NAMES.length);
+    private static Fish fallbackRandom(Random rnd) {
+        int i = rnd.nextInt(NAMES.length);
         String n = NAMES[i];
         int p = PRICES[i];
 
-        boolean golden = RND.nextDouble() < 0.15;
+        boolean golden = rnd.nextDouble() < 0.15;
         if (golden) {
             n = "Golden " + n;
             p = (int) Math.round(p * 2.0);
@@ -44,13 +44,17 @@ public class Fish {
     }
 
     public static Fish getRandomFish() {
+        return getRandomFish(RND);
+    }
+
+    public static Fish getRandomFish(Random rnd) {
         try {
             GameplayTuning.loadAll();
             java.util.Collection<GameplayTuning.FishParams> list = GameplayTuning.fishes();
             if (list != null && !list.isEmpty()) {
-                int idx = RND.nextInt(list.size());
+                int idx = rnd.nextInt(list.size());
                 GameplayTuning.FishParams fp = list.toArray(new GameplayTuning.FishParams[0])[idx];
-                boolean golden = RND.nextDouble() < 0.15;
+                boolean golden = rnd.nextDouble() < 0.15;
                 String n = fp.displayName;
                 int p = fp.basePrice;
                 if (golden) {
@@ -60,6 +64,6 @@ public class Fish {
                 return new Fish(fp.id, n, p, golden, fp.imagePath, fp.reelRateMul, fp.wiggleMul, fp.biteSpeedMul);
             }
         } catch (Exception ignored) {}
-        return fallbackRandom();
+        return fallbackRandom(rnd);
     }
 }
\ No newline at end of file
@@ -21,14 +21,38 @@ public class FishingGame extends JFrame implements CharacterSelectPanel.Listener
         mainPanel.add(selectPanel, "select");
         mainPanel.add(gamePanel, "game");
 
-        add(mainPanel);
-        pack();
-        setLocationRelativeTo(null);
-        setVisible(true);
+        // -Dfishing.fullscreen=exclusive|borderless (default: a normal window)
+        String fullscreen = System.getProperty("fishing.fullscreen", "");
+        if (fullscreen.equalsIgnoreCase("exclusive") || fullscreen.equalsIgnoreCase("borderless")) {
+            showFullScreen(fullscreen.equalsIgnoreCase("exclusive"));
+        } else {
+            add(mainPanel);
+            pack();
+            setLocationRelativeTo(null);
+            setVisible(true);
+        }
 
         cards.show(mainPanel, "select");
     }
 
+    private void showFullScreen(boolean exclusive) {
+        JPanel letterbox = new JPanel(new GridBagLayout());
+        letterbox.setBackground(Color.BLACK);
+        letterbox.add(mainPanel);
+        add(letterbox);
+        setUndecorated(true);
+
+        GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        if (exclusive && device.isFullScreenSupported()) {
+            device.setFullScreenWindow(this);
+            System.out.println("🖥️ exclusive full-screen on " + device.getIDstring());
+        } else {
+            if (exclusive) System.out.println("⚠️ exclusive full-screen not supported, using borderless");
+            setBounds(device.getDefaultConfiguration().getBounds());
+            setVisible(true);
+        }
+    }
+
     @Override
     public void onCharacterSelected(CharacterConfig cfg) {
         cards.show(mainPanel, "game");
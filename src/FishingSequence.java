@@ -1,31 +1,27 @@
-public class FishingSequence {
-    public FishingPhase phase;
-    public boolean reelingFinished = false;
-    public boolean success = false;
-    public int castMaxTime;          
-    public int castTimeRemaining;   
-    public final Fish caughtFish;
-
-    private static final int TICK_MS = 50;
-
-    public FishingSequence(Fish fish, int castTimeMs) {
-        this.caughtFish = fish;
-        this.castMaxTime = Math.max(200, castTimeMs);
-        this.castTimeRemaining = this.castMaxTime;
-        this.phase = FishingPhase.CASTING;
-    }
-
-    public FishingSequence(Fish fish) {
-        this(fish, 2000);
-    }
-
-    public void update() {
-        if (phase == FishingPhase.CASTING) {
-            castTimeRemaining -= TICK_MS;
-            if (castTimeRemaining <= 0) {
-                phase = FishingPhase.REELING;
-            }
-        } else if (phase == FishingPhase.REELING) {
-        }
-    }
-}
\ No newline at end of file
+public class FishingSequence {
+    public FishingPhase phase;
+    public boolean reelingFinished = false;
+    public boolean success = false;
+    public final int castMaxTime;
+    public final long castStartMs;
+    public final Fish caughtFish;
+
+    public FishingSequence(Fish fish, int castTimeMs, long nowMs) {
+        this.caughtFish = fish;
+        this.castMaxTime = Math.max(200, castTimeMs);
+        this.castStartMs = nowMs;
+        this.phase = FishingPhase.CASTING;
+    }
+
+    public FishingSequence(Fish fish, long nowMs) {
+        this(fish, 2000, nowMs);
+    }
+
+    public int castTimeRemaining(long nowMs) {
+        return (int) Math.max(0, castMaxTime - (nowMs - castStartMs));
+    }
+
+    public void onBite() {
+        if (phase == FishingPhase.CASTING) phase = FishingPhase.REELING;
+    }
+}
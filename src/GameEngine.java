@@ -0,0 +1,819 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import engine.InputQueue;
+import engine.TimerWheel;
+import sprites.NPCSpriteSheet;
+import map.MapBackground;
+import map.WorldObject;
+import map.CollisionField;
+import map.CollisionWorld;
+import map.DrawList;
+import map.WaterMap;
+import map.MapData;
+import map.MapIO;
+
+import quest.QuestManager;
+import render.Images;
+import world2.World2Scene;
+
+/**
+ * Swing-free game simulation: movement, collision, water tests, fishing flow, rod shop and
+ * quest payouts. Driven by {@link #tick(double)} and input commands; {@code GamePanel} only
+ * renders its state, and {@code HeadlessRunner} drives it without a display.
+ */
+public class GameEngine {
+
+    public enum Input { LEFT, RIGHT, UP, DOWN, ACTION, REEL }
+    private static final Input[] INPUTS = Input.values();
+
+    private static final String MANIFEST_JSON = "src/assets/Cute_Fantasy/manifest.files.json";
+    private static final String WORLD2_MAP_PATH = "src/assets/maps/map_world2.json";
+    private static final String QUESTS_JSON = "src/assets/quests.json";
+
+    private static final int FOOT_MARGIN = 6;
+    private static final int FEET_W = 32, FEET_H = 12;
+    // width of the reel bar in the HUD; the fish marker's hit width is relative to it
+    private static final int REEL_BAR_PX = 780;
+
+    private final int viewW, viewH;
+    private String assetRoot = "src/assets/Cute_Fantasy";
+
+    private final Player player;
+    private GameState gameState;
+    private FishingSequence fishingSequence;
+    private ReelMinigame reelMinigame;
+    private java.util.List<Fish> caughtFish;
+    private int inventoryVersion = 0; // bumped when caught fish or owned rods change
+    private CharacterConfig currentCharacter;
+    private long heldBits;
+
+    private final MapBackground mapBg;
+    private int waterTopY;
+    private CollisionWorld collisionWorld;
+    private java.util.List<WorldObject> worldObjects = new ArrayList<>();
+    private DrawList worldDraw = DrawList.EMPTY; // worldObjects in draw order, rebuilt with the world
+    private int worldW, worldH;
+    private Rectangle pondRectPx = null;
+    // the current world's water; how far the feet box is grown (or shrunk) for each question
+    // keeps the old shoreline rules: World 1 blocks feet within FOOT_MARGIN of the water and
+    // fishes from up to 22 px above it, the pond blocks feet 4 px in and fishes from 10 px out
+    private WaterMap water;
+    private int waterWalkMargin, waterNearInner, waterNearOuter;
+    private int currentWorldId = 1;
+    private int worldVersion = 0;
+
+    private World2Scene world2Scene = World2Scene.EMPTY;
+    private long world2MapModified;
+    private TimerWheel.Timeout mapWatch;
+    // a hot reload in flight: read and prepared on MAP_LOADER, applied here by the Runnable it
+    // returns once mapPoll sees it done
+    private static final ExecutorService MAP_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MapReload");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final long MAP_POLL_MS = 50;
+    private Future<Runnable> mapReload;
+    private TimerWheel.Timeout mapPoll;
+
+    private final QuestManager questManager = new QuestManager();
+
+    private double reelBarScaleUI = 1.0;
+
+    private final java.util.LinkedHashMap<Integer, String> rodIndexToId = new java.util.LinkedHashMap<>();
+    private final java.util.Set<String> ownedRods = new java.util.HashSet<>();
+    private String currentRodId = "starter_rod";
+
+    private final TimerWheel timers = new TimerWheel();
+    private long clockNanos = 0;
+    private long tickCount = 0;
+
+    // every roll goes through this so a seed + recorded inputs reproduce a session
+    private final long seed;
+    private final java.util.Random rng;
+    private ReplayRecorder recorder;
+    private boolean replayClock = false;
+    private TimerWheel.Timeout biteTimeout;
+
+    // input posted from the UI thread, replayed inside the tick at its own timestamp
+    private static final long MAX_INPUT_LAG_NANOS = 100_000_000L;
+    private final InputQueue inputQueue = new InputQueue(256);
+    private final InputQueue.Sink inputSink = this::applyQueuedInput;
+    private long inputHorizonNanos = Long.MIN_VALUE;
+    private long tickStartNanos;
+    private long tickNanos;
+    private double reelAdvanced;
+
+    private GameSnapshot lastSnapshot;
+
+    private Consumer<String> messageSink = msg -> System.out.println("ℹ️ " + msg);
+
+    public GameEngine(int viewW, int viewH) {
+        this(viewW, viewH, System.nanoTime());
+    }
+
+    public GameEngine(int viewW, int viewH, long seed) {
+        this.viewW = viewW;
+        this.viewH = viewH;
+        this.seed = seed;
+        this.rng = new java.util.Random(seed);
+
+        String detected = detectAssetRoot(MANIFEST_JSON);
+        if (detected != null && !detected.isEmpty()) {
+            assetRoot = detected;
+        }
+        System.out.println("ℹ️ assetRoot = " + assetRoot);
+
+        GameplayTuning.loadAll();
+
+        int idx = 1;
+        for (GameplayTuning.RodParams r : GameplayTuning.rods()) {
+            if (idx <= 9) {
+                rodIndexToId.put(idx, r.id);
+                if ("starter_rod".equals(r.id)) ownedRods.add(r.id);
+            }
+            idx++;
+        }
+        if (!ownedRods.contains(currentRodId)) currentRodId = rodIndexToId.getOrDefault(1, "starter_rod");
+        ownedRods.add(currentRodId);
+
+        player = new Player(viewW / 2, viewH / 2);
+        gameState = GameState.EXPLORATION;
+        caughtFish = new ArrayList<>();
+        fishingSequence = null;
+
+        currentCharacter = new CharacterConfig("Fisherman_Fin", "src/assets/Cute_Fantasy/NPCs (Premade)/Fisherman_Fin.png", 64);
+        player.setCharacter(currentCharacter);
+
+        mapBg = new MapBackground(viewW, viewH, MANIFEST_JSON);
+        waterTopY = mapBg.getWaterTopY();
+        collisionWorld = mapBg.getCollisionWorld();
+        worldObjects = new ArrayList<>(mapBg.getObjects());
+        worldW = mapBg.getWorldWidth();
+        worldH = mapBg.getWorldHeight();
+
+        questManager.load(QUESTS_JSON);
+
+        refreshWorld();
+
+        loadWorld2ObjectsIfNeeded();
+    }
+
+    public void setMessageSink(Consumer<String> sink) {
+        this.messageSink = sink != null ? sink : msg -> { };
+    }
+
+    // -------- State (read by renderers / bots) --------
+    public Player getPlayer() { return player; }
+    public GameState getGameState() { return gameState; }
+    public FishingSequence getFishingSequence() { return fishingSequence; }
+    public ReelMinigame getReelMinigame() { return reelMinigame; }
+    public java.util.List<Fish> getCaughtFish() { return caughtFish; }
+    public CharacterConfig getCharacter() { return currentCharacter; }
+    public MapBackground getMapBackground() { return mapBg; }
+    public java.util.List<WorldObject> getWorldObjects() { return worldObjects; }
+    public DrawList getWorldDrawList() { return worldDraw; }
+    public CollisionField getCollisionField() { return !isCenterLake() && collisionWorld != null ? collisionWorld.getField() : null; }
+    public int getWaterTopY() { return waterTopY; }
+    public Rectangle getPondRect() { return pondRectPx; }
+    public WaterMap getWater() { return water; }
+    public int getWorldId() { return currentWorldId; }
+    public int getWorldVersion() { return worldVersion; }
+    public int getWorldWidth() { return worldW; }
+    public int getWorldHeight() { return worldH; }
+    public QuestManager getQuestManager() { return questManager; }
+    public double getReelBarScaleUI() { return reelBarScaleUI; }
+    public java.util.Map<Integer, String> getRodSlots() { return rodIndexToId; }
+    public boolean ownsRod(String rodId) { return ownedRods.contains(rodId); }
+    java.util.Set<String> getOwnedRods() { return ownedRods; }
+    public int getInventoryVersion() { return inventoryVersion; }
+    public String getCurrentRodId() { return currentRodId; }
+    public String getAssetRoot() { return assetRoot; }
+    public long nowMs() { return timers.now(); }
+    public long getClockNanos() { return clockNanos; }
+    public long getTickCount() { return tickCount; }
+    public long getSeed() { return seed; }
+    public TimerWheel timers() { return timers; }
+
+    public GameplayTuning.WorldParams currentWorld() {
+        return GameplayTuning.world(currentWorldId);
+    }
+
+    public GameplayTuning.RodParams currentRod() {
+        GameplayTuning.RodParams r = GameplayTuning.rod(currentRodId);
+        if (r == null) r = GameplayTuning.rod("starter_rod");
+        return r;
+    }
+
+    private GameplayTuning.CharStats currentCharStats() {
+        String id = currentCharacter != null ? currentCharacter.displayName : "starter";
+        return GameplayTuning.charStats(id);
+    }
+
+    /** Foot positions the player can reach in World 1 (inside the world, above the shoreline). */
+    public Rectangle getWalkableFeet() {
+        int maxY = Math.min(worldH - 6, waterTopY - FOOT_MARGIN - 6);
+        return new Rectangle(16, 6, Math.max(0, worldW - 32) + 1, Math.max(0, maxY - 6) + 1);
+    }
+
+    public boolean isCenterLake() {
+        GameplayTuning.WorldParams wp = currentWorld();
+        return wp != null && wp.map != null && wp.map.centerWater;
+    }
+
+    // -------- Input commands --------
+    /**
+     * Queues a press/release stamped with {@link System#nanoTime()}. Safe to call from one
+     * producer thread (the EDT); the next tick applies it at its timestamp.
+     */
+    public boolean post(Input in, boolean down, long nanoTime) {
+        return inputQueue.offer(in.ordinal(), down, nanoTime);
+    }
+
+    /** Applies a press immediately, at the start of the next tick's time slice. */
+    public void press(Input in) {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.PRESS, in.ordinal());
+        applyPress(in);
+    }
+
+    public void release(Input in) {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.RELEASE, in.ordinal());
+        applyRelease(in);
+    }
+
+    private void applyPress(Input in) {
+        long bit = 1L << in.ordinal();
+        if ((heldBits & bit) != 0) return; // key repeat
+        heldBits |= bit;
+        switch (in) {
+            case ACTION -> {
+                switch (gameState) {
+                    case EXPLORATION -> startFishing();
+                    case CASTING, SNAG -> { }
+                    case RESULT, INVENTORY -> gameState = GameState.EXPLORATION;
+                    case REELING -> { if (reelMinigame != null) reelMinigame.press(); }
+                }
+            }
+            case REEL -> {
+                if (gameState == GameState.REELING && reelMinigame != null) reelMinigame.press();
+            }
+            default -> { }
+        }
+    }
+
+    private void applyRelease(Input in) {
+        heldBits &= ~(1L << in.ordinal());
+        if ((in == Input.ACTION || in == Input.REEL) && gameState == GameState.REELING) {
+            if (reelMinigame != null) reelMinigame.release();
+        }
+    }
+
+    public boolean isHeld(Input in) {
+        return (heldBits & (1L << in.ordinal())) != 0;
+    }
+
+    public void openInventory() {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.INVENTORY, 0);
+        if (gameState == GameState.EXPLORATION) gameState = GameState.INVENTORY;
+    }
+
+    public void sellAll() {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.SELL_ALL, 0);
+        if (gameState != GameState.INVENTORY) return;
+        int total = 0;
+        for (Fish f : caughtFish) total += f.price;
+        player.addMoney(total);
+        caughtFish.clear();
+        inventoryVersion++;
+    }
+
+    public void buyOrEquipRodSlot(int slot) {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.ROD_SLOT, slot);
+        if (gameState != GameState.INVENTORY) return;
+        String rodId = rodIndexToId.get(slot);
+        if (rodId != null) handleBuyOrEquipRod(rodId);
+    }
+
+    public void toggleWorld() {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.TOGGLE_WORLD, 0);
+        changeWorld((currentWorldId == 1) ? 2 : 1);
+    }
+
+    public void setCharacter(CharacterConfig config) {
+        if (recorder != null) recorder.character(tickCount, config);
+        currentCharacter = config;
+        player.setCharacter(config);
+    }
+
+    // -------- Simulation --------
+    public void tick(double dtSeconds) {
+        long dtNanos = Math.round(dtSeconds * 1_000_000_000.0);
+        dtSeconds = dtNanos / 1_000_000_000.0; // whole nanos, so a replay steps exactly like the recording
+        clockNanos += dtNanos;
+        timers.advanceTo(clockNanos / 1_000_000L);
+        player.beginTick();
+        drainInput(dtNanos);
+        update(dtSeconds);
+        tickCount++;
+    }
+
+    /**
+     * Immutable copy of what the renderer needs, for handing to another thread. Unchanged
+     * worlds, inventories and quest progress are shared with the previous snapshot.
+     */
+    public GameSnapshot snapshot() {
+        lastSnapshot = new GameSnapshot(this, lastSnapshot);
+        return lastSnapshot;
+    }
+
+    /** True when ticking would change nothing until the next timer fires: no input, nothing moving, no reel running. */
+    public boolean isIdle() {
+        if (heldBits != 0 || !inputQueue.isEmpty() || player.isMoving()) return false;
+        return gameState == GameState.EXPLORATION || gameState == GameState.RESULT || gameState == GameState.INVENTORY;
+    }
+
+    /** Simulation time until the next scheduled timer, or Long.MAX_VALUE if none. */
+    public long nanosUntilNextTimer() {
+        long next = timers.nextDeadline();
+        return next == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, next * 1_000_000L - clockNanos);
+    }
+
+    /**
+     * Accounts for {@code steps} ticks of an idle game without simulating each one. Tick
+     * indices and the clock end up exactly where ticking would leave them; the tick that
+     * fires a timer runs for real, and if that wakes the game the rest are ticked normally.
+     */
+    public void skipTicks(long steps, double dtSeconds) {
+        long dtNanos = Math.round(dtSeconds * 1_000_000_000.0);
+        player.syncPrevious();
+        while (steps > 0) {
+            if (isIdle()) {
+                long next = timers.nextDeadline();
+                long free = next == Long.MAX_VALUE ? steps : Math.max(0, (next * 1_000_000L - 1 - clockNanos) / dtNanos);
+                long k = Math.min(steps, free);
+                clockNanos += k * dtNanos;
+                tickCount += k;
+                timers.advanceTo(clockNanos / 1_000_000L);
+                steps -= k;
+                if (steps == 0) break;
+            }
+            tick(dtSeconds);
+            steps--;
+        }
+    }
+
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /** While set, posted input is stamped on the simulation clock ({@link #getClockNanos}) rather than wall time. */
+    void setReplayClock(boolean on) {
+        this.replayClock = on;
+        this.inputHorizonNanos = Long.MIN_VALUE;
+    }
+
+    private void drainInput(long dtNanos) {
+        reelAdvanced = 0;
+        tickNanos = dtNanos;
+        if (replayClock) {
+            tickStartNanos = clockNanos - dtNanos;
+            inputQueue.drainUntil(clockNanos, inputSink);
+            return;
+        }
+        if (inputQueue.isEmpty() && inputHorizonNanos == Long.MIN_VALUE) return;
+        long now = System.nanoTime();
+        if (inputHorizonNanos == Long.MIN_VALUE || now - inputHorizonNanos > MAX_INPUT_LAG_NANOS) {
+            inputHorizonNanos = now - dtNanos;
+        }
+        tickStartNanos = inputHorizonNanos;
+        inputHorizonNanos += dtNanos;
+        inputQueue.drainUntil(inputHorizonNanos, inputSink);
+    }
+
+    // the reel runs up to the event's instant under the old button state, then the event lands;
+    // offsets are whole microseconds so a recorded session lands events at the same instants
+    private void applyQueuedInput(int code, boolean down, long nanoTime) {
+        long micros = Math.max(0, Math.min(tickNanos, nanoTime - tickStartNanos)) / 1000L;
+        if (recorder != null) recorder.input(tickCount, code, down, micros);
+        double at = Math.max(reelAdvanced, micros / 1e6);
+        if (at > reelAdvanced) {
+            advanceReel(at - reelAdvanced);
+            reelAdvanced = at;
+        }
+        if (down) applyPress(INPUTS[code]);
+        else applyRelease(INPUTS[code]);
+    }
+
+    private void advanceReel(double seconds) {
+        if (gameState == GameState.REELING && reelMinigame != null && fishingSequence != null && !reelMinigame.isFinished()) {
+            reelMinigame.update(seconds, REEL_BAR_PX);
+            if (reelMinigame.isFinished()) {
+                fishingSequence.reelingFinished = true;
+                fishingSequence.success = reelMinigame.isSuccess();
+                finishFishing();
+            }
+        }
+    }
+
+    private void update(double dtSeconds) {
+        if (gameState == GameState.EXPLORATION) {
+            double step = player.getSpeed() * dtSeconds;
+            double mx = 0, my = 0;
+            if (isHeld(Input.LEFT))  mx -= step;
+            if (isHeld(Input.RIGHT)) mx += step;
+            if (isHeld(Input.UP))    my -= step;
+            if (isHeld(Input.DOWN))  my += step;
+
+            if (mx == 0 && my == 0) {
+                player.setMoving(false);
+            } else {
+                if (Math.abs(my) >= Math.abs(mx)) {
+                    player.setDirection(my < 0 ? Player.Direction.UP : Player.Direction.DOWN);
+                } else {
+                    player.setDirection(mx < 0 ? Player.Direction.LEFT : Player.Direction.RIGHT);
+                }
+                player.setMoving(true);
+            }
+            int dx = player.takeStepX(mx);
+            int dy = player.takeStepY(my);
+
+            if (dx != 0 && canStandAt(player.x + dx, player.y)) {
+                player.x += dx;
+            }
+            if (dy != 0 && canStandAt(player.x, player.y + dy)) {
+                player.y += dy;
+            }
+
+
+            player.x = Math.max(16, Math.min(worldW - 16, player.x));
+            player.y = Math.max(6,  Math.min(worldH - 6,  player.y));
+        } else {
+            player.setMoving(false);
+        }
+
+
+        advanceReel(dtSeconds - reelAdvanced);
+
+        if (gameState == GameState.CASTING) {
+            player.setOverrideAction(NPCSpriteSheet.Action.FISH_CAST);
+        } else if (gameState == GameState.REELING) {
+            player.setOverrideAction(NPCSpriteSheet.Action.FISH_REEL);
+        } else {
+            player.setOverrideAction(null);
+        }
+    }
+
+    /** True when the player's feet fit at (px, py): inside the world, off obstacles and out of the water. */
+    boolean canStandAt(int px, int py) {
+        int fx = px - FEET_W / 2, fy = py - FEET_H / 2;
+        if (fx < 0 || fx + FEET_W > worldW || fy < 0 || fy + FEET_H > worldH) return false;
+        boolean blocked = (!isCenterLake() && collisionWorld != null)
+                ? collisionWorld.blocks(fx, fy, FEET_W, FEET_H) : world2Scene.blocks(fx, fy, FEET_W, FEET_H);
+        return !blocked && !isInWater(fx, fy, FEET_W, FEET_H);
+    }
+
+    private boolean isInWater(int x, int y, int w, int h) {
+        return water.overlapsGrown(x, y, w, h, waterWalkMargin);
+    }
+
+    public boolean isNearWater() {
+        return isNearWater(player.x, player.y);
+    }
+
+    boolean isNearWater(int px, int py) {
+        int fx = px - FEET_W / 2, fy = py - FEET_H / 2;
+        return !water.overlapsGrown(fx, fy, FEET_W, FEET_H, waterNearInner)
+                && water.overlapsGrown(fx, fy, FEET_W, FEET_H, waterNearOuter);
+    }
+
+    // -------- Worlds --------
+    public void switchWorld(int newWorldId) {
+        if (recorder != null) recorder.command(tickCount, ReplayRecorder.WORLD, newWorldId);
+        changeWorld(newWorldId);
+    }
+
+    private void changeWorld(int newWorldId) {
+        currentWorldId = newWorldId;
+
+        refreshWorld();
+
+        loadWorld2ObjectsIfNeeded();
+
+        if (isCenterLake() && pondRectPx != null) {
+            player.x = pondRectPx.x - 40;
+            player.y = pondRectPx.y + pondRectPx.height / 2;
+        } else {
+            player.x = viewW / 2;
+            player.y = Math.max(6, waterTopY - FOOT_MARGIN - 2);
+        }
+        player.syncPrevious();
+
+        cancelFishingTimers();
+        reelMinigame = null;
+        if (gameState != GameState.EXPLORATION) gameState = GameState.EXPLORATION;
+    }
+
+    private void refreshWorld() {
+        GameplayTuning.WorldParams wp = currentWorld();
+        GameplayTuning.MapSpec spec = (wp != null) ? wp.map : null;
+        pondRectPx = null;
+        worldVersion++;
+
+        if (spec != null && spec.centerWater) {
+            final int TILE_SIZE_PX = 64;
+            final int halfPx = Math.max(TILE_SIZE_PX, spec.waterRadius * TILE_SIZE_PX);
+
+            int cx = viewW / 2;
+            int cy = viewH / 2;
+            int wx = cx - halfPx;
+            int wy = cy - (int) Math.round(halfPx * 0.8);
+            int ww = halfPx * 2;
+            int wh = (int) Math.round(halfPx * 1.6);
+
+            pondRectPx = new Rectangle(wx, wy, ww, wh);
+
+            collisionWorld = null;
+            worldObjects = new ArrayList<>();
+            worldDraw = DrawList.EMPTY;
+            worldW = viewW;
+            worldH = viewH;
+            water = WaterMap.builder(worldW, worldH).rect(pondRectPx).build();
+            waterWalkMargin = -4;
+            waterNearInner = -4;
+            waterNearOuter = 10;
+
+            System.out.println("World " + currentWorldId + " centerWater=true, waterRadius(tiles)="
+                    + spec.waterRadius + ", halfPx=" + halfPx);
+        } else {
+            waterTopY = mapBg.getWaterTopY();
+            collisionWorld = mapBg.getCollisionWorld();
+            worldObjects = new ArrayList<>(mapBg.getObjects());
+            worldDraw = mapBg.getDrawList();
+            worldW = mapBg.getWorldWidth();
+            worldH = mapBg.getWorldHeight();
+            water = WaterMap.builder(worldW, worldH).rect(0, waterTopY, worldW, worldH - waterTopY).build();
+            waterWalkMargin = FOOT_MARGIN;
+            waterNearInner = 0;
+            waterNearOuter = 23;
+        }
+    }
+
+    /**
+     * Polls the map files every {@code periodMs} of game time and reloads whichever one changed,
+     * so edits saved from the map editor show up in a running game. 0 stops watching.
+     */
+    public void watchMapFiles(long periodMs) {
+        if (mapWatch != null) mapWatch.cancel();
+        mapWatch = periodMs > 0 ? timers.scheduleRepeating(periodMs, this::reloadChangedMaps) : null;
+    }
+
+    // file reads, sprite decoding, atlas packing and collider building all happen on MAP_LOADER,
+    // so a save from the editor doesn't stall the fixed-step loop
+    private void reloadChangedMaps() {
+        if (mapReload != null) return; // one at a time; a save during it is seen on the next poll
+        boolean world1 = mapBg.takeChange();
+        File f2 = resolveFileLoose(WORLD2_MAP_PATH);
+        boolean world2 = f2 != null && f2.lastModified() != world2MapModified && isCenterLake();
+        if (world2) {
+            world2MapModified = f2.lastModified();
+            System.out.println("🔄 map_world2.json เปลี่ยน โหลดใหม่");
+        }
+        if (!world1 && !world2) return;
+
+        mapReload = MAP_LOADER.submit(() -> {
+            MapBackground.Loaded map = world1 ? mapBg.load() : null;
+            World2Scene scene = world2 ? readWorld2Scene() : null;
+            return () -> {
+                if (map != null) mapBg.apply(map);
+                if (scene != null && isCenterLake()) world2Scene = scene;
+                if (map != null || scene != null) refreshWorld();
+            };
+        });
+        mapPoll = timers.scheduleRepeating(MAP_POLL_MS, this::applyMapReload);
+    }
+
+    private void applyMapReload() {
+        if (!mapReload.isDone()) return;
+        mapPoll.cancel();
+        mapPoll = null;
+        Future<Runnable> done = mapReload;
+        mapReload = null;
+        try {
+            done.get().run();
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("⚠️ โหลดแผนที่ใหม่ไม่สำเร็จ: " + e.getMessage());
+        }
+    }
+
+    // --- World 2 object support ---
+
+    public World2Scene getWorld2Scene() { return world2Scene; }
+
+    private void loadWorld2ObjectsIfNeeded() {
+        world2Scene = World2Scene.EMPTY;
+        if (!isCenterLake()) return;
+        File f = resolveFileLoose(WORLD2_MAP_PATH);
+        if (f != null) world2MapModified = f.lastModified();
+        world2Scene = readWorld2Scene();
+    }
+
+    // reads map_world2.json and its images; touches no engine state, so it can run off the loop
+    private World2Scene readWorld2Scene() {
+        try {
+            File f = resolveFileLoose(WORLD2_MAP_PATH);
+            if (f == null || !f.exists()) {
+                System.out.println("⚠️ World2 map not found at: " + WORLD2_MAP_PATH);
+                return World2Scene.EMPTY;
+            }
+            String txt = java.nio.file.Files.readString(f.toPath(), java.nio.charset.StandardCharsets.UTF_8);
+            MapData data = MapIO.fromJson(txt);
+            if (data == null || data.objects == null) return World2Scene.EMPTY;
+
+            World2Scene scene = World2Scene.build(data.objects, this::readWorld2Image);
+            System.out.println("✅ World 2 objects loaded: " + scene.size());
+            return scene;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return World2Scene.EMPTY;
+        }
+    }
+
+    private BufferedImage readWorld2Image(String src) {
+        try {
+            File use = resolveAssetFile(src);
+            if (use == null) {
+                System.out.println("⚠️ World2 image not found: " + src + " (assetRoot=" + assetRoot + ")");
+                return null;
+            }
+            return Images.read(use);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // -------- Fishing flow --------
+    private void startFishing() {
+        if (!isNearWater(player.x, player.y)) {
+            messageSink.accept("ต้องยืนที่ริมฝั่งน้ำ เพื่อตกปลา!");
+            return;
+        }
+        gameState = GameState.CASTING;
+
+        Fish rolled = rollFishConsideringBonuses();
+        cancelFishingTimers();
+        fishingSequence = new FishingSequence(rolled, computeBiteTimeMs(rolled), timers.now());
+        reelMinigame = null;
+        biteTimeout = timers.schedule(fishingSequence.castMaxTime, this::onBite);
+    }
+
+    private void onBite() {
+        biteTimeout = null;
+        if (fishingSequence == null || gameState != GameState.CASTING) return;
+        fishingSequence.onBite();
+        reelMinigame = new ReelMinigame(rng);
+        setupReelForCurrent(fishingSequence.caughtFish);
+        gameState = GameState.REELING;
+        // the button may already be down from the cast
+        if (isHeld(Input.ACTION) || isHeld(Input.REEL)) reelMinigame.press();
+    }
+
+    private void finishFishing() {
+        gameState = GameState.RESULT;
+        if (fishingSequence.success) {
+            if (caughtFish == null) caughtFish = new ArrayList<>();
+            caughtFish.add(fishingSequence.caughtFish);
+            inventoryVersion++;
+             // player.addMoney(fishingSequence.caughtFish.price);
+            questManager.onFishCaught(fishingSequence.caughtFish.name, fishingSequence.caughtFish.golden);
+            java.util.List<quest.QuestManager.GoalPayout> pays = questManager.collectNewPayouts();
+            for (quest.QuestManager.GoalPayout p : pays) if (p.money > 0) player.addMoney(p.money);
+        }
+    }
+
+    private void cancelFishingTimers() {
+        if (biteTimeout != null) biteTimeout.cancel();
+        biteTimeout = null;
+    }
+
+    private int computeBiteTimeMs(Fish fish) {
+        GameplayTuning.WorldParams wp = currentWorld();
+        GameplayTuning.CharStats cs = currentCharStats();
+        GameplayTuning.RodParams r = currentRod();
+        double biteSpeed = fish.biteSpeedMul;
+        double totalBonus = (cs.biteSpeedBonus) + (r != null ? r.biteSpeedBonus : 0.0);
+        double totalMul = Math.max(0.25, 1.0 * (1.0 - totalBonus) / Math.max(0.25, biteSpeed));
+        int castMs = (int)Math.round(wp.biteTimeBaseMs * totalMul +
+                (rng.nextDouble() - 0.5) * 2 * wp.biteTimeVarianceMs * totalMul);
+        return Math.max(500, castMs);
+    }
+
+    private void setupReelForCurrent(Fish fish) {
+        GameplayTuning.WorldParams wp = currentWorld();
+        GameplayTuning.CharStats cs = currentCharStats();
+        GameplayTuning.RodParams r = currentRod();
+
+        double progressEff = wp.reelProgressRate * fish.reelRateMul;
+        double wiggleStrength = wp.fishWiggleStrength * fish.wiggleMul;
+        double res = Math.max(0.2, 1.0 / Math.max(0.25, wiggleStrength));
+        double movementFactor = Math.max(0.3, wiggleStrength);
+
+        double uiScale = Math.max(0.6, wp.reelBarScale + cs.reelBarScaleBonus + (r != null ? r.reelBarScaleBonus : 0.0));
+        double controlWidth = Math.max(0.2, Math.min(0.9, 0.18 * uiScale));
+
+        reelMinigame.setResilience(res);
+        reelMinigame.setProgressEfficiency(progressEff);
+        reelMinigame.setMovementFactor(movementFactor);
+        reelMinigame.setControlWidth(controlWidth);
+
+        reelBarScaleUI = Math.max(0.75, Math.min(1.8, uiScale));
+    }
+
+    private Fish rollFishConsideringBonuses() {
+        java.util.List<GameplayTuning.FishParams> list = new java.util.ArrayList<>(GameplayTuning.fishes());
+        if (list.isEmpty()) {
+            return Fish.getRandomFish(rng);
+        }
+        GameplayTuning.FishParams fp = list.get(rng.nextInt(list.size()));
+
+        GameplayTuning.CharStats cs = currentCharStats();
+        GameplayTuning.RodParams r = currentRod();
+        double luck = (cs != null ? cs.luck : 0.0) + (r != null ? r.luckBonus : 0.0);
+        double goldenBonus = (r != null ? r.goldenChanceBonus : 0.0);
+        double goldenChance = 0.15 * (1.0 + Math.max(0, luck) + Math.max(0, goldenBonus));
+        goldenChance = Math.max(0.0, Math.min(0.9, goldenChance));
+
+        boolean golden = rng.nextDouble() < goldenChance;
+        String name = fp.displayName;
+        int price = fp.basePrice;
+        if (golden) {
+            name = "Golden " + name;
+            price = (int)Math.round(price * 2.0);
+        }
+
+        return new Fish(fp.id, name, price, golden, fp.imagePath, fp.reelRateMul, fp.wiggleMul, fp.biteSpeedMul);
+    }
+
+    private void handleBuyOrEquipRod(String rodId) {
+        GameplayTuning.RodParams r = GameplayTuning.rod(rodId);
+        if (r == null) return;
+        if (!ownedRods.contains(rodId)) {
+            if (player.money >= r.price) {
+                player.addMoney(-r.price);
+                ownedRods.add(rodId);
+                currentRodId = rodId;
+                inventoryVersion++;
+            } else {
+                messageSink.accept("เงินไม่พอซื้อ " + r.displayName);
+            }
+        } else {
+            currentRodId = rodId; // equip
+        }
+    }
+
+    // -------- Files --------
+    private String detectAssetRoot(String manifestPath) {
+        try {
+            File f = resolveFileLoose(manifestPath);
+            if (f == null || !f.exists()) return null;
+            String json = java.nio.file.Files.readString(f.toPath(), java.nio.charset.StandardCharsets.UTF_8);
+            java.util.regex.Matcher mRoot = java.util.regex.Pattern
+                    .compile("\"root\"\\s*:\\s*\"([^\"]+)\"")
+                    .matcher(json);
+            if (mRoot.find()) {
+                String root = mRoot.group(1).replace("\\\\", "\\").replace("\\", "/");
+                if (!root.endsWith("/") && !root.endsWith("\\")) root = root + "/";
+                System.out.println("✅ manifest.root = " + root);
+                return root;
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    static File resolveFileLoose(String p) {
+        File f0 = new File(p);
+        File f1 = new File("src/" + p);
+        File f2 = new File("./" + p);
+        if (f0.exists()) return f0;
+        if (f1.exists()) return f1;
+        if (f2.exists()) return f2;
+        return null;
+    }
+
+    File resolveAssetFile(String rel) {
+        File f0 = new File(assetRoot, rel);
+        if (f0.exists()) return f0;
+        File f1 = new File("src/" + rel);
+        if (f1.exists()) return f1;
+        File f2 = new File(rel);
+        if (f2.exists()) return f2;
+        return null;
+    }
+}
@@ -1,59 +1,115 @@
 import javax.swing.*;
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.Set;
-
-import sprites.NPCSpriteSheet;
-import map.MapBackground;
-import map.WorldObject;
-import map.CollisionWorld;
-import map.MapData;
-import map.MapIO;
-
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import engine.GameLoop;
+import map.CollisionField;
+import map.WaterMap;
+import map.DrawList;
 import quest.QuestManager;
-
-public class GamePanel extends JPanel implements KeyListener, MouseMotionListener, MouseListener {
-    private Player player;
-    private GameState gameState;
-    private FishingSequence fishingSequence;
-    private java.util.List<Fish> caughtFish;
-    private Set<Integer> keysPressed = new HashSet<>();
+import render.ActiveRenderer;
+import render.Camera;
+import render.ChunkCache;
+import render.DamageTracker;
+import render.Images;
+import render.LayerCompositor;
+import render.ParticleSystem;
+import render.QualityGovernor;
+import render.RenderTarget;
+import render.RetainedLayer;
+import render.ScaledImageCache;
+import world2.World2Scene;
+
+public class GamePanel extends JPanel implements KeyListener, MouseMotionListener, MouseListener, GameLoop.Listener {
+    private final GameEngine engine;
     private BufferedImage spriteSheet;
-    private CharacterConfig currentCharacter;
 
     private static final int WIDTH = 1400;
     private static final int HEIGHT = 800;
 
-    private static final String MANIFEST_JSON = "src/assets/Cute_Fantasy/manifest.files.json";
-    private String assetRoot = "src/assets/Cute_Fantasy"; 
-
-    private MapBackground mapBg;
-    private int waterTopY;
-    private CollisionWorld collisionWorld;
-    private java.util.List<WorldObject> worldObjects = new ArrayList<>();
-    private int worldW, worldH; 
+    // -Dfishing.tickHz=120 / -Dfishing.maxFps=144 (maxFps defaults to the display refresh rate)
+    private static final int DEFAULT_TICK_HZ = 60;
+    private final GameLoop loop;
+    private boolean pausedIdle = false;
+
+    // the engine belongs to the loop thread; the EDT (or, with active rendering, the loop itself)
+    // paints the latest published frame, and the EDT sends commands back through runOnSim
+    private static final class Frame {
+        final GameSnapshot snap;
+        final double alpha;
+        Frame(GameSnapshot snap, double alpha) { this.snap = snap; this.alpha = alpha; }
+    }
+    private volatile Frame latest;
+    private Frame shown; // painting thread only: the frame being painted, so every damaged rect sees the same one
+    private final AtomicBoolean paintQueued = new AtomicBoolean();
+    private final ConcurrentLinkedQueue<Consumer<GameEngine>> commands = new ConcurrentLinkedQueue<>();
+
+    // -Dfishing.render=active draws on the loop thread through a BufferStrategy (-Dfishing.buffers=2|3);
+    // on Linux add -Dsun.java2d.opengl=true so flips are synced to the display. Render state
+    // (overlay toggles, cached layers, the quest panel) then belongs to the loop: see onPaintThread
+    private final ActiveRenderer active;
+
+    // everything paints in WIDTH x HEIGHT logical coordinates; the target maps that onto the
+    // window (see RenderTarget for -Dfishing.renderScale / -Dfishing.scaleFilter).
+    // -Dfishing.windowScale=2 opens a window twice the logical size
+    private final RenderTarget target = RenderTarget.fromProperties(WIDTH, HEIGHT);
+
+    // -Dfishing.quality=<tier name> pins a tier; F3 shows the governor overlay
+    private final QualityGovernor quality = QualityGovernor.load("resources/config/quality.json");
+    private boolean showQualityOverlay = false;
+
+    // F4 shows World 1's collision bitmap (red) and distance field (blue, fading with distance)
+    private boolean showCollisionField = false;
+    private boolean lastCollisionField;
+    private CollisionField fieldImageOf;
+    private BufferedImage fieldImage;
+
+    // the Swing path repaints only what changed while exploring; other states, world switches and
+    // quality changes redraw the whole view
+    private static final Rectangle HUD_DAMAGE = new Rectangle(0, 0, 800, 112);
+    private static final Rectangle OVERLAY_DAMAGE = new Rectangle(WIDTH - 380, 0, 380, 110);
+    private final DamageTracker damage = new DamageTracker(WIDTH, HEIGHT);
+    private Rectangle lastPlayerBounds;
+    private int lastPlayerFrame = -1;
+    private long lastHudKey;
+    private int lastQuestVersion = -1;
+    private int lastDamageWorld = -1;
+    private GameState lastDamageState;
+    private QualityGovernor.Tier lastDamageTier;
+    private boolean lastOverlay;
 
     private BufferedImage generatedWorldBg = null;
-    private GameplayTuning.MapSpec currentMapSpec = null;
-    private Rectangle pondRectPx = null; 
-
-    private static final String WORLD2_MAP_PATH = "src/assets/maps/map_world2.json"; 
-    private final java.util.List<World2Obj> world2Objects = new java.util.ArrayList<>();
-    private final java.util.Map<String, BufferedImage> world2ImageCache = new java.util.HashMap<>();
-
-    private ReelMinigame reelMinigame;
-
-    private final QuestManager questManager = new QuestManager();
+    private int bgWorldVersion = -1;
+
+    // the view follows the player across maps larger than the window; only what it sees is drawn
+    private final Camera camera = new Camera(WIDTH, HEIGHT);
+    private int lastCameraX, lastCameraY;
+    private int[] visibleProps = new int[0];
+
+    // World 1 ground, waves and always-behind props, painted in chunks around the view; rebuilt
+    // when the world, the wave setting or the player's sprite size changes
+    private static final int CHUNK = 512;
+    private LayerCompositor.Baked staticLayer;
+    private ChunkCache staticChunks;
+    private int staticLayerWorld = -1;
+    private boolean staticLayerWaves;
+    private Rectangle staticLayerSprite;
 
     private BufferedImage waveTile;
 
-    private static final int FOOT_MARGIN = 6;
+    // splashes, ripples, sparkles and coins; simulated on the loop thread, drawn over the world.
+    // -Dfishing.particles sets the pool size
+    private final ParticleSystem particles = new ParticleSystem(Integer.getInteger("fishing.particles", 16384));
+    private GameState fxState = GameState.EXPLORATION;
+    private int fxWorld = -1;
+    private int castX, castY;
+    private Rectangle particleArea = new Rectangle();
+    private Rectangle lastParticleBounds = new Rectangle();
 
     private static final int HUD_W = 860;
     private static final int HUD_H = 160;
@@ -62,104 +118,322 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
     private static final int HUD_ALPHA = 140;
     private static final int HUD_BORDER_ALPHA = 190;
 
-    private int currentWorldId = 1;
+    // HUD panels painted once into cached images and redrawn only when their key changes
+    private final RetainedLayer statusLayer = new RetainedLayer(HUD_DAMAGE);
+    private final RetainedLayer castingLayer = new RetainedLayer(hudLayerBounds());
+    private final RetainedLayer reelHintLayer = new RetainedLayer(new Rectangle(0, 0, WIDTH, 60));
+    private final RetainedLayer reelingLayer = new RetainedLayer(hudLayerBounds());
+    private final RetainedLayer resultLayer = new RetainedLayer(new Rectangle(0, 0, WIDTH, HEIGHT));
+    private final RetainedLayer inventoryLayer = new RetainedLayer(new Rectangle(0, 0, WIDTH, HEIGHT));
+
+    private static final Color CAST_FILL = new Color(50, 150, 255);
+    private static final Color REEL_TRACK = new Color(0, 0, 0, 120);
+    private static final Color REEL_TRACK_BORDER = new Color(0, 0, 0, 160);
+    private static final Color REEL_PLAYER_BAR = new Color(255, 255, 255, 200);
+    private static final Color REEL_FISH_MARKER = new Color(67, 75, 91);
+    private static final Color REEL_PROGRESS = new Color(255, 255, 255, 230);
 
     private final java.util.Map<String, BufferedImage> fishImageCache = new java.util.HashMap<>();
 
-    private double reelBarScaleUI = 1.0;
-
-    private final java.util.LinkedHashMap<Integer, String> rodIndexToId = new java.util.LinkedHashMap<>();
-    private final java.util.Set<String> ownedRods = new java.util.HashSet<>();
-    private String currentRodId = "starter_rod";
+    // -Dfishing.record=<file> saves the session, -Dfishing.replay=<file> plays one back in real time
+    // (player input is ignored until it ends); -Dfishing.seed fixes the RNG for a fresh session
+    private volatile ReplayPlayer replay;
+    private ReplayRecorder recorder;
 
     public GamePanel() {
-        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        double windowScale = Math.max(0.5, Math.min(4.0, Double.parseDouble(System.getProperty("fishing.windowScale", "1"))));
+        setPreferredSize(new Dimension((int) Math.round(WIDTH * windowScale), (int) Math.round(HEIGHT * windowScale)));
         setBackground(new Color(34, 139, 34));
         setFocusable(true);
         addKeyListener(this);
         addMouseMotionListener(this);
         addMouseListener(this);
 
-        String detected = detectAssetRoot(MANIFEST_JSON);
-        if (detected != null && !detected.isEmpty()) {
-            assetRoot = detected;
+        active = createActiveRenderer();
+
+        replay = openReplay(System.getProperty("fishing.replay"));
+        long seed = replay != null ? replay.getSeed() : Long.getLong("fishing.seed", System.nanoTime());
+        engine = new GameEngine(WIDTH, HEIGHT, seed);
+        engine.setMessageSink(msg -> SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, msg)));
+
+        loadSpriteSheetLegacyIfAny();
+        loadWaveTile();
+
+        int tickHz = Math.max(10, Math.min(1000, Integer.getInteger("fishing.tickHz", DEFAULT_TICK_HZ)));
+        if (replay != null) tickHz = (int) Math.round(1_000_000_000.0 / replay.getTickNanos());
+        startRecording(System.getProperty("fishing.record"), seed, 1_000_000_000L / tickHz);
+        int maxFps = Integer.getInteger("fishing.maxFps", displayRefreshRate());
+        quality.setDefaultBudgetMs(1000.0 / (maxFps > 0 ? maxFps : 60));
+        String pinnedTier = System.getProperty("fishing.quality");
+        if (pinnedTier != null) quality.pin(pinnedTier);
+        // -Dfishing.watchMapsMs=0 turns off reloading maps saved from the editor
+        if (replay == null) engine.watchMapFiles(Long.getLong("fishing.watchMapsMs", 1000L));
+        latest = new Frame(engine.snapshot(), 1.0);
+        shown = latest;
+        loop = new GameLoop(this, tickHz, maxFps);
+        loop.start();
+
+        // the loop sleeps while the game is static or the app is in the background; these bring it back
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addPropertyChangeListener("activeWindow", e -> loop.wake());
+        addComponentListener(new ComponentAdapter() {
+            @Override public void componentShown(ComponentEvent e) { loop.wake(); }
+            @Override public void componentResized(ComponentEvent e) { loop.wake(); }
+        });
+    }
+
+    private static ReplayPlayer openReplay(String path) {
+        if (path == null) return null;
+        try {
+            ReplayPlayer r = ReplayPlayer.open(new File(path));
+            System.out.println("🎞️ เล่น replay: " + path + " (seed " + r.getSeed() + ")");
+            return r;
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ เปิด replay ไม่ได้: " + path + " (" + e.getMessage() + ")");
+            return null;
         }
-        System.out.println("ℹ️ assetRoot = " + assetRoot);
+    }
 
-        GameplayTuning.loadAll();
+    private void startRecording(String path, long seed, long tickNanos) {
+        if (path == null) return;
+        try {
+            recorder = new ReplayRecorder(new File(path), seed, tickNanos);
+            engine.setRecorder(recorder);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> recorder.finish(engine.getTickCount())));
+        } catch (java.io.IOException e) {
+            System.out.println("⚠️ บันทึก replay ไม่ได้: " + path + " (" + e.getMessage() + ")");
+        }
+    }
 
-        int idx = 1;
-        for (GameplayTuning.RodParams r : GameplayTuning.rods()) {
-            if (idx <= 9) {
-                rodIndexToId.put(idx, r.id);
-                if ("starter_rod".equals(r.id)) ownedRods.add(r.id);
-            }
-            idx++;
+    private boolean isReplaying() {
+        ReplayPlayer r = replay;
+        return r != null && !r.isFinished();
+    }
+
+    /** Runs {@code command} on the loop thread before its next tick; safe from any thread. */
+    void runOnSim(Consumer<GameEngine> command) {
+        commands.add(command);
+        loop.wake();
+    }
+
+    /** Runs {@code r} on whichever thread paints (the loop when rendering actively, else the EDT); safe from any thread. */
+    private void onPaintThread(Runnable r) {
+        if (active != null) {
+            runOnSim(e -> r.run());
+        } else {
+            SwingUtilities.invokeLater(() -> {
+                r.run();
+                loop.wake();
+            });
         }
-        if (!ownedRods.contains(currentRodId)) currentRodId = rodIndexToId.getOrDefault(1, "starter_rod");
-        ownedRods.add(currentRodId);
+    }
 
-        player = new Player(WIDTH / 2, HEIGHT / 2);
-        gameState = GameState.EXPLORATION;
-        caughtFish = new ArrayList<>();
-        fishingSequence = null;
+    private ActiveRenderer createActiveRenderer() {
+        if (!"active".equalsIgnoreCase(System.getProperty("fishing.render", "passive"))) return null;
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println("⚠️ active rendering needs a display, using Swing painting");
+            return null;
+        }
+        ActiveRenderer r = new ActiveRenderer(getBackground(), Integer.getInteger("fishing.buffers", 2));
+        Canvas canvas = r.getCanvas();
+        canvas.addKeyListener(this);
+        canvas.addMouseMotionListener(this);
+        canvas.addMouseListener(this);
+        setLayout(new BorderLayout());
+        add(canvas, BorderLayout.CENTER);
+        return r;
+    }
 
-        currentCharacter = new CharacterConfig("Fisherman_Fin", "src/assets/Cute_Fantasy/NPCs (Premade)/Fisherman_Fin.png", 64);
-        player.setCharacter(currentCharacter);
+    private static int displayRefreshRate() {
+        try {
+            if (GraphicsEnvironment.isHeadless()) return 60;
+            int hz = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return hz == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : hz;
+        } catch (Exception e) {
+            return 60;
+        }
+    }
 
-        loadSpriteSheetLegacyIfAny();
-        loadWaveTile();
+    // --- Game loop ---
+    @Override
+    public void tick(double dtSeconds) {
+        for (Consumer<GameEngine> c; (c = commands.poll()) != null; ) c.accept(engine);
+        if (replay != null) {
+            replay.beforeTick(engine);
+            if (replay.isFinished()) {
+                System.out.println("🎞️ replay จบแล้ว");
+                replay = null;
+            }
+        }
+        engine.tick(dtSeconds);
+        emitEffects();
+        particles.update((float) dtSeconds);
+    }
+
+    // effects for the fishing moments: the cast lands, a fish bites, the catch comes out
+    private void emitEffects() {
+        if (engine.getWorldVersion() != fxWorld) {
+            fxWorld = engine.getWorldVersion();
+            particles.clear();
+        }
+        GameState now = engine.getGameState();
+        GameState before = fxState;
+        fxState = now;
+        if (now == before) return;
+        Player p = engine.getPlayer();
+        if (now == GameState.CASTING) {
+            Point c = castPoint(p);
+            castX = c.x;
+            castY = c.y;
+            particles.splash(castX, castY, 14, 150f);
+            particles.ripples(castX, castY, 2);
+        } else if (now == GameState.REELING) {
+            particles.splash(castX, castY, 24, 220f);
+            particles.ripples(castX, castY, 3);
+        } else if (now == GameState.RESULT && before == GameState.REELING) {
+            FishingSequence fs = engine.getFishingSequence();
+            if (fs != null && fs.success) {
+                particles.splash(castX, castY, 30, 260f);
+                particles.coins(p.x, p.y - 48, 12);
+                if (fs.caughtFish != null && fs.caughtFish.golden) {
+                    particles.sparkle(p.x, p.y - 40, 24, 32f);
+                    particles.sparkle(castX, castY, 12, 20f);
+                }
+            } else {
+                particles.ripples(castX, castY, 1);
+            }
+        }
+    }
 
-        mapBg = new MapBackground(WIDTH, HEIGHT, MANIFEST_JSON);
-        waterTopY = mapBg.getWaterTopY();
-        collisionWorld = mapBg.getCollisionWorld();
-        worldObjects = new ArrayList<>(mapBg.getObjects());
-        worldW = mapBg.getWorldWidth();
-        worldH = mapBg.getWorldHeight();
+    // where the line meets the water: a little past the shoreline nearest the spot in front of the player
+    private Point castPoint(Player p) {
+        int dx = 0, dy = 0;
+        switch (p.getDirection()) {
+            case LEFT -> dx = -48;
+            case RIGHT -> dx = 48;
+            case UP -> dy = -24;
+            default -> dy = 24;
+        }
+        Point out = new Point();
+        WaterMap water = engine.getWater();
+        if (water != null && water.castPoint(p.x + dx, p.y + dy, 36, out)) return out;
+        out.setLocation(p.x + dx, p.y + dy);
+        return out;
+    }
 
-        questManager.load("src/assets/quests.json");
+    @Override
+    public long idleNanos() {
+        // no active window = minimised or in the background: freeze the game until focus returns
+        pausedIdle = KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow() == null;
+        if (pausedIdle) return GameLoop.IDLE_FOREVER;
+        if (isReplaying() || !engine.isIdle() || !commands.isEmpty() || particles.size() > 0) return 0;
+
+        long wait = engine.nanosUntilNextTimer();
+        if (isShowing()) {
+            long frameMs = engine.getPlayer().msUntilNextFrame(System.currentTimeMillis());
+            if (frameMs != Long.MAX_VALUE) wait = Math.min(wait, frameMs * 1_000_000L);
+        }
+        return wait < loop.getStepSeconds() * 1e9 ? 0 : wait;
+    }
 
-        refreshWorldVisuals();
+    @Override
+    public void skipTicks(long steps) {
+        if (!pausedIdle) engine.skipTicks(steps, loop.getStepSeconds());
+    }
 
-        loadWorld2ObjectsIfNeeded();
+    @Override
+    public void render(double alpha) {
+        particles.publish();
+        latest = new Frame(engine.snapshot(), alpha);
+        if (active != null) {
+            paintActive();
+        } else if (paintQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::paintLatest);
+        }
+    }
 
-        new javax.swing.Timer(50, e -> update()).start();
+    // on the loop thread: every frame is drawn, and show() holds the loop back when the display is behind
+    private void paintActive() {
+        shown = latest;
+        particleArea = particles.acquire();
+        long t0 = System.nanoTime();
+        if (active.render(this::paintToCanvas)) quality.record(System.nanoTime() - t0);
     }
 
-    private String detectAssetRoot(String manifestPath) {
-        try {
-            File f = resolveFileLoose(manifestPath);
-            if (f == null || !f.exists()) return null;
-            String json = java.nio.file.Files.readString(f.toPath(), java.nio.charset.StandardCharsets.UTF_8);
-            java.util.regex.Matcher mRoot = java.util.regex.Pattern
-                    .compile("\"root\"\\s*:\\s*\"([^\"]+)\"")
-                    .matcher(json);
-            if (mRoot.find()) {
-                String root = mRoot.group(1).replace("\\\\", "\\").replace("\\", "/");
-                if (!root.endsWith("/") && !root.endsWith("\\")) root = root + "/";
-                System.out.println("✅ manifest.root = " + root);
-                return root;
-            }
-        } catch (Exception ignored) {}
-        return null;
+    // JPanel path, on the EDT; frames published while this one paints collapse into the next call
+    private void paintLatest() {
+        paintQueued.set(false);
+        shown = latest;
+        particleArea = particles.acquire();
+        if (!isShowing()) return;
+        long t0 = System.nanoTime();
+        collectDamage();
+        if (!target.isDirect()) damage.addFull(); // a scaled frame is redrawn whole
+        if (damage.isEmpty()) return;
+        boolean full = damage.isFull();
+        if (full) {
+            damage.take();
+            paintImmediately(0, 0, getWidth(), getHeight());
+        } else {
+            Rectangle vp = target.getViewport(); // direct, so only an offset when the window is larger
+            for (Rectangle r : damage.take()) paintImmediately(r.x + vp.x, r.y + vp.y, r.width, r.height);
+        }
+        Toolkit.getDefaultToolkit().sync();
+        quality.record(System.nanoTime() - t0, full);
     }
 
-    private File resolveFileLoose(String p) {
-        File f0 = new File(p);
-        File f1 = new File("src/" + p);
-        File f2 = new File("./" + p);
-        if (f0.exists()) return f0;
-        if (f1.exists()) return f1;
-        if (f2.exists()) return f2;
-        return null;
+    private void collectDamage() {
+        GameSnapshot s = shown.snap;
+        GameState state = s.state;
+        QualityGovernor.Tier tier = quality.tier();
+        updateCamera(s, shown.alpha);
+        if (state != GameState.EXPLORATION || state != lastDamageState
+                || s.worldVersion != lastDamageWorld || tier != lastDamageTier
+                || camera.getX() != lastCameraX || camera.getY() != lastCameraY
+                || showCollisionField != lastCollisionField) {
+            damage.addFull();
+        }
+        lastCameraX = camera.getX();
+        lastCameraY = camera.getY();
+        lastCollisionField = showCollisionField;
+        lastDamageState = state;
+        lastDamageWorld = s.worldVersion;
+        lastDamageTier = tier;
+
+        Player player = s.player;
+        Rectangle pb = camera.toScreen(player.renderBounds(shown.alpha));
+        int frame = player.frameKey(System.currentTimeMillis());
+        if (!pb.equals(lastPlayerBounds) || frame != lastPlayerFrame) {
+            damage.add(lastPlayerBounds);
+            damage.add(pb);
+        }
+        lastPlayerBounds = pb;
+        lastPlayerFrame = frame;
+
+        long hud = statusKey(s);
+        if (hud != lastHudKey) damage.add(HUD_DAMAGE);
+        lastHudKey = hud;
+
+        QuestManager quests = engine.getQuestManager();
+        if (quests.getVersion() != lastQuestVersion) damage.add(quests.damageBounds(WIDTH, HEIGHT));
+        lastQuestVersion = quests.getVersion();
+
+        if (showQualityOverlay || lastOverlay) damage.add(OVERLAY_DAMAGE);
+        lastOverlay = showQualityOverlay;
+
+        Rectangle fx = camera.toScreen(particleArea);
+        if (!fx.isEmpty() || !lastParticleBounds.isEmpty()) {
+            damage.add(lastParticleBounds);
+            damage.add(fx);
+        }
+        lastParticleBounds = fx;
     }
 
     private void loadSpriteSheetLegacyIfAny() {
         try {
-            File file = resolveFileLoose("spritesheet.png");
-            if (file == null) file = resolveFileLoose("src/spritesheet.png");
+            File file = GameEngine.resolveFileLoose("spritesheet.png");
+            if (file == null) file = GameEngine.resolveFileLoose("src/spritesheet.png");
             if (file != null && file.exists()) {
-                spriteSheet = ImageIO.read(file);
+                spriteSheet = Images.read(file);
                 System.out.println("✅ โหลด spritesheet สำเร็จจาก: " + file.getAbsolutePath());
             } else {
                 spriteSheet = null;
@@ -171,198 +445,178 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
 
     private void loadWaveTile() {
         try {
-            File use = resolveFileLoose("src/assets/waves/water_wave_row_60x30.png");
-            if (use == null) use = resolveFileLoose("src/assets/water_wave_row_60x30.png");
+            File use = GameEngine.resolveFileLoose("src/assets/waves/water_wave_row_60x30.png");
+            if (use == null) use = GameEngine.resolveFileLoose("src/assets/water_wave_row_60x30.png");
             if (use != null) {
-                waveTile = ImageIO.read(use);
+                waveTile = Images.read(use);
                 System.out.println("✅ โหลด wave tile: " + use.getAbsolutePath());
             }
         } catch (Exception ignored) {}
     }
 
+    @Override
+    public boolean requestFocusInWindow() {
+        return active != null ? active.getCanvas().requestFocusInWindow() : super.requestFocusInWindow();
+    }
+
     void setCharacter(CharacterConfig config) {
-        currentCharacter = config;
-        player.setCharacter(config);
+        if (!isReplaying()) runOnSim(e -> e.setCharacter(config));
         requestFocusInWindow();
     }
 
-    private GameplayTuning.WorldParams currentWorld() {
-        return GameplayTuning.world(currentWorldId);
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (active == null) target.render((Graphics2D) g, getWidth(), getHeight(), this::paintScene);
     }
 
-    private GameplayTuning.CharStats currentCharStats() {
-        String id = currentCharacter != null ? currentCharacter.displayName : "starter";
-        return GameplayTuning.charStats(id);
+    private void paintToCanvas(Graphics2D g) {
+        Canvas canvas = active.getCanvas();
+        target.render(g, canvas.getWidth(), canvas.getHeight(), this::paintScene);
     }
 
-    private GameplayTuning.RodParams currentRod() {
-        GameplayTuning.RodParams r = GameplayTuning.rod(currentRodId);
-        if (r == null) r = GameplayTuning.rod("starter_rod");
-        return r;
-    }
+    private void paintScene(Graphics2D g2d) {
+        QualityGovernor.Tier tier = quality.tier();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                tier.antialias ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                tier.antialias ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
 
-    private void update() {
-        boolean centerLake = currentWorld().map != null && currentWorld().map.centerWater;
+        GameSnapshot s = shown.snap;
+        double alpha = shown.alpha;
+        Player player = s.player;
+        boolean useCenterLake = s.centerLake;
+        if (bgWorldVersion != s.worldVersion) rebuildPondBackground(s);
 
-        if (gameState == GameState.EXPLORATION) {
-            int speed = player.getSpeed();
-            int dx = 0, dy = 0;
-            if (keysPressed.contains(KeyEvent.VK_LEFT))  dx -= speed;
-            if (keysPressed.contains(KeyEvent.VK_RIGHT)) dx += speed;
-            if (keysPressed.contains(KeyEvent.VK_UP))    dy -= speed;
-            if (keysPressed.contains(KeyEvent.VK_DOWN))  dy += speed;
+        int playerFoot = player.renderY(alpha);
+        updateCamera(s, alpha);
+        Rectangle view = camera.view();
 
-            if (dx == 0 && dy == 0) {
-                player.setMoving(false);
-            } else {
-                if (Math.abs(dy) >= Math.abs(dx)) {
-                    player.setDirection(dy < 0 ? Player.Direction.UP : Player.Direction.DOWN);
-                } else {
-                    player.setDirection(dx < 0 ? Player.Direction.LEFT : Player.Direction.RIGHT);
-                }
-                player.setMoving(true);
-            }
+        camera.begin(g2d);
+        if (!useCenterLake) {
+            LayerCompositor.Baked layer = staticLayer(s, tier.waves);
+            staticChunks.draw(g2d, view);
+            DrawList props = layer.dynamic;
+            int[] idx = visibleBuffer(props.size());
+            int n = props.visible(view, idx);
+            int split = props.splitAt(idx, n, playerFoot);
+            props.draw(g2d, idx, 0, split);
+            player.draw(g2d, spriteSheet, this, alpha);
+            props.draw(g2d, idx, split, n);
+        } else {
+            if (generatedWorldBg != null) g2d.drawImage(generatedWorldBg, 0, 0, null);
+            else if (s.ground != null) s.ground.paint(g2d, view);
+            World2Scene props = s.world2;
+            int[] idx = visibleBuffer(props.size());
+            int n = props.visible(view, idx);
+            int split = props.splitAt(idx, n, playerFoot);
+            props.draw(g2d, idx, 0, split);
+            player.draw(g2d, spriteSheet, this, alpha);
+            props.draw(g2d, idx, split, n);
+        }
+        particles.draw(g2d, view);
+        if (showCollisionField && s.collisionField != null) drawCollisionField(g2d, s.collisionField, view);
+        camera.end(g2d);
+
+        switch (s.state) {
+            case CASTING -> drawCasting(g2d, s);
+            case REELING -> drawReeling(g2d, s);
+            case RESULT -> drawResult(g2d, s);
+            case INVENTORY -> drawInventory(g2d, s);
+            default -> { }
+        }
 
-            if (dx != 0) {
-                Rectangle feetNextX = playerFeetAt(player.x + dx, player.y);
-                boolean blockX = false;
-                if (!centerLake && collisionWorld != null) {
-                    blockX = collisionWorld.blocks(feetNextX);
-                } else {
-                    blockX = world2Blocks(feetNextX) || blockX;
-                }
-                boolean outX = feetNextX.x < 0 || (feetNextX.x + feetNextX.width) > worldW;
-                boolean inWaterX = isInWater(feetNextX);
-                if (!blockX && !outX && !inWaterX) {
-                    player.x += dx;
-                }
-            }
-            if (dy != 0) {
-                int candidateY = player.y + dy;
-                Rectangle feetNextY = playerFeetAt(player.x, candidateY);
-                boolean blockY = false;
-                if (!centerLake && collisionWorld != null) {
-                    blockY = collisionWorld.blocks(feetNextY);
-                } else {
-                    blockY = world2Blocks(feetNextY) || blockY;
-                }
-                boolean outY = feetNextY.y < 0 || (feetNextY.y + feetNextY.height) > worldH;
-                boolean inWaterY = isInWater(feetNextY);
-                if (!blockY && !outY && !inWaterY) {
-                    player.y = candidateY;
-                }
-            }
+        drawUI(g2d, s);
+        QuestManager quests = engine.getQuestManager();
+        quests.setTranslucentBackground(tier.questTranslucent);
+        quests.draw(g2d, WIDTH, HEIGHT, s.questProgress);
 
+        if (showQualityOverlay) quality.drawOverlay(g2d, WIDTH, 8);
+    }
 
-            player.x = Math.max(16, Math.min(worldW - 16, player.x));
-            player.y = Math.max(6,  Math.min(worldH - 6,  player.y));
+    private void drawCollisionField(Graphics2D g2d, CollisionField f, Rectangle view) {
+        if (fieldImageOf != f) {
+            fieldImage = collisionFieldImage(f);
+            fieldImageOf = f;
         }
+        int res = f.resolution;
+        int c0 = Math.max(0, view.x / res), r0 = Math.max(0, view.y / res);
+        int c1 = Math.min(f.cols, (view.x + view.width + res - 1) / res), r1 = Math.min(f.rows, (view.y + view.height + res - 1) / res);
+        if (c0 >= c1 || r0 >= r1) return;
+        Object interp = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(fieldImage, c0 * res, r0 * res, c1 * res, r1 * res, c0, r0, c1, r1, null);
+        if (interp != null) g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interp);
+    }
 
-
-        if (gameState == GameState.REELING && reelMinigame != null && fishingSequence != null && !reelMinigame.isFinished()) {
-            int barWidth = HUD_W - 80;
-            reelMinigame.update(0.05, barWidth);
-            if (reelMinigame.isFinished()) {
-                fishingSequence.reelingFinished = true;
-                fishingSequence.success = reelMinigame.isSuccess();
+    private static BufferedImage collisionFieldImage(CollisionField f) {
+        BufferedImage img = new BufferedImage(f.cols, f.rows, BufferedImage.TYPE_INT_ARGB);
+        int[] row = new int[f.cols];
+        for (int r = 0; r < f.rows; r++) {
+            for (int c = 0; c < f.cols; c++) {
+                if (f.isSolidCell(c, r)) {
+                    row[c] = 0x90FF3030;
+                } else {
+                    float d = f.cellDistance(c, r) / 4f;
+                    int a = d >= 48 ? 0 : (int) (110 * (1 - d / 48));
+                    if (((int) d) % 16 == 0 && d < 48) a = Math.min(255, a + 60); // contour every 16 px
+                    row[c] = (a << 24) | 0x3080FF;
+                }
             }
+            img.setRGB(0, r, f.cols, 1, row, 0, f.cols);
         }
-
-        if (gameState == GameState.CASTING) {
-            player.setOverrideAction(NPCSpriteSheet.Action.FISH_CAST);
-        } else if (gameState == GameState.REELING) {
-            player.setOverrideAction(NPCSpriteSheet.Action.FISH_REEL);
-        } else {
-            player.setOverrideAction(null);
-        }
-
-        repaint();
+        return img;
     }
 
-    private Rectangle playerFeetAt(int px, int py) {
-        return new Rectangle(px - 16, py - 6, 32, 12);
+    private void updateCamera(GameSnapshot s, double alpha) {
+        camera.setWorldSize(s.worldWidth, s.worldHeight);
+        camera.follow(s.player.renderX(alpha), s.player.renderY(alpha));
     }
 
-    private Rectangle expand(Rectangle r, int m) {
-        return new Rectangle(r.x - m, r.y - m, r.width + m * 2, r.height + m * 2);
-    }
-    private Rectangle shrink(Rectangle r, int m) {
-        return new Rectangle(r.x + m, r.y + m, Math.max(0, r.width - m * 2), Math.max(0, r.height - m * 2));
+    private int[] visibleBuffer(int size) {
+        if (visibleProps.length < size) visibleProps = new int[size];
+        return visibleProps;
     }
 
-    private boolean isInWater(Rectangle feetRect) {
-        GameplayTuning.WorldParams wp = currentWorld();
-        if (wp.map != null && wp.map.centerWater && pondRectPx != null) {
-            Rectangle inside = shrink(pondRectPx, 4);
-            return feetRect.intersects(inside);
-        } else {
-            int candidateY = feetRect.y + feetRect.height;
-            return candidateY > (waterTopY - FOOT_MARGIN);
+    private LayerCompositor.Baked staticLayer(GameSnapshot s, boolean waves) {
+        Player p = s.player;
+        Rectangle b = p.renderBounds(1.0);
+        Rectangle sprite = new Rectangle(b.x - p.x, b.y - p.y, b.width, b.height);
+        if (staticLayer == null || staticLayerWorld != s.worldVersion || staticLayerWaves != waves
+                || !sprite.equals(staticLayerSprite)) {
+            staticLayer = LayerCompositor.bake(s.worldWidth, s.worldHeight, getBackground(), s.ground,
+                    waves ? waveTile : null, s.waterTopY, s.worldDraw, s.walkableFeet, sprite);
+            staticLayerWorld = s.worldVersion;
+            staticLayerWaves = waves;
+            staticLayerSprite = sprite;
+            if (staticChunks != null) staticChunks.invalidate(); // frees the old chunks' video memory now
+            staticChunks = new ChunkCache(CHUNK, ChunkCache.capacityFor(WIDTH, HEIGHT, CHUNK), Transparency.OPAQUE,
+                    staticLayer::paint);
+            System.out.println("🧱 baked static layer: " + staticLayer.bakedProps + "/" + s.worldDraw.size() + " props");
         }
+        return staticLayer;
     }
 
-    private boolean isNearWater(int px, int py) {
-        GameplayTuning.WorldParams wp = currentWorld();
-        if (wp.map != null && wp.map.centerWater && pondRectPx != null) {
-            Rectangle feet = playerFeetAt(px, py);
-            Rectangle inside = shrink(pondRectPx, 4);
-            if (feet.intersects(inside)) return false;
-            Rectangle near = expand(pondRectPx, 10);
-            return feet.intersects(near);
-        } else {
-            return (py >= waterTopY - 28) && (py <= waterTopY - FOOT_MARGIN);
-        }
+    private long tierKey() {
+        QualityGovernor.Tier tier = quality.tier();
+        return (tier.antialias ? 1 : 0) | (tier.hudShadows ? 2 : 0);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-
-        GameplayTuning.WorldParams wp = currentWorld();
-        boolean useCenterLake = wp.map != null && wp.map.centerWater;
-
-        if (useCenterLake && generatedWorldBg != null) {
-            g2d.drawImage(generatedWorldBg, 0, 0, null);
-        } else {
-            BufferedImage ground = mapBg.getGroundImage();
-            if (ground != null) g2d.drawImage(ground, 0, 0, null);
-        }
-
-
-        if (!useCenterLake && waveTile != null) {
-            for (int i = 0; i < WIDTH; i += waveTile.getWidth()) {
-                g2d.drawImage(waveTile, i, waterTopY, waveTile.getWidth(), waveTile.getHeight(), null);
-            }
-        }
-
-        int playerFoot = player.y;
-
-        if (!useCenterLake) {
-            ArrayList<WorldObject> sorted = new ArrayList<>(worldObjects);
-            sorted.sort(Comparator.comparingInt(WorldObject::footY));
-            for (WorldObject o : sorted) if (o.footY() < playerFoot) o.draw(g2d);
-            player.draw(g2d, spriteSheet, this);
-            for (WorldObject o : sorted) if (o.footY() >= playerFoot) o.draw(g2d);
-        } else {
-            drawWorld2Before(g2d, playerFoot);
-            player.draw(g2d, spriteSheet, this);
-            drawWorld2After(g2d, playerFoot);
-        }
-
-        switch (gameState) {
-            case CASTING -> drawCasting(g2d);
-            case REELING -> drawReeling(g2d);
-            case RESULT -> drawResult(g2d);
-            case INVENTORY -> drawInventory(g2d);
-            default -> { }
-        }
+    private static long statusKey(GameSnapshot s) {
+        long key = s.player.money;
+        key = key * 31 + s.caughtFish.size();
+        key = key * 31 + s.worldId;
+        key = key * 31 + s.currentRodId.hashCode();
+        return key;
+    }
 
-        drawUI(g2d);
-        questManager.draw(g2d, WIDTH, HEIGHT);
+    private void drawUI(Graphics2D g2d, GameSnapshot s) {
+        statusLayer.draw(g2d, statusKey(s) * 4 + tierKey(), g -> paintStatus(g, s));
     }
 
-    private void drawUI(Graphics2D g2d) {
+    private void paintStatus(Graphics2D g2d, GameSnapshot s) {
+        Player player = s.player;
+        java.util.List<Fish> caughtFish = s.caughtFish;
         g2d.setColor(new Color(0, 0, 0, 150));
         g2d.fillRect(0, 0, 420, 110);
         g2d.setColor(Color.WHITE);
@@ -371,22 +625,30 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         g2d.drawString("ปลาที่ตกได้: " + (caughtFish == null ? 0 : caughtFish.size()), 20, 65);
         g2d.setFont(new Font("Arial", Font.PLAIN, 14));
         g2d.drawString("กด C: เลือกตัวละคร (NPC) | SPACE: ตกปลา", 220, 35);
-        g2d.drawString("World: " + currentWorld().name + " (คลิกกรอบนี้เพื่อสลับ | P เลือก)", 220, 65);
+        g2d.drawString("World: " + s.worldName + " (คลิกกรอบนี้เพื่อสลับ | P เลือก)", 220, 65);
 
-        GameplayTuning.RodParams r = currentRod();
+        GameplayTuning.RodParams r = s.rod;
         g2d.drawString("Rod: " + (r != null ? r.displayName : "None"), 20, 95);
     }
 
     // -------- Fishing overlays --------
-    private Rectangle hudRect() {
+    private static Rectangle hudRect() {
         int x = (WIDTH - HUD_W) / 2;
         int y = HEIGHT - HUD_H - HUD_MARGIN_BOTTOM;
         return new Rectangle(x, y, HUD_W, HUD_H);
     }
 
+    // hudRect plus the drop shadow and border stroke
+    private static Rectangle hudLayerBounds() {
+        Rectangle r = hudRect();
+        return new Rectangle(r.x - 2, r.y - 2, r.width + 8, r.height + 10);
+    }
+
     private void drawHudBox(Graphics2D g2d, Rectangle r, int alphaFill, int alphaBorder) {
-        g2d.setColor(new Color(0, 0, 0, 60));
-        g2d.fillRoundRect(r.x + 2, r.y + 4, r.width, r.height, HUD_RADIUS + 4, HUD_RADIUS + 4);
+        if (quality.tier().hudShadows) {
+            g2d.setColor(new Color(0, 0, 0, 60));
+            g2d.fillRoundRect(r.x + 2, r.y + 4, r.width, r.height, HUD_RADIUS + 4, HUD_RADIUS + 4);
+        }
 
         g2d.setColor(new Color(20, 20, 25, Math.max(0, Math.min(255, alphaFill))));
         g2d.fillRoundRect(r.x, r.y, r.width, r.height, HUD_RADIUS, HUD_RADIUS);
@@ -403,15 +665,27 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         int x = (WIDTH - textW) / 2;
         int y = 42;
 
-        g2d.setColor(new Color(0, 0, 0, 110));
-        g2d.drawString(text, x + 1, y + 1);
+        if (quality.tier().hudShadows) {
+            g2d.setColor(new Color(0, 0, 0, 110));
+            g2d.drawString(text, x + 1, y + 1);
+        }
 
         g2d.setColor(new Color(255, 255, 255, 230));
         g2d.drawString(text, x, y);
     }
 
-    private void drawCasting(Graphics2D g2d) {
+    // only the progress fill changes while casting; the box, texts and track are retained
+    private void drawCasting(Graphics2D g2d, GameSnapshot s) {
         Rectangle hud = hudRect();
+        castingLayer.draw(g2d, tierKey(), g -> paintCastingFrame(g, hud));
+
+        int progW = hud.width - 48;
+        int fill = (int)(progW * s.castProgress);
+        g2d.setColor(CAST_FILL);
+        g2d.fillRoundRect(hud.x + 24, hud.y + 70, fill, 26, 12, 12);
+    }
+
+    private void paintCastingFrame(Graphics2D g2d, Rectangle hud) {
         drawHudBox(g2d, hud, HUD_ALPHA, HUD_BORDER_ALPHA);
 
         g2d.setColor(Color.WHITE);
@@ -428,58 +702,35 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         g2d.setColor(new Color(255,255,255,40));
         g2d.drawRoundRect(progX, progY, progW, progH, 12, 12);
 
-        float p = fishingSequence == null ? 0f : (1f - (float)fishingSequence.castTimeRemaining / Math.max(1, fishingSequence.castMaxTime));
-        p = Math.max(0, Math.min(1, p));
-        int fill = (int)(progW * p);
-        g2d.setColor(new Color(50, 150, 255));
-        g2d.fillRoundRect(progX, progY, fill, progH, 12, 12);
-
         g2d.setColor(new Color(240, 240, 240));
         g2d.setFont(new Font("Arial", Font.PLAIN, 18));
         g2d.drawString("กำลังรอ... เมื่อปลากัด จะเข้าสู่ REELING อัตโนมัติ", hud.x + 24, hud.y + 110);
     }
 
-    private void drawReeling(Graphics2D g2d) {
-        if (reelMinigame == null) {
-            reelMinigame = new ReelMinigame();
-            if (fishingSequence != null && fishingSequence.caughtFish != null) {
-                setupReelForCurrent(fishingSequence.caughtFish);
-            } else {
-                reelMinigame.setResilience(0.9);
-                reelMinigame.setProgressEfficiency(1.0);
-                reelMinigame.setControlWidth(0.18);
-                reelMinigame.setMovementFactor(1.0);
-                reelBarScaleUI = 1.0;
-            }
-        }
+    // the hint, box, title and bar background are retained; the player bar, fish marker and
+    // progress are drawn live
+    private void drawReeling(Graphics2D g2d, GameSnapshot s) {
+        if (!s.reeling) return;
 
-        drawTopHint(g2d, "ค้าง SPACE หรือ คลิกเมาส์ซ้ายค้าง เพื่อดึง");
+        long tier = tierKey();
+        reelHintLayer.draw(g2d, tier, g -> drawTopHint(g, "ค้าง SPACE หรือ คลิกเมาส์ซ้ายค้าง เพื่อดึง"));
 
         Rectangle hud = hudRect();
-        drawHudBox(g2d, hud, HUD_ALPHA, HUD_BORDER_ALPHA);
-
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 28));
-        g2d.drawString("ขั้นที่ 2: REELING", hud.x + 24, hud.y + 42);
+        int barHeight = reelBarHeight(s.reelBarScaleUI);
+        reelingLayer.draw(g2d, tier * 31 + barHeight, g -> paintReelingFrame(g, hud, barHeight));
 
         int innerPad = 24;
         int barX = hud.x + innerPad;
         int barY = hud.y + 70;
         int barWidth = hud.width - innerPad * 2;
-        int barHeight = (int)Math.round(36 * Math.max(0.75, Math.min(1.8, reelBarScaleUI)));
-
-        g2d.setColor(new Color(0,0,0,120));
-        g2d.fillRoundRect(barX, barY, barWidth, barHeight, 12, 12);
-        g2d.setColor(new Color(0,0,0,160));
-        g2d.drawRoundRect(barX, barY, barWidth, barHeight, 12, 12);
 
-        int pbW = (int)Math.round(barWidth * reelMinigame.getControlWidth());
-        int pbX = (int)Math.round(barX + reelMinigame.getPlayerBarCenter() * barWidth - pbW/2.0);
-        g2d.setColor(new Color(255,255,255,200));
+        int pbW = (int)Math.round(barWidth * s.reelControlWidth);
+        int pbX = (int)Math.round(barX + s.reelBarCenter * barWidth - pbW/2.0);
+        g2d.setColor(REEL_PLAYER_BAR);
         g2d.fillRoundRect(pbX, barY, pbW, barHeight, 10, 10);
 
-        int fishPx = (int)Math.round(barX + reelMinigame.getFishCenter()*barWidth - 4);
-        g2d.setColor(new Color(67,75,91));
+        int fishPx = (int)Math.round(barX + s.reelFishCenter*barWidth - 4);
+        g2d.setColor(REEL_FISH_MARKER);
         g2d.fillRoundRect(fishPx, barY, 8, barHeight, 10, 10);
 
         int progX = hud.x + innerPad;
@@ -487,30 +738,58 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         int progW = hud.width - innerPad * 2;
         int progH = 22;
 
-        g2d.setColor(new Color(0,0,0,120));
+        g2d.setColor(REEL_TRACK);
         g2d.fillRoundRect(progX, progY, progW, progH, 10, 10);
-        g2d.setColor(new Color(0,0,0,160));
+        g2d.setColor(REEL_TRACK_BORDER);
         g2d.drawRoundRect(progX, progY, progW, progH, 10, 10);
 
-        int fill = (int)Math.round(Math.max(0, Math.min(1, reelMinigame.getProgress()/100.0)) * progW);
-        g2d.setColor(new Color(255,255,255,230));
+        int fill = (int)Math.round(Math.max(0, Math.min(1, s.reelProgress/100.0)) * progW);
+        g2d.setColor(REEL_PROGRESS);
         g2d.fillRoundRect(progX, progY, fill, progH, 10, 10);
     }
 
-    private void drawResult(Graphics2D g2d) {
-        if (fishingSequence == null) return;
+    private static int reelBarHeight(double reelBarScaleUI) {
+        return (int)Math.round(36 * Math.max(0.75, Math.min(1.8, reelBarScaleUI)));
+    }
+
+    private void paintReelingFrame(Graphics2D g2d, Rectangle hud, int barHeight) {
+        drawHudBox(g2d, hud, HUD_ALPHA, HUD_BORDER_ALPHA);
+
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(new Font("Arial", Font.BOLD, 28));
+        g2d.drawString("ขั้นที่ 2: REELING", hud.x + 24, hud.y + 42);
+
+        int innerPad = 24;
+        int barX = hud.x + innerPad;
+        int barY = hud.y + 70;
+        int barWidth = hud.width - innerPad * 2;
 
-        g2d.setColor(new Color(0, fishingSequence.success ? 200 : 0, fishingSequence.success ? 0 : 200, 120));
+        g2d.setColor(REEL_TRACK);
+        g2d.fillRoundRect(barX, barY, barWidth, barHeight, 12, 12);
+        g2d.setColor(REEL_TRACK_BORDER);
+        g2d.drawRoundRect(barX, barY, barWidth, barHeight, 12, 12);
+    }
+
+    private void drawResult(Graphics2D g2d, GameSnapshot s) {
+        Fish f = s.hookedFish;
+        if (f == null) return;
+        long key = s.fishingSuccess ? 1 : 0;
+        key = key * 31 + java.util.Objects.hash(f.name, f.price, f.imagePath);
+        resultLayer.draw(g2d, key * 4 + tierKey(), g -> paintResult(g, s));
+    }
+
+    private void paintResult(Graphics2D g2d, GameSnapshot s) {
+        g2d.setColor(new Color(0, s.fishingSuccess ? 200 : 0, s.fishingSuccess ? 0 : 200, 120));
         g2d.fillRect(0, 0, WIDTH, HEIGHT);
 
         g2d.setColor(Color.WHITE);
         g2d.setFont(new Font("Arial", Font.BOLD, 48));
-        String title = fishingSequence.success ? "ตกปลาสำเร็จ!" : "ปลาหนีไป!";
+        String title = s.fishingSuccess ? "ตกปลาสำเร็จ!" : "ปลาหนีไป!";
         FontMetrics fm = g2d.getFontMetrics();
         g2d.drawString(title, (WIDTH - fm.stringWidth(title)) / 2, 150);
 
-        if (fishingSequence.success) {
-            Fish f = fishingSequence.caughtFish;
+        if (s.fishingSuccess) {
+            Fish f = s.hookedFish;
 
             int textX = WIDTH / 2 - 260;
             int y1 = 280;
@@ -528,7 +807,13 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         g2d.drawString("กดเว้นวรรค เพื่อกลับเมนู", WIDTH / 2 - 150, 550);
     }
 
-    private void drawInventory(Graphics2D g2d) {
+    private void drawInventory(Graphics2D g2d, GameSnapshot s) {
+        long key = s.inventoryVersion * 31L + s.currentRodId.hashCode();
+        inventoryLayer.draw(g2d, key * 4 + tierKey(), g -> paintInventory(g, s));
+    }
+
+    private void paintInventory(Graphics2D g2d, GameSnapshot s) {
+        java.util.List<Fish> caughtFish = s.caughtFish;
         g2d.setColor(new Color(0, 0, 0, 180));
         g2d.fillRect(0, 0, WIDTH, HEIGHT);
 
@@ -568,13 +853,13 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
             g2d.drawString("ยังไม่มีปลา", 100, 150);
         }
 
-        drawRodShop(g2d);
+        drawRodShop(g2d, s);
 
         g2d.drawString("กด S เพื่อขายทั้งหมด | กดเลข 1-9 เพื่อ ซื้อ/ใส่ คันเบ็ด", WIDTH / 2 - 240, HEIGHT - 80);
         g2d.drawString("กดเว้นวรรค เพื่อกลับเมนู", WIDTH / 2 - 150, HEIGHT - 50);
     }
 
-    private void drawRodShop(Graphics2D g2d) {
+    private void drawRodShop(Graphics2D g2d, GameSnapshot s) {
         int panelX = WIDTH - 420;
         int panelY = 90;
         int panelW = 360;
@@ -592,10 +877,10 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         g2d.setFont(new Font("Arial", Font.PLAIN, 16));
 
         for (int i = 1; i <= 9; i++) {
-            String rodId = rodIndexToId.get(i);
+            String rodId = s.rodSlots.get(i);
             if (rodId == null) break;
             GameplayTuning.RodParams r = GameplayTuning.rod(rodId);
-            String owned = ownedRods.contains(rodId) ? (rodId.equals(currentRodId) ? " (Equipped)" : " (Owned)") : "";
+            String owned = s.ownedRods.contains(rodId) ? (rodId.equals(s.currentRodId) ? " (Equipped)" : " (Owned)") : "";
             g2d.setColor(Color.WHITE);
             g2d.drawString(i + ". " + r.displayName + owned, panelX + 16, y);
             g2d.setColor(new Color(220, 220, 220));
@@ -612,7 +897,7 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
     }
 
     private void drawFishPreviewBox(Graphics2D g2d, Fish fish, int x, int y, int w, int h) {
-        BufferedImage img = loadFishImage(fish.imagePath);
+        BufferedImage img = fishPreview(fish.imagePath, w, h);
         if (img != null) {
             g2d.drawImage(img, x, y, w, h, null);
             g2d.setColor(new Color(255,255,255,140));
@@ -628,12 +913,12 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
     }
 
     private void drawFishPreviewTile(Graphics2D g2d, Fish fish, int x, int y, int w, int h) {
-        BufferedImage img = loadFishImage(fish.imagePath);
+        int pad = 8;
+        BufferedImage img = fishPreview(fish.imagePath, h - pad*2, h - pad*2);
         g2d.setColor(new Color(0,0,0,120));
         g2d.fillRoundRect(x, y, w, h, 10, 10);
         g2d.setColor(new Color(255,255,255,80));
         g2d.drawRoundRect(x, y, w, h, 10, 10);
-        int pad = 8;
         if (img != null) {
             g2d.drawImage(img, x + pad, y + pad, h - pad*2, h - pad*2, null);
         } else {
@@ -644,17 +929,31 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         }
     }
 
+    // the fish image resized once in the background; the panels showing it are redrawn when it's ready
+    private BufferedImage fishPreview(String path, int w, int h) {
+        BufferedImage img = loadFishImage(path);
+        return img == null ? null
+                : ScaledImageCache.shared().get(path, img, w, h, ScaledImageCache.Quality.SMOOTH, this::onPreviewScaled);
+    }
+
+    private void onPreviewScaled() {
+        onPaintThread(() -> {
+            resultLayer.invalidate();
+            inventoryLayer.invalidate();
+        });
+    }
+
     private BufferedImage loadFishImage(String path) {
         if (path == null || path.isEmpty()) return null;
         try {
             if (fishImageCache.containsKey(path)) return fishImageCache.get(path);
-            File use = resolveAssetFile(path);
+            File use = engine.resolveAssetFile(path);
             if (use == null) {
                 System.out.println("⚠️ Fish image not found: " + path);
                 fishImageCache.put(path, null);
                 return null;
             }
-            BufferedImage img = ImageIO.read(use);
+            BufferedImage img = Images.read(use);
             fishImageCache.put(path, img);
             return img;
         } catch (Exception e) {
@@ -663,142 +962,48 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         }
     }
 
-    private File resolveAssetFile(String rel) {
-        File f0 = new File(assetRoot, rel);
-        if (f0.exists()) return f0;
-        File f1 = new File("src/" + rel);
-        if (f1.exists()) return f1;
-        File f2 = new File(rel);
-        if (f2.exists()) return f2;
-        return null;
-    }
-
-    // --- World 2 object support ---
+    // --- World 2 drawing ---
 
-    private static final class World2Obj {
-        String src;
-        int x, y;
-        boolean collide = true;
-        int footH = 16;
-    }
-
-    private void loadWorld2ObjectsIfNeeded() {
-        GameplayTuning.WorldParams wp = currentWorld();
-        boolean centerLake = (wp != null && wp.map != null && wp.map.centerWater);
-        world2Objects.clear();
-        world2ImageCache.clear();
-        if (!centerLake) return;
-
-        try {
-            File f = resolveFileLoose(WORLD2_MAP_PATH);
-            if (f == null || !f.exists()) {
-                System.out.println("⚠️ World2 map not found at: " + WORLD2_MAP_PATH);
-                return;
-            }
-            String txt = java.nio.file.Files.readString(f.toPath(), java.nio.charset.StandardCharsets.UTF_8);
-            MapData data = MapIO.fromJson(txt);
-            if (data == null || data.objects == null) return;
-
-            for (MapData.MapObject o : data.objects) {
-                if (o == null || o.src == null || o.src.isEmpty()) continue;
-                World2Obj w = new World2Obj();
-                w.src = o.src;
-                w.x = o.x;
-                w.y = o.y;
-                w.collide = o.collide;
-                w.footH = o.footH;
-                world2Objects.add(w);
-            }
-            System.out.println("✅ World 2 objects loaded: " + world2Objects.size());
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
-    }
-
-    private boolean world2Blocks(Rectangle feetRect) {
-        for (World2Obj o : world2Objects) {
-            BufferedImage img = loadWorld2Image(o.src);
-            Rectangle cr = world2Collider(o, img);
-            if (cr != null && cr.intersects(feetRect)) return true;
-        }
-        return false;
-    }
-
-    private void drawWorld2Before(Graphics2D g2d, int playerFootY) {
-        java.util.List<World2Obj> list = new ArrayList<>(world2Objects);
-        list.sort(Comparator.comparingInt(o -> world2FootY(o, loadWorld2Image(o.src))));
-        for (World2Obj o : list) {
-            BufferedImage img = loadWorld2Image(o.src);
-            if (world2FootY(o, img) < playerFootY) drawWorld2One(g2d, o, img);
-        }
-    }
-
-    private void drawWorld2After(Graphics2D g2d, int playerFootY) {
-        java.util.List<World2Obj> list = new ArrayList<>(world2Objects);
-        list.sort(Comparator.comparingInt(o -> world2FootY(o, loadWorld2Image(o.src))));
-        for (World2Obj o : list) {
-            BufferedImage img = loadWorld2Image(o.src);
-            if (world2FootY(o, img) >= playerFootY) drawWorld2One(g2d, o, img);
-        }
-    }
-
-    private void drawWorld2One(Graphics2D g2d, World2Obj o, BufferedImage img) {
-        if (img != null) {
-            g2d.drawImage(img, o.x, o.y, null);
-        } else {
-            g2d.setColor(new Color(0,0,0,120));
-            g2d.fillRect(o.x, o.y, 64, 64);
-            g2d.setColor(Color.WHITE);
-            g2d.drawRect(o.x, o.y, 64, 64);
+    private void rebuildPondBackground(GameSnapshot s) {
+        bgWorldVersion = s.worldVersion;
+        Rectangle pond = s.pondRect;
+        if (!s.centerLake || pond == null) {
+            generatedWorldBg = null;
+            return;
         }
-    }
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
 
-    private int world2FootY(World2Obj o, BufferedImage img) {
-        int h = (img != null ? img.getHeight() : 64);
-        return o.y + h;
-    }
+        g.setColor(new Color(60, 140, 60)); // ground
+        g.fillRect(0, 0, WIDTH, HEIGHT);
 
-    private Rectangle world2Collider(World2Obj o, BufferedImage img) {
-        if (!o.collide) return null;
-        int w = (img != null ? img.getWidth() : 64);
-        int h = (img != null ? img.getHeight() : 64);
-        int fh = Math.max(4, o.footH);
-        return new Rectangle(o.x, o.y + h - fh, Math.max(4, w), fh);
-    }
+        g.setColor(new Color(26, 168, 208));
+        g.fillRect(pond.x, pond.y, pond.width, pond.height);
+        g.setColor(new Color(255, 255, 255, 90));
+        g.drawRect(pond.x, pond.y, pond.width, pond.height);
 
-    private BufferedImage loadWorld2Image(String src) {
-        if (src == null || src.isEmpty()) return null;
-        try {
-            if (world2ImageCache.containsKey(src)) return world2ImageCache.get(src);
-            File use = resolveAssetFile(src);
-            if (use == null) {
-                System.out.println("⚠️ World2 image not found: " + src + " (assetRoot=" + assetRoot + ")");
-                world2ImageCache.put(src, null);
-                return null;
-            }
-            BufferedImage img = ImageIO.read(use);
-            world2ImageCache.put(src, img);
-            return img;
-        } catch (Exception e) {
-            world2ImageCache.put(src, null);
-            return null;
-        }
+        g.dispose();
+        generatedWorldBg = img;
     }
 
     // --- Key / Mouse handlers ---
     @Override public void keyPressed(KeyEvent e) {
-        keysPressed.add(e.getKeyCode());
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            switch (gameState) {
-                case EXPLORATION -> startFishing();
-                case CASTING -> { }
-                case SNAG -> { }
-                case RESULT, INVENTORY -> gameState = GameState.EXPLORATION;
-                case REELING -> { if (reelMinigame != null) reelMinigame.press(); }
-            }
+        loop.wake();
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            onPaintThread(() -> showQualityOverlay = !showQualityOverlay);
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_F4) {
+            onPaintThread(() -> showCollisionField = !showCollisionField);
+            return;
         }
-        if (e.getKeyCode() == KeyEvent.VK_I && gameState == GameState.EXPLORATION) {
-            gameState = GameState.INVENTORY;
+        if (isReplaying()) return;
+        GameEngine.Input in = inputFor(e.getKeyCode());
+        if (in != null) engine.post(in, true, System.nanoTime());
+
+        GameState gameState = latest.snap.state;
+        if (e.getKeyCode() == KeyEvent.VK_I) {
+            runOnSim(GameEngine::openInventory);
         }
         if (e.getKeyCode() == KeyEvent.VK_C && gameState == GameState.EXPLORATION) {
             JDialog dlg = new JDialog(SwingUtilities.getWindowAncestor(this), "เลือกตัวละคร (NPC)", Dialog.ModalityType.MODELESS);
@@ -810,245 +1015,64 @@ public class GamePanel extends JPanel implements KeyListener, MouseMotionListene
         if (e.getKeyCode() == KeyEvent.VK_P && gameState == GameState.EXPLORATION) {
             openWorldSelectDialog();
         }
-        if (e.getKeyCode() == KeyEvent.VK_S && gameState == GameState.INVENTORY) {
-            int total = 0;
-            for (Fish f : caughtFish) total += f.price;
-            player.addMoney(total);
-            caughtFish.clear();
-            repaint();
+        if (e.getKeyCode() == KeyEvent.VK_S) {
+            runOnSim(GameEngine::sellAll);
         }
-        if (gameState == GameState.INVENTORY && e.getKeyCode() >= KeyEvent.VK_1 && e.getKeyCode() <= KeyEvent.VK_9) {
-            int num = e.getKeyCode() - KeyEvent.VK_1 + 1;
-            String rodId = rodIndexToId.get(num);
-            if (rodId != null) handleBuyOrEquipRod(rodId);
+        if (e.getKeyCode() >= KeyEvent.VK_1 && e.getKeyCode() <= KeyEvent.VK_9) {
+            int slot = e.getKeyCode() - KeyEvent.VK_1 + 1;
+            runOnSim(en -> en.buyOrEquipRodSlot(slot));
         }
         if (e.getKeyCode() == KeyEvent.VK_W && gameState == GameState.EXPLORATION) {
-            toggleWorld(); 
+            runOnSim(GameEngine::toggleWorld);
         }
     }
     @Override public void keyReleased(KeyEvent e) {
-        keysPressed.remove(e.getKeyCode());
-        if (e.getKeyCode() == KeyEvent.VK_SPACE && gameState == GameState.REELING) {
-            if (reelMinigame != null) reelMinigame.release();
-        }
+        loop.wake();
+        if (isReplaying()) return;
+        GameEngine.Input in = inputFor(e.getKeyCode());
+        if (in != null) engine.post(in, false, System.nanoTime());
     }
     @Override public void keyTyped(KeyEvent e) {}
 
+    private static GameEngine.Input inputFor(int keyCode) {
+        return switch (keyCode) {
+            case KeyEvent.VK_LEFT -> GameEngine.Input.LEFT;
+            case KeyEvent.VK_RIGHT -> GameEngine.Input.RIGHT;
+            case KeyEvent.VK_UP -> GameEngine.Input.UP;
+            case KeyEvent.VK_DOWN -> GameEngine.Input.DOWN;
+            case KeyEvent.VK_SPACE -> GameEngine.Input.ACTION;
+            default -> null;
+        };
+    }
+
     @Override public void mouseMoved(MouseEvent e) {}
     @Override public void mouseDragged(MouseEvent e) {}
     @Override public void mousePressed(MouseEvent e) {
-        if (gameState == GameState.REELING && e.getButton() == MouseEvent.BUTTON1) {
-            if (reelMinigame != null) reelMinigame.press();
-        }
-        if (questManager.handleClick(e.getX(), e.getY())) repaint();
-
-
-        if (e.getButton() == MouseEvent.BUTTON1 && gameState == GameState.EXPLORATION) {
-            if (e.getX() >= 0 && e.getX() <= 420 && e.getY() >= 0 && e.getY() <= 110) {
-                toggleWorld();
+        loop.wake();
+        if (isReplaying()) return;
+        if (e.getButton() == MouseEvent.BUTTON1) engine.post(GameEngine.Input.REEL, true, System.nanoTime());
+        Point p = target.toLogical(e.getX(), e.getY());
+        onPaintThread(() -> engine.getQuestManager().handleClick(p.x, p.y));
+
+        if (e.getButton() == MouseEvent.BUTTON1 && latest.snap.state == GameState.EXPLORATION) {
+            if (p.x >= 0 && p.x <= 420 && p.y >= 0 && p.y <= 110) {
+                runOnSim(GameEngine::toggleWorld);
             }
         }
     }
     @Override public void mouseReleased(MouseEvent e) {
-        if (gameState == GameState.REELING && e.getButton() == MouseEvent.BUTTON1) {
-            if (reelMinigame != null) reelMinigame.release();
-        }
+        loop.wake();
+        if (isReplaying()) return;
+        if (e.getButton() == MouseEvent.BUTTON1) engine.post(GameEngine.Input.REEL, false, System.nanoTime());
     }
     @Override public void mouseClicked(MouseEvent e) {}
     @Override public void mouseEntered(MouseEvent e) {}
     @Override public void mouseExited(MouseEvent e) {}
 
-    private void toggleWorld() {
-        int next = (currentWorldId == 1) ? 2 : 1;
-        switchWorld(next);
-    }
-
     private void openWorldSelectDialog() {
         Window owner = SwingUtilities.getWindowAncestor(this);
-        WorldSelectDialog dlg = new WorldSelectDialog(owner, this::switchWorld);
+        WorldSelectDialog dlg = new WorldSelectDialog(owner, id -> runOnSim(en -> en.switchWorld(id)));
         dlg.setLocationRelativeTo(this);
         dlg.setVisible(true);
     }
-
-    private void switchWorld(int newWorldId) {
-        currentWorldId = newWorldId;
-
-        refreshWorldVisuals();
-
-        loadWorld2ObjectsIfNeeded();
-
-        GameplayTuning.WorldParams wp = currentWorld();
-        if (wp.map != null && wp.map.centerWater && pondRectPx != null) {
-            player.x = pondRectPx.x - 40;
-            player.y = pondRectPx.y + pondRectPx.height / 2;
-        } else {
-            player.x = WIDTH / 2;
-            player.y = Math.max(6, waterTopY - FOOT_MARGIN - 2);
-        }
-
-        reelMinigame = null;
-        if (gameState != GameState.EXPLORATION) gameState = GameState.EXPLORATION;
-        repaint();
-    }
-
-private void refreshWorldVisuals() {
-    GameplayTuning.WorldParams wp = currentWorld();
-    currentMapSpec = (wp != null) ? wp.map : null;
-    pondRectPx = null;
-
-    if (currentMapSpec != null && currentMapSpec.centerWater) {
-        final int TILE_SIZE_PX = 64;
-        final int halfPx = Math.max(TILE_SIZE_PX, currentMapSpec.waterRadius * TILE_SIZE_PX);
-
-        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = img.createGraphics();
-
-        g.setColor(new Color(60, 140, 60)); // ground
-        g.fillRect(0, 0, WIDTH, HEIGHT);
-
-        int cx = WIDTH / 2;
-        int cy = HEIGHT / 2;
-        int wx = cx - halfPx;
-        int wy = cy - (int) Math.round(halfPx * 0.8);
-        int ww = halfPx * 2;
-        int wh = (int) Math.round(halfPx * 1.6);
-
-        g.setColor(new Color(26, 168, 208));
-        g.fillRect(wx, wy, ww, wh);
-        g.setColor(new Color(255, 255, 255, 90));
-        g.drawRect(wx, wy, ww, wh);
-
-        g.dispose();
-        generatedWorldBg = img;
-
-        pondRectPx = new Rectangle(wx, wy, ww, wh);
-
-        collisionWorld = null;
-        worldObjects = new ArrayList<>();
-        worldW = WIDTH;
-        worldH = HEIGHT;
-
-        System.out.println("World " + currentWorldId + " centerWater=true, waterRadius(tiles)="
-                + currentMapSpec.waterRadius + ", halfPx=" + halfPx);
-    } else {
-        generatedWorldBg = null;
-        pondRectPx = null;
-
-        waterTopY = mapBg.getWaterTopY();
-        collisionWorld = mapBg.getCollisionWorld();
-        worldObjects = new ArrayList<>(mapBg.getObjects());
-        worldW = mapBg.getWorldWidth();
-        worldH = mapBg.getWorldHeight();
-    }
 }
-
-    // -------- Fishing flow --------
-    private void startFishing() {
-        if (!isNearWater(player.x, player.y)) {
-            JOptionPane.showMessageDialog(this, "ต้องยืนที่ริมฝั่งน้ำ เพื่อตกปลา!");
-            return;
-        }
-        gameState = GameState.CASTING;
-
-        Fish rolled = rollFishConsideringBonuses();
-        fishingSequence = new FishingSequence(rolled, computeBiteTimeMs(rolled));
-        reelMinigame = null;
-
-        javax.swing.Timer timer = new javax.swing.Timer(50, e -> {
-            fishingSequence.update();
-            if (fishingSequence.phase == FishingPhase.REELING && reelMinigame == null) {
-                reelMinigame = new ReelMinigame();
-                setupReelForCurrent(rolled);
-                gameState = GameState.REELING;
-            } else if (fishingSequence.phase == FishingPhase.REELING && fishingSequence.reelingFinished) {
-                ((javax.swing.Timer) e.getSource()).stop();
-                gameState = GameState.RESULT;
-                if (fishingSequence.success) {
-                    if (caughtFish == null) caughtFish = new ArrayList<>();
-                    caughtFish.add(fishingSequence.caughtFish);
-                     // player.addMoney(fishingSequence.caughtFish.price);
-                    questManager.onFishCaught(fishingSequence.caughtFish.name, fishingSequence.caughtFish.golden);
-                    java.util.List<quest.QuestManager.GoalPayout> pays = questManager.collectNewPayouts();
-                    for (quest.QuestManager.GoalPayout p : pays) if (p.money > 0) player.addMoney(p.money);
-                }
-            }
-            repaint();
-        });
-        timer.start();
-    }
-
-    private int computeBiteTimeMs(Fish fish) {
-        GameplayTuning.WorldParams wp = currentWorld();
-        GameplayTuning.CharStats cs = currentCharStats();
-        GameplayTuning.RodParams r = currentRod();
-        double biteSpeed = fish.biteSpeedMul;
-        double totalBonus = (cs.biteSpeedBonus) + (r != null ? r.biteSpeedBonus : 0.0);
-        double totalMul = Math.max(0.25, 1.0 * (1.0 - totalBonus) / Math.max(0.25, biteSpeed));
-        int castMs = (int)Math.round(wp.biteTimeBaseMs * totalMul +
-                (Math.random() - 0.5) * 2 * wp.biteTimeVarianceMs * totalMul);
-        return Math.max(500, castMs);
-    }
-
-    private void setupReelForCurrent(Fish fish) {
-        GameplayTuning.WorldParams wp = currentWorld();
-        GameplayTuning.CharStats cs = currentCharStats();
-        GameplayTuning.RodParams r = currentRod();
-
-        double progressEff = wp.reelProgressRate * fish.reelRateMul;
-        double wiggleStrength = wp.fishWiggleStrength * fish.wiggleMul;
-        double res = Math.max(0.2, 1.0 / Math.max(0.25, wiggleStrength));
-        double movementFactor = Math.max(0.3, wiggleStrength);
-
-        double uiScale = Math.max(0.6, wp.reelBarScale + cs.reelBarScaleBonus + (r != null ? r.reelBarScaleBonus : 0.0));
-        double controlWidth = Math.max(0.2, Math.min(0.9, 0.18 * uiScale));
-
-        reelMinigame.setResilience(res);
-        reelMinigame.setProgressEfficiency(progressEff);
-        reelMinigame.setMovementFactor(movementFactor);
-        reelMinigame.setControlWidth(controlWidth);
-
-        reelBarScaleUI = Math.max(0.75, Math.min(1.8, uiScale));
-    }
-
-    private Fish rollFishConsideringBonuses() {
-        java.util.List<GameplayTuning.FishParams> list = new java.util.ArrayList<>(GameplayTuning.fishes());
-        if (list.isEmpty()) {
-            return Fish.getRandomFish();
-        }
-        GameplayTuning.FishParams fp = list.get((int)(Math.random() * list.size()));
-
-        GameplayTuning.CharStats cs = currentCharStats();
-        GameplayTuning.RodParams r = currentRod();
-        double luck = (cs != null ? cs.luck : 0.0) + (r != null ? r.luckBonus : 0.0);
-        double goldenBonus = (r != null ? r.goldenChanceBonus : 0.0);
-        double goldenChance = 0.15 * (1.0 + Math.max(0, luck) + Math.max(0, goldenBonus));
-        goldenChance = Math.max(0.0, Math.min(0.9, goldenChance));
-
-        boolean golden = Math.random() < goldenChance;
-        String name = fp.displayName;
-        int price = fp.basePrice;
-        if (golden) {
-            name = "Golden " + name;
-            price = (int)Math.round(price * 2.0);
-        }
-
-        return new Fish(fp.id, name, price, golden, fp.imagePath, fp.reelRateMul, fp.wiggleMul, fp.biteSpeedMul);
-    }
-
-    private void handleBuyOrEquipRod(String rodId) {
-        GameplayTuning.RodParams r = GameplayTuning.rod(rodId);
-        if (r == null) return;
-        if (!ownedRods.contains(rodId)) {
-            if (player.money >= r.price) {
-                player.addMoney(-r.price);
-                ownedRods.add(rodId);
-                currentRodId = rodId;
-            } else {
-                JOptionPane.showMessageDialog(this, "เงินไม่พอซื้อ " + r.displayName);
-            }
-        } else {
-            currentRodId = rodId; // equip
-        }
-        repaint();
-    }
-}
\ No newline at end of file
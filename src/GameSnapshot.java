@@ -0,0 +1,113 @@
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import map.CollisionField;
+import map.DrawList;
+import map.Ground;
+import quest.QuestModels.QuestProgress;
+import world2.World2Scene;
+
+/**
+ * Immutable view of the game, published by the simulation thread after each frame's ticks
+ * and drawn by {@code GamePanel} without locks. Collections are unmodifiable copies that are
+ * rebuilt only when the engine state behind them changes; otherwise they are shared with the
+ * previous snapshot.
+ */
+public final class GameSnapshot {
+    public final long tick;
+    public final long nowMs;
+    public final GameState state;
+    public final Player player;
+
+    public final int worldId;
+    public final int worldVersion;
+    public final String worldName;
+    public final boolean centerLake;
+    public final int worldWidth, worldHeight;
+    public final int waterTopY;
+    public final Rectangle walkableFeet;
+    public final Rectangle pondRect;
+    public final Ground ground;
+    public final DrawList worldDraw;
+    public final World2Scene world2;
+    public final CollisionField collisionField;
+
+    public final int inventoryVersion;
+    public final List<Fish> caughtFish;
+    public final Map<Integer, String> rodSlots;
+    public final Set<String> ownedRods;
+    public final String currentRodId;
+    public final GameplayTuning.RodParams rod;
+
+    // fishing overlays
+    public final Fish hookedFish;
+    public final boolean fishingSuccess;
+    public final float castProgress;
+    public final boolean reeling;
+    public final double reelProgress;
+    public final double reelBarCenter;
+    public final double reelControlWidth;
+    public final double reelFishCenter;
+    public final double reelBarScaleUI;
+
+    public final int questVersion;
+    public final QuestProgress questProgress;
+
+    GameSnapshot(GameEngine e, GameSnapshot prev) {
+        tick = e.getTickCount();
+        nowMs = e.nowMs();
+        state = e.getGameState();
+        player = e.getPlayer().copy();
+
+        worldId = e.getWorldId();
+        worldVersion = e.getWorldVersion();
+        GameplayTuning.WorldParams wp = e.currentWorld();
+        worldName = wp != null ? wp.name : "";
+        centerLake = e.isCenterLake();
+        worldWidth = e.getWorldWidth();
+        worldHeight = e.getWorldHeight();
+        waterTopY = e.getWaterTopY();
+        walkableFeet = prev != null && prev.worldVersion == worldVersion ? prev.walkableFeet : e.getWalkableFeet();
+        pondRect = e.getPondRect() != null ? new Rectangle(e.getPondRect()) : null;
+        ground = e.getMapBackground().getGround();
+        worldDraw = e.getWorldDrawList();
+        world2 = e.getWorld2Scene();
+        collisionField = e.getCollisionField();
+
+        inventoryVersion = e.getInventoryVersion();
+        if (prev != null && prev.inventoryVersion == inventoryVersion) {
+            caughtFish = prev.caughtFish;
+            rodSlots = prev.rodSlots;
+            ownedRods = prev.ownedRods;
+        } else {
+            caughtFish = List.copyOf(e.getCaughtFish());
+            rodSlots = Collections.unmodifiableMap(new LinkedHashMap<>(e.getRodSlots()));
+            ownedRods = Set.copyOf(e.getOwnedRods());
+        }
+        currentRodId = e.getCurrentRodId();
+        rod = e.currentRod();
+
+        FishingSequence fs = e.getFishingSequence();
+        hookedFish = fs != null ? fs.caughtFish : null;
+        fishingSuccess = fs != null && fs.success;
+        float p = fs == null ? 0f : (1f - (float) fs.castTimeRemaining(nowMs) / Math.max(1, fs.castMaxTime));
+        castProgress = Math.max(0, Math.min(1, p));
+
+        ReelMinigame r = e.getReelMinigame();
+        reeling = r != null;
+        reelProgress = r != null ? r.getProgress() : 0;
+        reelBarCenter = r != null ? r.getPlayerBarCenter() : 0;
+        reelControlWidth = r != null ? r.getControlWidth() : 0;
+        reelFishCenter = r != null ? r.getFishCenter() : 0;
+        reelBarScaleUI = e.getReelBarScaleUI();
+
+        questVersion = e.getQuestManager().getVersion();
+        questProgress = prev != null && prev.questVersion == questVersion
+                ? prev.questProgress
+                : e.getQuestManager().getProgress().copy();
+    }
+}
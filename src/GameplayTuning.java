@@ -109,7 +109,7 @@ public final class GameplayTuning {
     }
 
     private static final Map<Integer, WorldParams> WORLDS = new HashMap<>();
-    private static final Map<String, FishParams> FISH = new HashMap<>();
+    private static final Map<String, FishParams> FISH = new LinkedHashMap<>(); // roll order must not depend on hashing
     private static final Map<String, CharStats> CHARS = new HashMap<>();
     private static final Map<String, RodParams> RODS = new HashMap<>();
 
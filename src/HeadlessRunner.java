@@ -0,0 +1,223 @@
+/**
+ * Runs {@link GameEngine} without a display, as fast as the CPU allows, with a simple
+ * fishing bot at the controls. Used for soak tests and balance runs on build agents:
+ *
+ *   java -Djava.awt.headless=true -cp bin HeadlessRunner --ticks 200000 --hz 60 --world 1
+ *
+ * --seed fixes the RNG, --record writes the bot's session to a replay file and
+ * --replay plays a recorded session (from the bot or from the game) instead of the bot.
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) throws java.io.IOException {
+        if (System.getProperty("java.awt.headless") == null) System.setProperty("java.awt.headless", "true");
+
+        int ticks = 100_000;
+        int hz = 60;
+        int world = 1;
+        long seed = System.nanoTime();
+        String recordPath = null;
+        String replayPath = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--ticks" -> ticks = Integer.parseInt(args[i + 1]);
+                case "--hz" -> hz = Integer.parseInt(args[i + 1]);
+                case "--world" -> world = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--record" -> recordPath = args[i + 1];
+                case "--replay" -> replayPath = args[i + 1];
+                default -> System.out.println("⚠️ unknown option: " + args[i]);
+            }
+        }
+
+        ReplayPlayer replay = null;
+        if (replayPath != null) {
+            replay = ReplayPlayer.open(new java.io.File(replayPath));
+            seed = replay.getSeed();
+            if (!hasOption(args, "--ticks")) ticks = Integer.MAX_VALUE;
+        }
+
+        GameEngine engine = new GameEngine(1400, 800, seed);
+        engine.setMessageSink(msg -> { });
+        double dt = replay != null ? replay.getTickSeconds() : 1.0 / hz;
+
+        ReplayRecorder recorder = null;
+        if (recordPath != null) {
+            recorder = new ReplayRecorder(new java.io.File(recordPath), seed, Math.round(dt * 1_000_000_000.0));
+            engine.setRecorder(recorder);
+        }
+        if (replay == null && world != engine.getWorldId()) engine.switchWorld(world);
+
+        FishingBot bot = new FishingBot(engine);
+        long t0 = System.nanoTime();
+        int ran = 0;
+        for (; ran < ticks; ran++) {
+            if (replay != null) {
+                replay.beforeTick(engine);
+                if (replay.isFinished()) break;
+            } else {
+                bot.step();
+            }
+            engine.tick(dt);
+        }
+        if (recorder != null) recorder.finish(engine.getTickCount());
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("seed=%d ticks=%d (%.0f s simulated) in %.2f s -> %.0f ticks/s%n",
+                seed, ran, ran * dt, secs, ran / Math.max(1e-9, secs));
+        if (replay == null) System.out.printf("casts=%d caught=%d escaped=%d%n", bot.casts, bot.caught, bot.escaped);
+        Player p = engine.getPlayer();
+        System.out.printf("world=%d pos=%d,%d state=%s money=%d fish=%d rod=%s%n", engine.getWorldId(), p.x, p.y,
+                engine.getGameState(), p.money, engine.getCaughtFish().size(), engine.getCurrentRodId());
+    }
+
+    private static boolean hasOption(String[] args, String name) {
+        for (String a : args) if (a.equals(name)) return true;
+        return false;
+    }
+
+    /** Walks to the shore, casts, plays the reel bar, sells every few fish. */
+    static final class FishingBot {
+        private final GameEngine engine;
+        private GameEngine.Input tapped;
+        private static final int GRID = 4;
+        private static final GameEngine.Input[] MOVES = {
+                GameEngine.Input.LEFT, GameEngine.Input.RIGHT, GameEngine.Input.UP, GameEngine.Input.DOWN };
+        private int[][] path;
+        private int pathIndex, pathWorld = -1;
+        private int lastX, lastY, stuckTicks;
+        private GameState lastState;
+
+        int casts, caught, escaped;
+
+        FishingBot(GameEngine engine) {
+            this.engine = engine;
+        }
+
+        void step() {
+            if (tapped != null) {
+                engine.release(tapped);
+                tapped = null;
+                return;
+            }
+
+            GameState state = engine.getGameState();
+            if (state != lastState) onStateChange(lastState, state);
+            lastState = state;
+
+            switch (state) {
+                case EXPLORATION -> explore();
+                case REELING -> reel();
+                case RESULT -> tap(GameEngine.Input.ACTION);
+                case INVENTORY -> {
+                    engine.sellAll();
+                    for (int slot = engine.getRodSlots().size(); slot >= 1; slot--) {
+                        String id = engine.getRodSlots().get(slot);
+                        GameplayTuning.RodParams r = GameplayTuning.rod(id);
+                        if (r != null && !engine.ownsRod(id) && engine.getPlayer().money >= r.price) {
+                            engine.buyOrEquipRodSlot(slot);
+                            break;
+                        }
+                    }
+                    tap(GameEngine.Input.ACTION);
+                }
+                default -> { }
+            }
+        }
+
+        private void onStateChange(GameState from, GameState to) {
+            if (to == GameState.CASTING) casts++;
+            if (to == GameState.RESULT) {
+                if (engine.getFishingSequence() != null && engine.getFishingSequence().success) caught++;
+                else escaped++;
+            }
+            if (from == GameState.REELING) engine.release(GameEngine.Input.ACTION);
+        }
+
+        private void explore() {
+            Player p = engine.getPlayer();
+            if (engine.isNearWater()) {
+                releaseMoves();
+                path = null;
+                if (caught > 0 && caught % 5 == 0 && !engine.getCaughtFish().isEmpty()) engine.openInventory();
+                else tap(GameEngine.Input.ACTION);
+                return;
+            }
+
+            if (path == null || pathWorld != engine.getWorldVersion() || stuckTicks > 30) {
+                path = planPathToShore(p.x, p.y);
+                pathWorld = engine.getWorldVersion();
+                pathIndex = 0;
+                stuckTicks = 0;
+            }
+            if (p.x == lastX && p.y == lastY) stuckTicks++;
+            else stuckTicks = 0;
+            lastX = p.x;
+            lastY = p.y;
+
+            while (path != null && pathIndex < path.length && path[pathIndex][0] == p.x && path[pathIndex][1] == p.y) pathIndex++;
+            if (path == null || pathIndex >= path.length) {
+                path = null;
+                releaseMoves();
+                return;
+            }
+            int dx = path[pathIndex][0] - p.x;
+            int dy = path[pathIndex][1] - p.y;
+            GameEngine.Input want = dx != 0
+                    ? (dx < 0 ? GameEngine.Input.LEFT : GameEngine.Input.RIGHT)
+                    : (dy < 0 ? GameEngine.Input.UP : GameEngine.Input.DOWN);
+            for (GameEngine.Input in : MOVES) if (in != want && engine.isHeld(in)) engine.release(in);
+            if (!engine.isHeld(want)) engine.press(want);
+        }
+
+        /** Breadth-first search on a coarse grid for the nearest standable spot beside the water. */
+        private int[][] planPathToShore(int sx, int sy) {
+            int w = engine.getWorldWidth() / GRID + 1;
+            int h = engine.getWorldHeight() / GRID + 1;
+            int[] from = new int[w * h];
+            java.util.Arrays.fill(from, -1);
+            int ox = Math.floorMod(sx, GRID), oy = Math.floorMod(sy, GRID);
+            int start = (sy / GRID) * w + (sx / GRID);
+            from[start] = start;
+            java.util.ArrayDeque<Integer> open = new java.util.ArrayDeque<>();
+            open.add(start);
+            int[] dirs = {1, 0, -1, 0, 0, 1, 0, -1};
+            while (!open.isEmpty()) {
+                int cell = open.poll();
+                int cx = cell % w, cy = cell / w;
+                if (engine.isNearWater(cx * GRID + ox, cy * GRID + oy)) {
+                    java.util.ArrayList<int[]> steps = new java.util.ArrayList<>();
+                    for (int c = cell; c != start; c = from[c]) steps.add(new int[] { (c % w) * GRID + ox, (c / w) * GRID + oy });
+                    java.util.Collections.reverse(steps);
+                    return steps.toArray(new int[0][]);
+                }
+                for (int d = 0; d < dirs.length; d += 2) {
+                    int nx = cx + dirs[d], ny = cy + dirs[d + 1];
+                    if (nx < 0 || ny < 0 || nx >= w || ny >= h) continue;
+                    int next = ny * w + nx;
+                    if (from[next] >= 0 || !engine.canStandAt(nx * GRID + ox, ny * GRID + oy)) continue;
+                    from[next] = cell;
+                    open.add(next);
+                }
+            }
+            return null;
+        }
+
+        private void reel() {
+            ReelMinigame r = engine.getReelMinigame();
+            if (r == null) return;
+            boolean want = r.getFishCenter() > r.getPlayerBarCenter();
+            if (want && !engine.isHeld(GameEngine.Input.ACTION)) engine.press(GameEngine.Input.ACTION);
+            else if (!want && engine.isHeld(GameEngine.Input.ACTION)) engine.release(GameEngine.Input.ACTION);
+        }
+
+        private void releaseMoves() {
+            for (GameEngine.Input in : MOVES) if (engine.isHeld(in)) engine.release(in);
+        }
+
+        private void tap(GameEngine.Input in) {
+            engine.press(in);
+            tapped = in;
+        }
+    }
+}
@@ -4,7 +4,9 @@ import sprites.NPCSpriteSheet;
 
 public class Player {
     public int x, y;
-    private int speed = 6;
+    private int prevX, prevY;
+    private double carryX, carryY;
+    private int speed = 120; // px per second
 
     public int money = 0;
 
@@ -22,6 +24,21 @@ public class Player {
 
     public Player(int x, int y){
         this.x = x; this.y = y;
+        syncPrevious();
+    }
+
+    /** Detached copy for a render snapshot; shares the (read-only) sprite sheet. */
+    public Player copy(){
+        Player p = new Player(x, y);
+        p.prevX = prevX; p.prevY = prevY;
+        p.speed = speed;
+        p.money = money;
+        p.config = config;
+        p.npc = npc;
+        p.dir = dir;
+        p.moving = moving;
+        p.overrideAction = overrideAction;
+        return p;
     }
 
     public void setCharacter(CharacterConfig cfg) {
@@ -53,26 +70,76 @@ public class Player {
     public boolean isMoving(){ return moving; }
     public int getSpeed(){ return speed; }
 
+    // state at the start of the current tick, used to interpolate between ticks when rendering
+    public void beginTick(){ prevX = x; prevY = y; }
+    public void syncPrevious(){ prevX = x; prevY = y; carryX = 0; carryY = 0; }
+    public int renderX(double alpha){ return (int)Math.round(prevX + (x - prevX) * alpha); }
+    public int renderY(double alpha){ return (int)Math.round(prevY + (y - prevY) * alpha); }
+
+    // whole pixels to move this tick; the sub-pixel remainder carries over to the next one
+    public int takeStepX(double delta){
+        if (delta == 0) { carryX = 0; return 0; }
+        carryX += delta;
+        int whole = (int) carryX;
+        carryX -= whole;
+        return whole;
+    }
+    public int takeStepY(double delta){
+        if (delta == 0) { carryY = 0; return 0; }
+        carryY += delta;
+        int whole = (int) carryY;
+        carryY -= whole;
+        return whole;
+    }
+
     public void setOverrideAction(NPCSpriteSheet.Action a) {
         this.overrideAction = a;
     }
 
     public void draw(Graphics2D g2d, BufferedImage legacySpriteSheet, Component cmp) {
+        draw(g2d, legacySpriteSheet, cmp, 1.0);
+    }
+
+    public void draw(Graphics2D g2d, BufferedImage legacySpriteSheet, Component cmp, double alpha) {
         long now = System.currentTimeMillis();
+        int rx = renderX(alpha);
+        int ry = renderY(alpha);
         if (npc != null) {
             NPCSpriteSheet.Action act = pickAction();
             BufferedImage frame = npc.get(act, now);
             int drawW = frame.getWidth();
             int drawH = frame.getHeight();
-            g2d.drawImage(frame, x - drawW/2, y - drawH + 8, null);
+            g2d.drawImage(frame, rx - drawW/2, ry - drawH + 8, null);
         } else {
             g2d.setColor(new Color(255, 255, 0, 200));
-            g2d.fillOval(x-10, y-20, 20, 20);
+            g2d.fillOval(rx-10, ry-20, 20, 20);
         }
-        moving = false;
         lastAnimTime = now;
     }
 
+    /** Screen area the sprite covers when drawn at {@code alpha}. */
+    public Rectangle renderBounds(double alpha) {
+        int rx = renderX(alpha);
+        int ry = renderY(alpha);
+        if (npc != null) {
+            int c = npc.getCellSize();
+            return new Rectangle(rx - c / 2, ry - c + 8, c, c);
+        }
+        return new Rectangle(rx - 10, ry - 20, 20, 20);
+    }
+
+    /** Changes whenever the drawn sprite frame does (action or animation frame). */
+    public int frameKey(long nowMs) {
+        if (npc == null) return 0;
+        NPCSpriteSheet.Action act = pickAction();
+        return act.ordinal() * 1024 + npc.frameIndex(act, nowMs);
+    }
+
+    /** How long the current sprite frame stays on screen, so an idle screen knows when to redraw. */
+    public long msUntilNextFrame(long nowMs) {
+        return npc != null ? npc.msUntilNextFrame(pickAction(), nowMs) : Long.MAX_VALUE;
+    }
+
     private NPCSpriteSheet.Action pickAction() {
         if (overrideAction != null) return overrideAction;
         if (moving) {
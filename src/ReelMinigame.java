@@ -19,6 +19,16 @@ public class ReelMinigame {
     private boolean finished = false;
     private boolean success = false;
 
+    private final java.util.Random rng;
+
+    public ReelMinigame() {
+        this(new java.util.Random());
+    }
+
+    public ReelMinigame(java.util.Random rng) {
+        this.rng = rng;
+    }
+
     public void press()  { dir = +1; }
     public void release(){ dir = -1; }
 
@@ -50,7 +60,7 @@ public class ReelMinigame {
         if (overlap) {
             progress = clamp(-1, 100, progress + 0.2 * progressEfficiency * dtSeconds * 60.0);
         } else {
-            progress = clamp(-1, 100, progress - (0.2 * dtSeconds * 60.0 + 0.0017 * res));
+            progress = clamp(-1, 100, progress - (0.2 * dtSeconds * 60.0 + 0.0017 * res * dtSeconds * 20.0));
             perfect = false;
         }
 
@@ -68,7 +78,7 @@ public class ReelMinigame {
 
     private static double clamp(double min, double max, double v) { return Math.max(min, Math.min(max, v)); }
     private static double lerp(double a, double b, double t) { return a + (b - a) * t; }
-    private static double randRange(double a, double b) { return a + Math.random() * (b - a); }
+    private double randRange(double a, double b) { return a + rng.nextDouble() * (b - a); }
     private static boolean overlaps(double pbCenter, double pbWidth, double fishCenter, double fishWidth) {
         double pbHalf = pbWidth / 2.0;
         double fishHalf = fishWidth / 2.0;
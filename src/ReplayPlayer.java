@@ -0,0 +1,105 @@
+import java.io.*;
+import java.nio.file.Files;
+
+/**
+ * Feeds a session written by {@link ReplayRecorder} back into a {@link GameEngine} built
+ * with the recorded seed. Call {@link #beforeTick} right before every {@code engine.tick};
+ * pacing is up to the caller, so the same file replays in real time from the game loop or
+ * flat out from {@code HeadlessRunner}.
+ */
+public class ReplayPlayer {
+    private static final GameEngine.Input[] INPUTS = GameEngine.Input.values();
+
+    private final DataInputStream in;
+    private final long seed;
+    private final long tickNanos;
+
+    private long nextTick = 0;
+    private int nextType = ReplayRecorder.END;
+    private boolean started = false;
+    private boolean finished = false;
+
+    private ReplayPlayer(byte[] data) throws IOException {
+        in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != ReplayRecorder.MAGIC) throw new IOException("not a replay file");
+        int version = in.readUnsignedByte();
+        if (version != ReplayRecorder.VERSION) throw new IOException("unsupported replay version " + version);
+        seed = in.readLong();
+        tickNanos = in.readLong();
+        readHeader();
+    }
+
+    public static ReplayPlayer open(File file) throws IOException {
+        return new ReplayPlayer(Files.readAllBytes(file.toPath()));
+    }
+
+    public long getSeed() { return seed; }
+    public long getTickNanos() { return tickNanos; }
+    public double getTickSeconds() { return tickNanos / 1_000_000_000.0; }
+    public boolean isFinished() { return finished; }
+
+    /** Applies everything recorded for the engine's next tick. */
+    public void beforeTick(GameEngine engine) {
+        long tick = engine.getTickCount();
+        if (!started) {
+            started = true;
+            engine.setReplayClock(true);
+        }
+        try {
+            while (!finished && nextTick <= tick) {
+                if (nextType == ReplayRecorder.END) {
+                    finished = true;
+                    engine.setReplayClock(false);
+                    return;
+                }
+                apply(engine);
+                readHeader();
+            }
+        } catch (IOException e) {
+            System.out.println("⚠️ replay truncated at tick " + tick + ": " + e.getMessage());
+            finished = true;
+            engine.setReplayClock(false);
+        }
+    }
+
+    private void apply(GameEngine engine) throws IOException {
+        switch (nextType) {
+            case ReplayRecorder.INPUT -> {
+                int b = in.readUnsignedByte();
+                long micros = readVarLong();
+                engine.post(INPUTS[b & 0x7F], (b & 0x80) != 0, engine.getClockNanos() + micros * 1000L);
+            }
+            case ReplayRecorder.PRESS -> engine.press(INPUTS[in.readUnsignedByte()]);
+            case ReplayRecorder.RELEASE -> engine.release(INPUTS[in.readUnsignedByte()]);
+            case ReplayRecorder.WORLD -> engine.switchWorld((int) readVarLong());
+            case ReplayRecorder.TOGGLE_WORLD -> engine.toggleWorld();
+            case ReplayRecorder.CHARACTER -> {
+                boolean npc = in.readBoolean();
+                String name = in.readUTF();
+                CharacterConfig c = npc
+                        ? new CharacterConfig(name, in.readUTF(), (int) readVarLong())
+                        : new CharacterConfig(name, (int) readVarLong(), (int) readVarLong());
+                engine.setCharacter(c);
+            }
+            case ReplayRecorder.ROD_SLOT -> engine.buyOrEquipRodSlot((int) readVarLong());
+            case ReplayRecorder.INVENTORY -> engine.openInventory();
+            case ReplayRecorder.SELL_ALL -> engine.sellAll();
+            default -> throw new IOException("unknown record type " + nextType);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        nextTick += readVarLong();
+        nextType = in.readUnsignedByte();
+    }
+
+    private long readVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("bad varint");
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.*;
+
+/**
+ * Writes a play session as its RNG seed plus tick-indexed commands and sub-tick input
+ * events; {@link ReplayPlayer} feeds the file back through {@link GameEngine}.
+ *
+ * Format: magic "FRPL", version, seed, tick length in nanos, then records of
+ * [varint tick delta][type byte][payload], closed by an END record at the last tick.
+ */
+public class ReplayRecorder implements Closeable {
+    static final int MAGIC = 0x4652504C;
+    static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int INPUT = 1;        // code|down<<7, varint micros into the tick
+    static final int PRESS = 2;        // code
+    static final int RELEASE = 3;      // code
+    static final int WORLD = 4;        // varint world id
+    static final int TOGGLE_WORLD = 5;
+    static final int CHARACTER = 6;    // see writeCharacter
+    static final int ROD_SLOT = 7;     // varint slot
+    static final int INVENTORY = 8;
+    static final int SELL_ALL = 9;
+
+    private final File file;
+    private final DataOutputStream out;
+    private long lastTick = 0;
+    private long records = 0;
+    private boolean closed = false;
+
+    public ReplayRecorder(File file, long seed, long tickNanos) throws IOException {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeLong(tickNanos);
+    }
+
+    synchronized void input(long tick, int code, boolean down, long micros) {
+        if (!begin(tick, INPUT)) return;
+        try {
+            out.writeByte(code | (down ? 0x80 : 0));
+            writeVarLong(micros);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** PRESS/RELEASE take an input code, WORLD a world id, ROD_SLOT a slot; the rest ignore {@code arg}. */
+    synchronized void command(long tick, int type, int arg) {
+        if (!begin(tick, type)) return;
+        try {
+            switch (type) {
+                case PRESS, RELEASE -> out.writeByte(arg);
+                case WORLD, ROD_SLOT -> writeVarLong(arg);
+                default -> { }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    synchronized void character(long tick, CharacterConfig c) {
+        if (c == null || !begin(tick, CHARACTER)) return;
+        try {
+            out.writeBoolean(c.isNPC());
+            out.writeUTF(c.displayName);
+            if (c.isNPC()) {
+                out.writeUTF(c.npcSpritePath);
+                writeVarLong(c.npcCell);
+            } else {
+                writeVarLong(c.col);
+                writeVarLong(c.row);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** Marks the session length and closes the file. */
+    public synchronized void finish(long finalTick) {
+        if (closed) return;
+        begin(Math.max(finalTick, lastTick), END);
+        close();
+        System.out.println("🎞️ บันทึก replay: " + file.getPath() + " (" + records + " records, " + lastTick + " ticks)");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.out.println("⚠️ replay close failed: " + e.getMessage());
+        }
+    }
+
+    private boolean begin(long tick, int type) {
+        if (closed) return false;
+        try {
+            writeVarLong(Math.max(0, tick - lastTick));
+            out.writeByte(type);
+            lastTick = Math.max(tick, lastTick);
+            records++;
+            return true;
+        } catch (IOException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    // recording must never take the game down; stop writing and keep playing
+    private void fail(IOException e) {
+        System.out.println("⚠️ replay recording stopped: " + e.getMessage());
+        close();
+    }
+
+    private void writeVarLong(long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+}
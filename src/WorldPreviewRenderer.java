@@ -1,3 +1,5 @@
+import map.WaterMap;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -28,23 +30,24 @@ public class WorldPreviewRenderer {
         return img;
     }
 
-    public static boolean[][] waterMask(GameplayTuning.MapSpec map) {
-        boolean[][] mask = new boolean[Math.max(1, map.height)][Math.max(1, map.width)];
-        int w = map.width;
-        int h = map.height;
+    /** The map's water in tiles, as the game sees it (none unless it has a centre lake). */
+    public static WaterMap waterMask(GameplayTuning.MapSpec map) {
+        int w = Math.max(1, map.width);
+        int h = Math.max(1, map.height);
+        boolean[][] mask = new boolean[h][w];
         if (map.centerWater) {
-            int cx = w / 2;
-            int cy = h / 2;
+            int cx = map.width / 2;
+            int cy = map.height / 2;
             int r = Math.max(1, map.waterRadius);
             int r2 = r * r;
-            for (int y = 0; y < h; y++) {
-                for (int x = 0; x < w; x++) {
+            for (int y = 0; y < map.height; y++) {
+                for (int x = 0; x < map.width; x++) {
                     int dx = x - cx;
                     int dy = y - cy;
-                    mask[y][x] = dx * dx + dy * dy <= r2;
+                    mask[y][x] = dx * dx + dy * dy <= r2; // whole tiles within r of the centre tile
                 }
             }
         }
-        return mask;
+        return WaterMap.builder(w, h).tiles(mask, 1).build();
     }
 }
\ No newline at end of file
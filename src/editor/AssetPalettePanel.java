@@ -1,5 +1,7 @@
 package editor;
 
+import render.ScaledImageCache;
+
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
@@ -80,8 +82,8 @@ public class AssetPalettePanel extends JPanel {
             if (img != null) {
                 int max = 256;
                 double scale = Math.min(1.0, (double)max / Math.max(img.getWidth(), img.getHeight()));
-                Image sc = img.getScaledInstance((int)(img.getWidth()*scale), (int)(img.getHeight()*scale), Image.SCALE_SMOOTH);
-                preview.setIcon(new ImageIcon(sc));
+                preview.setIcon(ScaledImageCache.shared().icon(selectedPath, img,
+                        (int)(img.getWidth()*scale), (int)(img.getHeight()*scale), ScaledImageCache.Quality.SMOOTH, preview));
                 preview.setText("");
             } else {
                 preview.setIcon(null);
@@ -1,8 +1,8 @@
 package editor;
 
 import map.MapData;
+import render.Images;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.AlphaComposite;
@@ -249,7 +249,7 @@ public class CanvasPanel extends JPanel implements MouseListener, MouseMotionLis
             File f2 = new File(path);
             File use = f0.exists() ? f0 : (f1.exists() ? f1 : (f2.exists() ? f2 : null));
             if (use == null) { imageCache.put(path, null); return null; }
-            BufferedImage img = ImageIO.read(use);
+            BufferedImage img = Images.read(use);
             imageCache.put(path, img);
             return img;
         } catch (Exception e) {
@@ -0,0 +1,176 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop. Simulation advances in constant steps drained from a
+ * time accumulator; rendering runs once per frame and receives the leftover
+ * fraction of a step so it can blend the previous and current state.
+ *
+ * When the listener reports nothing will change for a while ({@link Listener#idleNanos})
+ * the loop thread parks instead of spinning frames, until that deadline or {@link #wake()}.
+ */
+public final class GameLoop implements Runnable {
+
+    public interface Listener {
+        void tick(double dtSeconds);
+        void render(double alpha);
+
+        /** Asked after every frame: 0 keeps running, otherwise how long the loop may sleep ({@link #IDLE_FOREVER} = until woken). */
+        default long idleNanos() { return 0L; }
+
+        /** Whole steps slept through while idle, handed over on the first frame after waking. */
+        default void skipTicks(long steps) { }
+    }
+
+    public static final long IDLE_FOREVER = Long.MAX_VALUE;
+
+    /** Runs one frame of work; lets the owner move it onto another thread (e.g. the EDT). */
+    public interface Dispatcher {
+        void dispatch(Runnable frame) throws Exception;
+    }
+
+    // clamp for long stalls (debugger, window drag) so we don't try to catch up forever
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    private static final long SPIN_NANOS = 1_000_000L;
+
+    private final Listener listener;
+    private final int tickHz;
+    private final long stepNanos;
+    private final double stepSeconds;
+
+    private volatile long frameNanos;
+    private Dispatcher dispatcher = Runnable::run;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    private long lastNanos;
+    private long accumulator;
+    private long tickCount;
+
+    private volatile long idleHint;
+    private volatile boolean woken;
+    private boolean resuming;
+
+    private final Runnable frame = this::frame;
+
+    public GameLoop(Listener listener, int tickHz, int maxFps) {
+        this.listener = listener;
+        this.tickHz = Math.max(1, tickHz);
+        this.stepNanos = 1_000_000_000L / this.tickHz;
+        this.stepSeconds = stepNanos / 1_000_000_000.0;
+        setMaxFps(maxFps);
+    }
+
+    public void setDispatcher(Dispatcher d) { this.dispatcher = d != null ? d : Runnable::run; }
+
+    /** 0 or less renders as fast as the dispatcher allows. */
+    public void setMaxFps(int fps) { this.frameNanos = fps > 0 ? 1_000_000_000L / fps : 0L; }
+
+    public int getTickHz() { return tickHz; }
+    public double getStepSeconds() { return stepSeconds; }
+    public long getTickCount() { return tickCount; }
+    public boolean isRunning() { return running; }
+
+    /** Ends an idle sleep early; safe from any thread (input handlers, focus changes). */
+    public void wake() {
+        woken = true;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        lastNanos = System.nanoTime();
+        accumulator = 0;
+        thread = new Thread(this, "GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (running) {
+            try {
+                dispatcher.dispatch(frame);
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            long idle = idleHint;
+            if (idle > 0) {
+                sleepIdle(idle);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+
+            long fn = frameNanos;
+            if (fn <= 0) {
+                Thread.yield();
+                continue;
+            }
+            nextFrame += fn;
+            long now = System.nanoTime();
+            if (nextFrame < now - fn) nextFrame = now; // fell behind; don't burst frames
+            waitUntil(nextFrame);
+        }
+    }
+
+    private void frame() {
+        woken = false;
+        long now = System.nanoTime();
+        long elapsed = now - lastNanos;
+        lastNanos = now;
+        if (resuming) {
+            // idle time is handed over in one go rather than clamped and ticked step by step
+            resuming = false;
+            accumulator += elapsed;
+            long steps = accumulator / stepNanos;
+            accumulator -= steps * stepNanos;
+            tickCount += steps;
+            listener.skipTicks(steps);
+            elapsed = 0;
+        }
+        if (elapsed > MAX_FRAME_NANOS) elapsed = MAX_FRAME_NANOS;
+        accumulator += elapsed;
+
+        while (accumulator >= stepNanos) {
+            listener.tick(stepSeconds);
+            accumulator -= stepNanos;
+            tickCount++;
+        }
+        listener.render(accumulator / (double) stepNanos);
+        idleHint = listener.idleNanos();
+    }
+
+    private void sleepIdle(long nanos) {
+        long start = System.nanoTime();
+        while (running && !woken) {
+            long left = nanos == IDLE_FOREVER ? Long.MAX_VALUE : nanos - (System.nanoTime() - start);
+            if (left <= 0) break;
+            LockSupport.parkNanos(left);
+        }
+        idleHint = 0;
+        resuming = true;
+    }
+
+    private static void waitUntil(long deadline) {
+        while (true) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return;
+            if (left > SPIN_NANOS) LockSupport.parkNanos(left - SPIN_NANOS);
+            else Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer ring of timestamped input events. The UI thread
+ * offers, the simulation drains; neither side locks, boxes or allocates. Events carry
+ * {@link System#nanoTime()} stamps so the consumer can apply them inside a tick at the
+ * moment they happened instead of at the tick boundary.
+ */
+public final class InputQueue {
+
+    public interface Sink {
+        void onInput(int code, boolean down, long nanoTime);
+    }
+
+    private final int mask;
+    private final long[] times;
+    private final int[] codes;
+
+    // head: next slot to read (consumer only writes); tail: next slot to write (producer only writes)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped;
+
+    /** @param capacity rounded up to a power of two */
+    public InputQueue(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = cap - 1;
+        this.times = new long[cap];
+        this.codes = new int[cap];
+    }
+
+    /** Producer side. Returns false (and counts a drop) when the ring is full. */
+    public boolean offer(int code, boolean down, long nanoTime) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int i = (int) (t & mask);
+        times[i] = nanoTime;
+        codes[i] = (code << 1) | (down ? 1 : 0);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Consumer side. Hands over, in order, every event stamped at or before {@code untilNanos}. */
+    public int drainUntil(long untilNanos, Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        int n = 0;
+        while (h < t) {
+            int i = (int) (h & mask);
+            long when = times[i];
+            if (when - untilNanos > 0) break;
+            int c = codes[i];
+            sink.onInput(c >>> 1, (c & 1) != 0, when);
+            h++;
+            n++;
+        }
+        head.lazySet(h);
+        return n;
+    }
+
+    public boolean isEmpty() { return head.get() == tail.get(); }
+    public int size() { return (int) (tail.get() - head.get()); }
+    public long dropped() { return dropped; }
+}
@@ -0,0 +1,172 @@
+package engine;
+
+/**
+ * Hierarchical timing wheel driven by the game loop's simulation clock (milliseconds).
+ * Four levels of 64 slots cover ~4.6 hours at 1 ms resolution; longer delays are parked
+ * in the top level and re-filed when they cascade. Insert and cancel are O(1) list
+ * operations, and an empty wheel costs nothing to advance.
+ *
+ * Not thread-safe: schedule, cancel and advance from the loop thread.
+ */
+public final class TimerWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    public final class Timeout {
+        private final Runnable task;
+        private final long periodMs;
+        private long deadline;
+        private Timeout prev, next;
+        private boolean active;
+
+        private Timeout(Runnable task, long deadline, long periodMs) {
+            this.task = task;
+            this.deadline = deadline;
+            this.periodMs = periodMs;
+        }
+
+        public boolean isActive() { return active; }
+        public long getDeadline() { return deadline; }
+
+        public void cancel() {
+            if (!active) return;
+            active = false;
+            if (prev != null) unlink(this);
+        }
+    }
+
+    // sentinel heads of circular lists, one per slot
+    private final Timeout[][] wheel = new Timeout[LEVELS][SLOTS];
+    private long now;
+    private int pending;
+
+    public TimerWheel() {
+        this(0L);
+    }
+
+    public TimerWheel(long startMs) {
+        this.now = startMs;
+        for (int l = 0; l < LEVELS; l++) {
+            for (int s = 0; s < SLOTS; s++) {
+                Timeout head = new Timeout(null, 0, 0);
+                head.prev = head;
+                head.next = head;
+                wheel[l][s] = head;
+            }
+        }
+    }
+
+    public long now() { return now; }
+    public int pending() { return pending; }
+
+    /**
+     * Earliest pending deadline, or Long.MAX_VALUE if nothing is scheduled. Walks every
+     * slot, so it's meant for idle decisions rather than per-tick use.
+     */
+    public long nextDeadline() {
+        if (pending == 0) return Long.MAX_VALUE;
+        long best = Long.MAX_VALUE;
+        for (Timeout[] level : wheel) {
+            for (Timeout head : level) {
+                for (Timeout t = head.next; t != head; t = t.next) {
+                    if (t.deadline < best) best = t.deadline;
+                }
+            }
+        }
+        return best;
+    }
+
+    public Timeout schedule(long delayMs, Runnable task) {
+        return add(new Timeout(task, now + Math.max(1, delayMs), 0));
+    }
+
+    public Timeout scheduleRepeating(long periodMs, Runnable task) {
+        long p = Math.max(1, periodMs);
+        return add(new Timeout(task, now + p, p));
+    }
+
+    /** Runs every timeout whose deadline is at or before {@code targetMs}, in deadline order. */
+    public void advanceTo(long targetMs) {
+        while (now < targetMs) {
+            if (pending == 0) {
+                now = targetMs;
+                return;
+            }
+            now++;
+            int idx = (int) (now & SLOT_MASK);
+            if (idx == 0) cascade(1);
+            fire(wheel[0][idx]);
+        }
+    }
+
+    private Timeout add(Timeout t) {
+        t.active = true;
+        file(t);
+        return t;
+    }
+
+    private void file(Timeout t) {
+        long delta = t.deadline - now;
+        int level;
+        long at = t.deadline;
+        if (delta <= 0) {
+            level = 0; // due now (cascaded onto its own tick): lands in the slot about to fire
+            at = now;
+        } else if (delta >= MAX_SPAN) {
+            level = LEVELS - 1;
+            at = now + MAX_SPAN - 1;
+        } else {
+            level = 0;
+            while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) level++;
+        }
+        int slot = (int) ((at >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Timeout head = wheel[level][slot];
+        t.prev = head.prev;
+        t.next = head;
+        head.prev.next = t;
+        head.prev = t;
+        pending++;
+    }
+
+    private void unlink(Timeout t) {
+        t.prev.next = t.next;
+        t.next.prev = t.prev;
+        t.prev = null;
+        t.next = null;
+        pending--;
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) return;
+        int idx = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (idx == 0) cascade(level + 1);
+        Timeout head = wheel[level][idx];
+        while (head.next != head) {
+            Timeout t = head.next;
+            unlink(t);
+            file(t);
+        }
+    }
+
+    private void fire(Timeout head) {
+        while (head.next != head) {
+            Timeout t = head.next;
+            unlink(t);
+            if (t.deadline > now) { // parked beyond the top level's span
+                file(t);
+                continue;
+            }
+            if (t.periodMs > 0) {
+                t.deadline = now + t.periodMs;
+                file(t);
+            } else {
+                t.active = false;
+            }
+            t.task.run();
+        }
+    }
+}
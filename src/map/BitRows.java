@@ -0,0 +1,42 @@
+package map;
+
+/** Helpers for bitmaps stored as rows of {@code long}s, bit c of a row at word c/64. */
+final class BitRows {
+
+    private BitRows() { }
+
+    static int words(int cols) { return (cols + 63) >>> 6; }
+
+    static boolean get(long[] bits, int words, int c, int r) {
+        return (bits[r * words + (c >>> 6)] & (1L << c)) != 0;
+    }
+
+    /** Sets columns c0..c1 (inclusive) of the row starting at word {@code base}. */
+    static void setRange(long[] bits, int base, int c0, int c1) {
+        int w0 = c0 >>> 6, w1 = c1 >>> 6;
+        long first = -1L << c0, last = -1L >>> (63 - (c1 & 63));
+        if (w0 == w1) {
+            bits[base + w0] |= first & last;
+            return;
+        }
+        bits[base + w0] |= first;
+        for (int k = w0 + 1; k < w1; k++) bits[base + k] = -1L;
+        bits[base + w1] |= last;
+    }
+
+    /** True if any bit is set in columns c0..c1, rows r0..r1 (inclusive, inside the bitmap). */
+    static boolean any(long[] bits, int words, int c0, int c1, int r0, int r1) {
+        int w0 = c0 >>> 6, w1 = c1 >>> 6;
+        long first = -1L << c0, last = -1L >>> (63 - (c1 & 63));
+        for (int r = r0; r <= r1; r++) {
+            int base = r * words;
+            if (w0 == w1) {
+                if ((bits[base + w0] & first & last) != 0) return true;
+                continue;
+            }
+            if ((bits[base + w0] & first) != 0 || (bits[base + w1] & last) != 0) return true;
+            for (int k = w0 + 1; k < w1; k++) if (bits[base + k] != 0) return true;
+        }
+        return false;
+    }
+}
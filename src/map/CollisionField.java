@@ -0,0 +1,98 @@
+package map;
+
+/**
+ * A {@link CollisionWorld}'s solids rasterised over the world at a coarse resolution (4 px by
+ * default): an occupancy bitmap, one bit per cell in {@code long} rows, and a signed distance
+ * field. A cell is solid if any solid touches it, so the bitmap errs toward blocked: "free"
+ * here is final, "solid" still needs the exact check. Lookups cost the same however many
+ * colliders the map has.
+ *
+ * Distances are in pixels from a cell's centre to the nearest cell of the other kind, less half
+ * a cell: positive in the open, negative inside solids. Immutable once built, so it can be
+ * built on one thread and read from others.
+ */
+public final class CollisionField {
+
+    public final int resolution, cols, rows;
+    private final int words; // longs per row
+    private final long[] bits;
+    private final short[] sdf; // quarter pixels, clamped
+    final int version;          // CollisionWorld change count it was built from
+
+    private CollisionField(int resolution, int cols, int rows, long[] bits, short[] sdf, int version) {
+        this.resolution = resolution;
+        this.cols = cols;
+        this.rows = rows;
+        this.words = BitRows.words(cols);
+        this.bits = bits;
+        this.sdf = sdf;
+        this.version = version;
+    }
+
+    /** Rasterises the first {@code n} rectangles over a {@code width} x {@code height} world from (0, 0). */
+    static CollisionField build(int[] x, int[] y, int[] w, int[] h, int n, int width, int height, int resolution, int version) {
+        int cols = Math.max(1, (width + resolution - 1) / resolution), rows = Math.max(1, (height + resolution - 1) / resolution);
+        int words = BitRows.words(cols);
+        long[] bits = new long[words * rows];
+        for (int i = 0; i < n; i++) {
+            int c0 = Math.max(0, Math.floorDiv(x[i], resolution)), c1 = Math.min(cols - 1, Math.floorDiv(x[i] + w[i] - 1, resolution));
+            int r0 = Math.max(0, Math.floorDiv(y[i], resolution)), r1 = Math.min(rows - 1, Math.floorDiv(y[i] + h[i] - 1, resolution));
+            if (c0 > c1 || r0 > r1) continue;
+            for (int r = r0; r <= r1; r++) BitRows.setRange(bits, r * words, c0, c1);
+        }
+
+        short[] sdf = DistanceTransform.signed(bits, cols, rows, resolution);
+        return new CollisionField(resolution, cols, rows, bits, sdf, version);
+    }
+
+    /** False only when nothing solid touches the rectangle; true also when it leaves the field. */
+    public boolean mayBlock(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return false;
+        if (x < 0 || y < 0 || x + w > cols * resolution || y + h > rows * resolution) return true;
+        int c0 = x / resolution, c1 = (x + w - 1) / resolution;
+        int r0 = y / resolution, r1 = (y + h - 1) / resolution;
+        return BitRows.any(bits, words, c0, c1, r0, r1);
+    }
+
+    public boolean isSolidCell(int c, int r) {
+        return c >= 0 && r >= 0 && c < cols && r < rows && BitRows.get(bits, words, c, r);
+    }
+
+    /**
+     * Signed distance in pixels from (px, py) to the nearest obstacle edge, read from the cell
+     * under it (clamped to the field). Very large when the map has no solids.
+     */
+    public float distance(int px, int py) {
+        return sdf[index(px, py)] / 4f;
+    }
+
+    /**
+     * Unit vector pointing away from the nearest obstacle at (px, py), from the field's
+     * gradient, written to {@code out[0..1]}. For sliding: drop the part of a move along
+     * {@code -normal}. Returns false where the field is flat (no obstacle nearby to push from).
+     */
+    public boolean normal(int px, int py, float[] out) {
+        int c = clampC(Math.floorDiv(px, resolution)), r = clampR(Math.floorDiv(py, resolution));
+        float gx = at(clampC(c + 1), r) - at(clampC(c - 1), r);
+        float gy = at(c, clampR(r + 1)) - at(c, clampR(r - 1));
+        float len = (float) Math.sqrt(gx * gx + gy * gy);
+        if (len == 0 || Math.abs(gx) > 60000 || Math.abs(gy) > 60000) return false;
+        out[0] = gx / len;
+        out[1] = gy / len;
+        return true;
+    }
+
+    /** Raw distance of cell (c, r) in quarter pixels, for overlays. */
+    public int cellDistance(int c, int r) {
+        return sdf[clampR(r) * cols + clampC(c)];
+    }
+
+    private float at(int c, int r) { return sdf[r * cols + c]; }
+
+    private int index(int px, int py) {
+        return clampR(Math.floorDiv(py, resolution)) * cols + clampC(Math.floorDiv(px, resolution));
+    }
+
+    private int clampC(int c) { return Math.max(0, Math.min(cols - 1, c)); }
+    private int clampR(int r) { return Math.max(0, Math.min(rows - 1, r)); }
+}
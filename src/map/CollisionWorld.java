@@ -2,14 +2,105 @@ package map;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-
+/**
+ * Solid rectangles (object feet) in a spatial hash: the plane is cut into square cells and each
+ * solid is listed in every cell it overlaps, so a query only looks at the solids near it.
+ * Cells are found through an open-addressing table keyed by cell coordinates, so the world
+ * has no fixed bounds. Solids, cell lists and the table are all primitive int arrays; queries
+ * allocate nothing.
+ *
+ * {@link #add} returns an id that stays valid until {@link #remove}; freed ids are reused.
+ * {@link #buildField} can also rasterise the solids into a {@link CollisionField}, which
+ * {@link #blocks} then asks first. Not thread-safe, apart from the field being built in the
+ * background.
+ */
 public class CollisionWorld {
-    private final List<Rectangle> solids = new ArrayList<>();
 
-    public void add(Rectangle r) {
-        if (r != null) solids.add(new Rectangle(r));
+    private static final int DEFAULT_CELL = 64;
+    private static final int NONE = -1;
+    // fields with more cells than this are built off the calling thread
+    private static final int SYNC_FIELD_CELLS = 1 << 20;
+    private static final ExecutorService FIELD_BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "CollisionField");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final int cell;
+
+    // solids by id; sw < 0 marks a free id, whose sx links the free list
+    private int[] sx = new int[16], sy = new int[16], sw = new int[16], sh = new int[16];
+    private int[] mark = new int[16]; // last query that saw each solid, so a solid in several cells counts once
+    private int ids, freeId = NONE, live;
+    private int stamp;
+    // cells ever used (never shrinks on remove), which bounds nearest-solid and ray searches
+    private int minC = Integer.MAX_VALUE, minR = Integer.MAX_VALUE, maxC = Integer.MIN_VALUE, maxR = Integer.MIN_VALUE;
+
+    // cell lists: entries linked through next, one per (cell, solid)
+    private int[] entrySolid = new int[64], entryNext = new int[64];
+    private int entries, freeEntry = NONE;
+
+    // open addressing, cell key -> first entry (NONE once a cell empties; the key stays)
+    private long[] keys = new long[256];
+    private int[] heads = new int[256];
+    private boolean[] used = new boolean[256];
+    private int cellsUsed;
+
+    // bumped by every change; a field built from an older version is ignored
+    private int version;
+    private volatile CollisionField field;
+
+    public CollisionWorld() {
+        this(DEFAULT_CELL);
+    }
+
+    public CollisionWorld(int cellSize) {
+        this.cell = Math.max(1, cellSize);
+    }
+
+    public int size() { return live; }
+
+    // -------- Changes --------
+
+    /** Adds a copy of {@code r}; returns its id, or -1 for null or empty rectangles. */
+    public int add(Rectangle r) {
+        return r == null ? NONE : add(r.x, r.y, r.width, r.height);
+    }
+
+    public int add(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return NONE;
+        int id;
+        if (freeId != NONE) {
+            id = freeId;
+            freeId = sx[id];
+        } else {
+            if (ids == sx.length) growSolids();
+            id = ids++;
+        }
+        sx[id] = x;
+        sy[id] = y;
+        sw[id] = w;
+        sh[id] = h;
+        mark[id] = stamp;
+        live++;
+        version++;
+        int c0 = cellOf(x), r0 = cellOf(y), c1 = cellOf(x + w - 1), r1 = cellOf(y + h - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) link(slotFor(c, r, true), id);
+        }
+        minC = Math.min(minC, c0);
+        minR = Math.min(minR, r0);
+        maxC = Math.max(maxC, c1);
+        maxR = Math.max(maxR, r1);
+        return id;
     }
 
     public void addAll(List<Rectangle> rects) {
@@ -17,14 +108,412 @@ public class CollisionWorld {
         for (Rectangle r : rects) add(r);
     }
 
+    /** Removes solid {@code id}; returns false if it wasn't there. */
+    public boolean remove(int id) {
+        if (id < 0 || id >= ids || sw[id] < 0) return false;
+        int x = sx[id], y = sy[id], w = sw[id], h = sh[id];
+        int c1 = cellOf(x + w - 1), r1 = cellOf(y + h - 1);
+        for (int r = cellOf(y); r <= r1; r++) {
+            for (int c = cellOf(x); c <= c1; c++) unlink(slotFor(c, r, false), id);
+        }
+        sw[id] = NONE;
+        sx[id] = freeId;
+        freeId = id;
+        live--;
+        version++;
+        return true;
+    }
+
+    public void clear() {
+        ids = 0;
+        freeId = NONE;
+        live = 0;
+        entries = 0;
+        freeEntry = NONE;
+        Arrays.fill(used, false);
+        cellsUsed = 0;
+        minC = minR = Integer.MAX_VALUE;
+        maxC = maxR = Integer.MIN_VALUE;
+        version++;
+    }
+
+    /**
+     * Makes the solids equal to {@code rects} by removing the ones that are gone and adding the
+     * new ones; unchanged solids keep their ids. Returns how many were removed plus added.
+     */
+    public int replaceAll(List<Rectangle> rects) {
+        Map<Rectangle, Integer> wanted = new HashMap<>();
+        for (Rectangle r : rects) {
+            if (r != null && !r.isEmpty()) wanted.merge(new Rectangle(r), 1, Integer::sum);
+        }
+        int changed = 0;
+        Rectangle probe = new Rectangle();
+        for (int id = 0; id < ids; id++) {
+            if (sw[id] < 0) continue;
+            probe.setBounds(sx[id], sy[id], sw[id], sh[id]);
+            Integer n = wanted.get(probe);
+            if (n == null) {
+                remove(id);
+                changed++;
+            } else if (n == 1) {
+                wanted.remove(probe);
+            } else {
+                wanted.put(new Rectangle(probe), n - 1);
+            }
+        }
+        for (Map.Entry<Rectangle, Integer> e : wanted.entrySet()) {
+            for (int i = 0; i < e.getValue(); i++) add(e.getKey());
+            changed += e.getValue();
+        }
+        return changed;
+    }
+
+    // -------- Field --------
+
+    /**
+     * Rasterises the current solids over a {@code width} x {@code height} world into a
+     * {@link CollisionField} at {@code resolution} px. Small worlds are done before returning;
+     * big ones on a background thread, with queries using the exact grid alone until it's ready.
+     * Any later change drops the field until this is called again.
+     */
+    public void buildField(int width, int height, int resolution) {
+        int res = Math.max(1, resolution);
+        int[] x = new int[live], y = new int[live], w = new int[live], h = new int[live];
+        int n = 0;
+        for (int id = 0; id < ids; id++) {
+            if (sw[id] < 0) continue;
+            x[n] = sx[id];
+            y[n] = sy[id];
+            w[n] = sw[id];
+            h[n] = sh[id];
+            n++;
+        }
+        int count = n, built = version;
+        long cells = (long) (width / res + 1) * (height / res + 1);
+        Runnable job = () -> {
+            long t0 = System.nanoTime();
+            CollisionField f = CollisionField.build(x, y, w, h, count, width, height, res, built);
+            field = f;
+            System.out.println("🧭 collision field " + f.cols + "x" + f.rows + " @" + res + "px, " + count + " solids, "
+                    + (System.nanoTime() - t0) / 1_000_000 + " ms" + (cells > SYNC_FIELD_CELLS ? " (background)" : ""));
+        };
+        if (cells > SYNC_FIELD_CELLS) FIELD_BUILDER.execute(job);
+        else job.run();
+    }
+
+    /** The field for the current solids, or null if there is none (not built, out of date or still building). */
+    public CollisionField getField() {
+        CollisionField f = field;
+        return f != null && f.version == version ? f : null;
+    }
+
+    // -------- Queries --------
+
     public boolean blocks(Rectangle r) {
-        for (Rectangle s : solids) {
-            if (s.intersects(r)) return true;
+        return blocks(r.x, r.y, r.width, r.height);
+    }
+
+    /** True when any solid overlaps the rectangle. */
+    public boolean blocks(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0 || live == 0) return false;
+        CollisionField f = field;
+        if (f != null && f.version == version && !f.mayBlock(x, y, w, h)) return false; // clear on the bitmap is final
+        int c0 = Math.max(minC, cellOf(x)), r0 = Math.max(minR, cellOf(y));
+        int c1 = Math.min(maxC, cellOf(x + w - 1)), r1 = Math.min(maxR, cellOf(y + h - 1));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int slot = slotFor(c, r, false);
+                if (slot < 0) continue;
+                for (int e = heads[slot]; e != NONE; e = entryNext[e]) {
+                    if (overlaps(entrySolid[e], x, y, w, h)) return true;
+                }
+            }
         }
         return false;
     }
 
+    /**
+     * Writes the ids of solids overlapping the rectangle into {@code out}, up to its length, and
+     * returns how many were written.
+     */
+    public int query(int x, int y, int w, int h, int[] out) {
+        if (w <= 0 || h <= 0 || live == 0) return 0;
+        int n = 0, s = nextStamp();
+        int c0 = Math.max(minC, cellOf(x)), r0 = Math.max(minR, cellOf(y));
+        int c1 = Math.min(maxC, cellOf(x + w - 1)), r1 = Math.min(maxR, cellOf(y + h - 1));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int slot = slotFor(c, r, false);
+                if (slot < 0) continue;
+                for (int e = heads[slot]; e != NONE; e = entryNext[e]) {
+                    int id = entrySolid[e];
+                    if (mark[id] == s) continue;
+                    mark[id] = s;
+                    if (!overlaps(id, x, y, w, h)) continue;
+                    if (n == out.length) return n;
+                    out[n++] = id;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Id of the solid closest to (px, py), measured to its nearest edge (0 when inside), or -1
+     * if none is within {@code maxDist}.
+     */
+    public int nearest(int px, int py, int maxDist) {
+        if (live == 0 || maxDist < 0) return NONE;
+        int s = nextStamp();
+        int best = NONE;
+        long bestD2 = (long) maxDist * maxDist;
+        int pc = cellOf(px), pr = cellOf(py);
+        int span = Math.max(Math.max(Math.abs(pc - minC), Math.abs(pc - maxC)), Math.max(Math.abs(pr - minR), Math.abs(pr - maxR)));
+        int maxRing = Math.min(maxDist / cell + 1, span);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every cell of this ring is at least (ring - 1) whole cells from the point
+            long gap = (long) Math.max(0, ring - 1) * cell;
+            if (best != NONE && gap * gap > bestD2) break;
+            for (int r = pr - ring; r <= pr + ring; r++) {
+                boolean edgeRow = r == pr - ring || r == pr + ring;
+                for (int c = pc - ring; c <= pc + ring; c += edgeRow ? 1 : 2 * ring) {
+                    int slot = slotFor(c, r, false);
+                    if (slot >= 0) {
+                        for (int e = heads[slot]; e != NONE; e = entryNext[e]) {
+                            int id = entrySolid[e];
+                            if (mark[id] == s) continue;
+                            mark[id] = s;
+                            long dx = Math.max(0, Math.max(sx[id] - px, px - (sx[id] + sw[id] - 1)));
+                            long dy = Math.max(0, Math.max(sy[id] - py, py - (sy[id] + sh[id] - 1)));
+                            long d2 = dx * dx + dy * dy;
+                            if (d2 < bestD2 || (d2 == bestD2 && best == NONE)) {
+                                bestD2 = d2;
+                                best = id;
+                            }
+                        }
+                    }
+                    if (ring == 0) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int rayHit = NONE;
+
+    /**
+     * Distance along the ray from (ox, oy) toward (dx, dy) to the first solid it enters, or
+     * {@code Double.POSITIVE_INFINITY} if none within {@code maxDist}; the solid's id is then
+     * {@link #lastRayHit()}. Walks the cells the ray crosses, nearest first.
+     */
+    public double raycast(double ox, double oy, double dx, double dy, double maxDist) {
+        rayHit = NONE;
+        double len = Math.hypot(dx, dy);
+        if (live == 0 || len == 0 || !(maxDist >= 0)) return Double.POSITIVE_INFINITY;
+        dx /= len;
+        dy /= len;
+        int s = nextStamp();
+        int c = cellOf((int) Math.floor(ox)), r = cellOf((int) Math.floor(oy));
+        int stepC = dx > 0 ? 1 : -1, stepR = dy > 0 ? 1 : -1;
+        double tDeltaX = dx != 0 ? cell / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? cell / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        double tMaxX = dx != 0 ? ((dx > 0 ? (long) (c + 1) * cell : (long) c * cell) - ox) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy != 0 ? ((dy > 0 ? (long) (r + 1) * cell : (long) r * cell) - oy) / dy : Double.POSITIVE_INFINITY;
+        double best = Double.POSITIVE_INFINITY;
+        double tCell = 0;
+        double tEnd = Math.min(maxDist, leaveUsedCells(ox, oy, dx, dy));
+        while (tCell <= tEnd) {
+            int slot = slotFor(c, r, false);
+            if (slot >= 0) {
+                for (int e = heads[slot]; e != NONE; e = entryNext[e]) {
+                    int id = entrySolid[e];
+                    if (mark[id] == s) continue;
+                    mark[id] = s;
+                    double t = enter(id, ox, oy, dx, dy);
+                    if (t < best) {
+                        best = t;
+                        rayHit = id;
+                    }
+                }
+            }
+            double tExit = Math.min(tMaxX, tMaxY);
+            if (best <= tExit) break; // nothing in a later cell can be hit sooner
+            tCell = tExit;
+            if (tMaxX < tMaxY) {
+                tMaxX += tDeltaX;
+                c += stepC;
+            } else {
+                tMaxY += tDeltaY;
+                r += stepR;
+            }
+        }
+        if (best > maxDist) {
+            rayHit = NONE;
+            return Double.POSITIVE_INFINITY;
+        }
+        return best;
+    }
+
+    /** Id of the solid the last {@link #raycast} hit, or -1. */
+    public int lastRayHit() { return rayHit; }
+
+    // distance at which the ray leaves the cells that have ever held a solid (-1 if it never meets them)
+    private double leaveUsedCells(double ox, double oy, double dx, double dy) {
+        double minX = (double) minC * cell, maxX = (double) (maxC + 1) * cell;
+        double minY = (double) minR * cell, maxY = (double) (maxR + 1) * cell;
+        double t0 = 0, t1 = Double.POSITIVE_INFINITY;
+        if (dx == 0) {
+            if (ox < minX || ox >= maxX) return -1;
+        } else {
+            double a = (minX - ox) / dx, b = (maxX - ox) / dx;
+            t0 = Math.max(t0, Math.min(a, b));
+            t1 = Math.min(t1, Math.max(a, b));
+        }
+        if (dy == 0) {
+            if (oy < minY || oy >= maxY) return -1;
+        } else {
+            double a = (minY - oy) / dy, b = (maxY - oy) / dy;
+            t0 = Math.max(t0, Math.min(a, b));
+            t1 = Math.min(t1, Math.max(a, b));
+        }
+        return t0 <= t1 ? t1 : -1;
+    }
+
+    // slab test: distance at which the ray enters solid id (0 when it starts inside)
+    private double enter(int id, double ox, double oy, double dx, double dy) {
+        double t0 = 0, t1 = Double.POSITIVE_INFINITY;
+        double minX = sx[id], maxX = (double) sx[id] + sw[id], minY = sy[id], maxY = (double) sy[id] + sh[id];
+        if (dx == 0) {
+            if (ox < minX || ox >= maxX) return Double.POSITIVE_INFINITY;
+        } else {
+            double a = (minX - ox) / dx, b = (maxX - ox) / dx;
+            t0 = Math.max(t0, Math.min(a, b));
+            t1 = Math.min(t1, Math.max(a, b));
+        }
+        if (dy == 0) {
+            if (oy < minY || oy >= maxY) return Double.POSITIVE_INFINITY;
+        } else {
+            double a = (minY - oy) / dy, b = (maxY - oy) / dy;
+            t0 = Math.max(t0, Math.min(a, b));
+            t1 = Math.min(t1, Math.max(a, b));
+        }
+        return t0 < t1 ? t0 : Double.POSITIVE_INFINITY;
+    }
+
+    /** Copies solid {@code id} into {@code out}; returns false if there is no such solid. */
+    public boolean get(int id, Rectangle out) {
+        if (id < 0 || id >= ids || sw[id] < 0) return false;
+        out.setBounds(sx[id], sy[id], sw[id], sh[id]);
+        return true;
+    }
+
+    /** A copy of every solid, e.g. for drawing an overlay. */
     public List<Rectangle> getSolids() {
-        return solids;
+        List<Rectangle> out = new ArrayList<>(live);
+        for (int id = 0; id < ids; id++) {
+            if (sw[id] >= 0) out.add(new Rectangle(sx[id], sy[id], sw[id], sh[id]));
+        }
+        return out;
+    }
+
+    // -------- Internals --------
+
+    private boolean overlaps(int id, int x, int y, int w, int h) {
+        return x < sx[id] + sw[id] && sx[id] < x + w && y < sy[id] + sh[id] && sy[id] < y + h;
+    }
+
+    private int cellOf(int v) { return Math.floorDiv(v, cell); }
+
+    private int nextStamp() {
+        if (++stamp == 0) { // wrapped: old marks could collide with new stamps
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private static long key(int c, int r) { return ((long) c << 32) | (r & 0xffffffffL); }
+
+    private static int hash(long k) {
+        long h = k * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    // slot of cell (c, r), or -1 when absent and !create
+    private int slotFor(int c, int r, boolean create) {
+        long k = key(c, r);
+        int mask = keys.length - 1;
+        for (int i = hash(k) & mask; ; i = (i + 1) & mask) {
+            if (!used[i]) {
+                if (!create) return NONE;
+                if ((cellsUsed + 1) * 2 > keys.length) {
+                    growTable();
+                    return slotFor(c, r, true);
+                }
+                used[i] = true;
+                keys[i] = k;
+                heads[i] = NONE;
+                cellsUsed++;
+                return i;
+            }
+            if (keys[i] == k) return i;
+        }
+    }
+
+    private void link(int slot, int id) {
+        int e;
+        if (freeEntry != NONE) {
+            e = freeEntry;
+            freeEntry = entryNext[e];
+        } else {
+            if (entries == entrySolid.length) {
+                entrySolid = Arrays.copyOf(entrySolid, entries * 2);
+                entryNext = Arrays.copyOf(entryNext, entries * 2);
+            }
+            e = entries++;
+        }
+        entrySolid[e] = id;
+        entryNext[e] = heads[slot];
+        heads[slot] = e;
+    }
+
+    private void unlink(int slot, int id) {
+        if (slot < 0) return;
+        for (int prev = NONE, e = heads[slot]; e != NONE; prev = e, e = entryNext[e]) {
+            if (entrySolid[e] != id) continue;
+            if (prev == NONE) heads[slot] = entryNext[e];
+            else entryNext[prev] = entryNext[e];
+            entryNext[e] = freeEntry;
+            freeEntry = e;
+            return;
+        }
+    }
+
+    private void growSolids() {
+        int n = sx.length * 2;
+        sx = Arrays.copyOf(sx, n);
+        sy = Arrays.copyOf(sy, n);
+        sw = Arrays.copyOf(sw, n);
+        sh = Arrays.copyOf(sh, n);
+        mark = Arrays.copyOf(mark, n);
+    }
+
+    private void growTable() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        boolean[] oldUsed = used;
+        int n = oldKeys.length * 2;
+        keys = new long[n];
+        heads = new int[n];
+        used = new boolean[n];
+        int mask = n - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (!oldUsed[j]) continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (used[i]) i = (i + 1) & mask;
+            used[i] = true;
+            keys[i] = oldKeys[j];
+            heads[i] = oldHeads[j];
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package map;
+
+/**
+ * Signed distance fields over bitmaps packed as {@code long} rows (bit set = inside). Exact
+ * Euclidean distances by Felzenszwalb & Huttenlocher's transform: one pass down the columns,
+ * then one along the rows.
+ */
+final class DistanceTransform {
+
+    private static final float INF = 1e20f;
+
+    private final float[] f, d, z;
+    private final int[] v;
+
+    private DistanceTransform(int n) {
+        f = new float[n];
+        d = new float[n];
+        z = new float[n + 1];
+        v = new int[n];
+    }
+
+    /**
+     * Distance in quarter pixels from each cell's centre to the nearest cell of the other kind,
+     * less half a cell, with cells {@code cellPx} wide: positive outside, negative inside,
+     * clamped to a short. Saturated when the bitmap has no cells of the other kind.
+     */
+    static short[] signed(long[] bits, int cols, int rows, int cellPx) {
+        int words = (cols + 63) >>> 6;
+        int cells = cols * rows;
+        float[] out = new float[cells], in = new float[cells];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                boolean set = (bits[r * words + (c >>> 6)] & (1L << c)) != 0;
+                out[r * cols + c] = set ? 0 : INF;
+                in[r * cols + c] = set ? INF : 0;
+            }
+        }
+        DistanceTransform t = new DistanceTransform(Math.max(cols, rows));
+        t.squared(out, cols, rows);
+        t.squared(in, cols, rows);
+
+        short[] sdf = new short[cells];
+        for (int i = 0; i < cells; i++) {
+            float dist;
+            if (out[i] >= INF / 2 || in[i] >= INF / 2) {
+                dist = out[i] > 0 ? Short.MAX_VALUE : Short.MIN_VALUE; // nothing of the other kind
+            } else {
+                dist = out[i] > 0 ? ((float) Math.sqrt(out[i]) - 0.5f) : -((float) Math.sqrt(in[i]) - 0.5f);
+                dist = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, dist * cellPx * 4));
+            }
+            sdf[i] = (short) dist;
+        }
+        return sdf;
+    }
+
+    private void squared(float[] grid, int cols, int rows) {
+        for (int c = 0; c < cols; c++) {
+            for (int r = 0; r < rows; r++) f[r] = grid[r * cols + c];
+            pass(rows);
+            for (int r = 0; r < rows; r++) grid[r * cols + c] = d[r];
+        }
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(grid, r * cols, f, 0, cols);
+            pass(cols);
+            System.arraycopy(d, 0, grid, r * cols, cols);
+        }
+    }
+
+    // lower envelope of the parabolas (q - p)^2 + f[p]
+    private void pass(int n) {
+        int k = 0;
+        v[0] = 0;
+        z[0] = -INF;
+        z[1] = INF;
+        for (int q = 1; q < n; q++) {
+            float s;
+            while (true) {
+                int p = v[k];
+                s = ((f[q] + q * (float) q) - (f[p] + p * (float) p)) / (2f * q - 2f * p);
+                if (s > z[k] || k == 0) break;
+                k--;
+            }
+            if (s <= z[k]) { // k == 0 and the new parabola is lower everywhere
+                v[0] = q;
+                z[0] = -INF;
+                z[1] = INF;
+                continue;
+            }
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = INF;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (z[k + 1] < q) k++;
+            int p = v[k];
+            d[q] = (q - p) * (float) (q - p) + f[p];
+        }
+    }
+}
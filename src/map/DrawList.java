@@ -0,0 +1,82 @@
+package map;
+
+import render.CullGrid;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Static world objects in back-to-front order (by foot Y, ties keep load order), prepared once
+ * per map. The foot Y values sit in a plain int array so finding where a moving sprite slots
+ * in is a binary search, and drawing either side of it allocates nothing. A {@link CullGrid}
+ * over the sprite bounds picks out what a viewport can see, so a big map costs per frame only
+ * what is on screen.
+ *
+ * Immutable, so it can be shared across threads and snapshots.
+ */
+public final class DrawList {
+
+    public static final DrawList EMPTY = new DrawList(List.of());
+
+    private final WorldObject[] items;
+    private final int[] footY;
+    private final CullGrid grid;
+
+    public DrawList(List<WorldObject> objects) {
+        items = objects.toArray(new WorldObject[0]);
+        Arrays.sort(items, (a, b) -> Integer.compare(a.footY(), b.footY())); // stable
+        footY = new int[items.length];
+        for (int i = 0; i < items.length; i++) footY[i] = items[i].footY();
+        int[] x = new int[items.length], y = new int[items.length], w = new int[items.length], h = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            x[i] = items[i].x;
+            y[i] = items[i].y;
+            w[i] = items[i].image.getWidth();
+            h[i] = items[i].image.getHeight();
+        }
+        grid = new CullGrid(x, y, w, h);
+    }
+
+    public int size() { return items.length; }
+    public WorldObject get(int i) { return items[i]; }
+    public int footY(int i) { return footY[i]; }
+
+    /** Index of the first object whose foot is at or below {@code y}; everything before it draws behind. */
+    public int splitAt(int y) {
+        int lo = 0, hi = footY.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (footY[mid] < y) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Draws objects [from, to) in order. */
+    public void draw(Graphics2D g, int from, int to) {
+        for (int i = from; i < to; i++) items[i].draw(g);
+    }
+
+    /** Indices of objects overlapping {@code view}, in draw order; {@code out} must hold {@link #size()} ints. */
+    public int visible(Rectangle view, int[] out) {
+        return grid.query(view, out);
+    }
+
+    /** {@link #splitAt(int)} over the first {@code n} indices of a {@link #visible} result. */
+    public int splitAt(int[] idx, int n, int y) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (footY[idx[mid]] < y) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Draws the objects at idx[from, to). */
+    public void draw(Graphics2D g, int[] idx, int from, int to) {
+        for (int k = from; k < to; k++) items[idx[k]].draw(g);
+    }
+}
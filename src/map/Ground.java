@@ -0,0 +1,82 @@
+package map;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * The map's ground: grass tiles, water tiles from {@code waterTopY} down and a sand shore
+ * above the water. Painted on demand for any region in world coordinates, so a large map never
+ * needs one image the size of the world.
+ *
+ * Immutable, so snapshots and the renderer can share it.
+ */
+public final class Ground {
+
+    private static final Color GRASS = new Color(34, 139, 34);
+    private static final Color WATER = new Color(70, 180, 220);
+    private static final Color SHORE = new Color(210, 180, 120);
+
+    private final int width, height, tileSize, waterTopY;
+    private final BufferedImage grassTile, waterTile;
+
+    public Ground(int width, int height, int tileSize, int waterTopY, BufferedImage grassTile, BufferedImage waterTile) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = Math.max(1, tileSize);
+        this.waterTopY = waterTopY;
+        this.grassTile = grassTile;
+        this.waterTile = waterTile;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getWaterTopY() { return waterTopY; }
+
+    /** Paints the part of the ground inside {@code region} (world coordinates). */
+    public void paint(Graphics2D g, Rectangle region) {
+        Rectangle r = region.intersection(new Rectangle(0, 0, width, height));
+        if (r.isEmpty()) return;
+        Shape oldClip = g.getClip();
+        Object oldAA = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        g.clipRect(r.x, r.y, r.width, r.height);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        try {
+            fillTiled(g, grassTile, 0, 0, Math.min(height, Math.max(0, waterTopY)), r, GRASS);
+            fillTiled(g, waterTile, 0, waterTopY, height, r, WATER);
+
+            int shoreH = Math.max(28, tileSize / 2);
+            int shoreY = waterTopY - shoreH;
+            g.setColor(SHORE);
+            g.fillRect(r.x, shoreY, r.width, shoreH);
+
+            g.setPaint(new GradientPaint(0, shoreY, new Color(255,255,255,80),
+                    0, shoreY - shoreH/2, new Color(255,255,255,0)));
+            g.fillRect(r.x, shoreY - shoreH/2, r.width, shoreH/2);
+        } finally {
+            g.setClip(oldClip);
+            if (oldAA != null) g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, oldAA);
+        }
+    }
+
+    // tiles on a grid anchored at (originX, originY), only the rows from originY to bottom that overlap r
+    private void fillTiled(Graphics2D g, BufferedImage tile, int originX, int originY, int bottom, Rectangle r, Color fallback) {
+        int top = Math.max(originY, r.y);
+        int end = Math.min(bottom, r.y + r.height);
+        if (top >= end) return;
+        if (tile == null) {
+            g.setColor(fallback);
+            g.fillRect(r.x, top, r.width, end - top);
+            return;
+        }
+        int x0 = originX + Math.floorDiv(r.x - originX, tileSize) * tileSize;
+        int y0 = originY + Math.floorDiv(top - originY, tileSize) * tileSize;
+        for (int xx = x0; xx < r.x + r.width; xx += tileSize)
+            for (int yy = y0; yy < end; yy += tileSize)
+                g.drawImage(tile, xx, yy, tileSize, tileSize, null);
+    }
+}
@@ -1,16 +1,16 @@
 package map;
 
-import javax.imageio.ImageIO;
-import java.awt.Color;
-import java.awt.GradientPaint;
-import java.awt.Graphics2D;
+import render.Images;
+import render.TextureAtlas;
+
 import java.awt.Rectangle;
-import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.Arrays;
@@ -18,23 +18,30 @@ import java.util.Arrays;
 
 public class MapBackground {
 
-    private final int width;
-    private final int height;
+    // map.json's size when it gives one, else the size passed in (the window)
+    private final int defaultWidth;
+    private final int defaultHeight;
+    private int width;
+    private int height;
     private final int tileSize;
 
     private String manifestRoot = "";
     private final java.util.List<String> manifestFiles = new java.util.ArrayList<>();
 
-    private BufferedImage groundImage;
-    private final java.util.List<WorldObject> objects = new java.util.ArrayList<>();
-    private final CollisionWorld collisionWorld = new CollisionWorld();
+    // replaced whole by apply(), so a reload built on another thread never touches what the game uses
+    private Ground ground;
+    private java.util.List<WorldObject> objects = new java.util.ArrayList<>();
+    private DrawList drawList = DrawList.EMPTY;
+    private CollisionWorld collisionWorld = new CollisionWorld();
 
     private int waterTopY;
 
-    private static final int DEFAULT_TILE_SIZE = 64;
+    private File mapFile;
+    private long mapFileModified;
 
-    private BufferedImage grassTile;
-    private BufferedImage waterTile;
+    private static final int DEFAULT_TILE_SIZE = 64;
+    private static final int ATLAS_PAGE_SIZE = 2048;
+    private static final int COLLISION_FIELD_RES = 4; // px per cell of the collision bitmap / distance field
 
     private static final String[] MAP_CANDIDATES = new String[] {
             "src/assets/maps/map.json",
@@ -43,32 +50,95 @@ public class MapBackground {
             "./src/assets/maps/map.json"
     };
 
+    private static final List<String> GRASS_TILES = List.of(
+            "Tiles/Grass/Grass_1_Middle.png",
+            "Tiles/Grass/Grass_2_Middle.png",
+            "Tiles/Grass/Grass_3_Middle.png",
+            "Tiles/Grass/Grass_4_Middle.png");
+    private static final List<String> WATER_TILES = List.of(
+            "Tiles/Water/Water_Middle.png",
+            "Tiles/Water/Water_Tile_2.png",
+            "Tiles/Water/Water_Tile_1.png");
+
     public MapBackground(int width, int height, String manifestPath) {
         this(width, height, manifestPath, DEFAULT_TILE_SIZE);
     }
 
     public MapBackground(int width, int height, String manifestPath, int tileSize) {
-        this.width = width;
-        this.height = height;
+        this.defaultWidth = this.width = width;
+        this.defaultHeight = this.height = height;
         this.tileSize = Math.max(1, tileSize);
 
         loadManifest(manifestPath);
 
         if (!loadFromMapJsonCandidates()) {
             System.out.println("ℹ️ MapBackground: map.json not found. Fallback to basic ground.");
-            pickBaseTiles();
-            buildGround(height - 220);
+            waterTopY = height - 220;
+            ground = new Ground(width, height, tileSize, waterTopY, baseTile(GRASS_TILES), baseTile(WATER_TILES));
         }
     }
 
-    public BufferedImage getGroundImage() { return groundImage; }
+    public Ground getGround() { return ground; }
     public java.util.List<WorldObject> getObjects() { return objects; }
+    public DrawList getDrawList() { return drawList; }
     public CollisionWorld getCollisionWorld() { return collisionWorld; }
     public int getWaterTopY() { return waterTopY; }
 
     public int getWorldWidth() { return width; }
     public int getWorldHeight() { return height; }
 
+    /**
+     * True once when map.json changed on disk since it was loaded or last reported (e.g. saved
+     * from the editor). The caller then {@link #load}s it, off this thread if it likes, and
+     * {@link #apply}s the result.
+     */
+    public boolean takeChange() {
+        if (mapFile == null || mapFile.lastModified() == mapFileModified) return false;
+        mapFileModified = mapFile.lastModified(); // a load that fails isn't retried until the next save
+        System.out.println("🔄 map.json เปลี่ยน โหลดใหม่: " + mapFile.getPath());
+        return true;
+    }
+
+    /** A map.json read and prepared by {@link #load}, ready to {@link #apply}. */
+    public static final class Loaded {
+        final int width, height, waterTopY;
+        final Ground ground;
+        final List<WorldObject> objects;
+        final DrawList drawList;
+        final CollisionWorld collisionWorld;
+
+        private Loaded(int width, int height, int waterTopY, Ground ground, List<WorldObject> objects,
+                       DrawList drawList, CollisionWorld collisionWorld) {
+            this.width = width;
+            this.height = height;
+            this.waterTopY = waterTopY;
+            this.ground = ground;
+            this.objects = objects;
+            this.drawList = drawList;
+            this.collisionWorld = collisionWorld;
+        }
+    }
+
+    /**
+     * Reads map.json as it is now: decodes the sprites, packs the atlas, builds the colliders.
+     * Only reads the manifest, so it is safe on a background thread. Null if it fails.
+     */
+    public Loaded load() {
+        File f = mapFile;
+        return f != null ? load(f) : null;
+    }
+
+    /** Swaps in a loaded map; on the thread that owns this background. */
+    public void apply(Loaded l) {
+        width = l.width;
+        height = l.height;
+        waterTopY = l.waterTopY;
+        ground = l.ground;
+        objects = l.objects;
+        drawList = l.drawList;
+        collisionWorld = l.collisionWorld;
+    }
+
     private void loadManifest(String manifestPath) {
         try {
             File f = resolveFile(manifestPath);
@@ -141,7 +211,7 @@ public class MapBackground {
     private BufferedImage loadImage(String rel) {
         try {
             File f = resolveAsset(rel);
-            if (f != null) return ImageIO.read(f);
+            if (f != null) return Images.read(f);
         } catch (Exception ignore) {}
         return null;
     }
@@ -156,103 +226,129 @@ public class MapBackground {
     }
 
     private boolean loadFromMapJson(String path) {
-        try {
-            File f = resolveFile(path);
-            if (f == null || !f.exists()) return false;
+        File f = resolveFile(path);
+        if (f == null || !f.exists()) return false;
+        System.out.println("📄 Found map.json at: " + f.getPath());
+        mapFile = f;
+        mapFileModified = f.lastModified();
+        Loaded l = load(f);
+        if (l == null) return false;
+        apply(l);
+        return true;
+    }
 
-            System.out.println("📄 Found map.json at: " + f.getPath());
+    private Loaded load(File f) {
+        try {
             String txt = Files.readString(f.toPath(), StandardCharsets.UTF_8);
             MapData data = MapIO.fromJson(txt);
 
-            pickBaseTiles();
-            buildGround(data.waterTopY);
+            int w = data.width > 0 ? data.width : defaultWidth;
+            int h = data.height > 0 ? data.height : defaultHeight;
+            Ground g = new Ground(w, h, tileSize, data.waterTopY, baseTile(GRASS_TILES), baseTile(WATER_TILES));
 
-            objects.clear();
-            collisionWorld.getSolids().clear();
+            List<WorldObject> objs = new ArrayList<>();
+            List<Rectangle> solids = new ArrayList<>();
 
+            TextureAtlas atlas = buildAtlas(data);
             int ok = 0, fail = 0;
             for (MapData.MapObject o : data.objects) {
-                BufferedImage img = loadImage(o.src);
-                if (img == null) {
+                TextureAtlas.Region r = atlas.get(o.src);
+                if (r == null) {
                     fail++;
                     System.out.println("⚠️ Could not load object image: " + o.src);
                     continue;
                 }
                 Rectangle coll = o.collide
-                        ? new Rectangle(o.x, o.y + img.getHeight() - Math.max(4, o.footH), img.getWidth(), Math.max(4, o.footH))
+                        ? new Rectangle(o.x, o.y + r.h - Math.max(4, o.footH), r.w, Math.max(4, o.footH))
                         : null;
-                WorldObject wo = new WorldObject(img, o.x, o.y, coll);
-                objects.add(wo);
-                if (coll != null) collisionWorld.add(coll);
+                WorldObject wo = new WorldObject(r, o.x, o.y, coll);
+                objs.add(wo);
+                if (coll != null) solids.add(coll);
                 ok++;
             }
-            objects.sort(Comparator.comparingInt(WorldObject::footY));
-            System.out.println("✅ Loaded map.json objects: ok=" + ok + " fail=" + fail);
-            return true;
+            CollisionWorld cw = new CollisionWorld();
+            cw.replaceAll(solids);
+            cw.buildField(w, h, COLLISION_FIELD_RES);
+            objs.sort(Comparator.comparingInt(WorldObject::footY));
+            System.out.println("✅ Loaded map.json objects: ok=" + ok + " fail=" + fail + " colliders=" + solids.size());
+            return new Loaded(w, h, data.waterTopY, g, objs, new DrawList(objs), cw);
         } catch (Exception ex) {
             System.out.println("⚠️ Load map.json failed: " + ex.getMessage());
-            return false;
+            return null;
         }
     }
 
-    private void pickBaseTiles() {
-        String g = firstExisting(java.util.Arrays.asList(
-                "Tiles/Grass/Grass_1_Middle.png",
-                "Tiles/Grass/Grass_2_Middle.png",
-                "Tiles/Grass/Grass_3_Middle.png",
-                "Tiles/Grass/Grass_4_Middle.png"
-        ));
-        String w = firstExisting(java.util.Arrays.asList(
-                "Tiles/Water/Water_Middle.png",
-                "Tiles/Water/Water_Tile_2.png",
-                "Tiles/Water/Water_Tile_1.png"
-        ));
-        grassTile = g != null ? loadImage(g) : null;
-        waterTile = w != null ? loadImage(w) : null;
-    }
+    /**
+     * Packs every distinct object image into atlas pages. With -Dfishing.atlasCache=&lt;dir&gt; the
+     * packed pages are kept on disk, keyed by the files' names, sizes and timestamps.
+     */
+    private TextureAtlas buildAtlas(MapData data) {
+        java.util.Set<String> srcs = new java.util.TreeSet<>();
+        for (MapData.MapObject o : data.objects) if (o.src != null) srcs.add(o.src);
+
+        String cacheDir = System.getProperty("fishing.atlasCache");
+        String key = cacheDir != null ? atlasKey(srcs) : null;
+        if (cacheDir != null) {
+            TextureAtlas cached = TextureAtlas.load(new File(cacheDir), key);
+            if (cached != null) {
+                System.out.println("🧩 atlas from cache: " + cached.size() + " sprites, " + cached.getPages().size() + " pages");
+                return cached;
+            }
+        }
 
-    private String firstExisting(java.util.List<String> candidates) {
-        for (String want : candidates) {
-            String wantName = new File(want).getName();
-            for (String f : manifestFiles) {
-                if (f.equals(want) || f.endsWith("/" + wantName)) return f;
+        java.util.Map<String, BufferedImage> images = new java.util.HashMap<>();
+        for (String src : srcs) images.put(src, loadImage(src));
+        TextureAtlas atlas = TextureAtlas.pack(images, ATLAS_PAGE_SIZE, 1);
+
+        long distinctBytes = 0, perObjectBytes = 0;
+        for (BufferedImage img : images.values()) if (img != null) distinctBytes += 4L * img.getWidth() * img.getHeight();
+        for (MapData.MapObject o : data.objects) {
+            BufferedImage img = images.get(o.src);
+            if (img != null) perObjectBytes += 4L * img.getWidth() * img.getHeight();
+        }
+        System.out.printf("🧩 atlas: %d sprites -> %d pages, fill %.0f%%, %.1f MB (separate images %.1f MB, one per object %.1f MB)%n",
+                atlas.size(), atlas.getPages().size(), atlas.efficiency() * 100, atlas.pagePixels() * 4 / 1048576.0,
+                distinctBytes / 1048576.0, perObjectBytes / 1048576.0);
+
+        if (cacheDir != null) {
+            try {
+                atlas.save(new File(cacheDir), key);
+            } catch (java.io.IOException e) {
+                System.out.println("⚠️ เขียน atlas cache ไม่ได้: " + e.getMessage());
             }
         }
-        return null;
+        return atlas;
     }
 
-    private void buildGround(int waterTopYInput) {
-        groundImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = groundImage.createGraphics();
+    private String atlasKey(java.util.Set<String> srcs) {
+        StringBuilder sb = new StringBuilder().append(ATLAS_PAGE_SIZE);
+        for (String src : srcs) {
+            File f = resolveAsset(src);
+            sb.append('|').append(src);
+            if (f != null) sb.append(':').append(f.length()).append(':').append(f.lastModified());
+        }
         try {
-            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            this.waterTopY = waterTopYInput;
-
-            fillTiled(g, grassTile, 0, 0, width, height, new Color(34, 139, 34));
-            fillTiled(g, waterTile, 0, waterTopY, width, height - waterTopY, new Color(70, 180, 220));
-
-            int shoreH = Math.max(28, tileSize / 2);
-            int shoreY = waterTopY - shoreH;
-            g.setColor(new Color(210,180,120));
-            g.fillRect(0, shoreY, width, shoreH);
-
-            g.setPaint(new GradientPaint(0, shoreY, new Color(255,255,255,80),
-                    0, shoreY - shoreH/2, new Color(255,255,255,0)));
-            g.fillRect(0, shoreY - shoreH/2, width, shoreH/2);
-        } finally {
-            g.dispose();
+            byte[] d = java.security.MessageDigest.getInstance("SHA-1").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) hex.append(String.format("%02x", d[i]));
+            return hex.toString();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            return Integer.toHexString(sb.toString().hashCode());
         }
     }
 
-    private void fillTiled(Graphics2D g, BufferedImage tile, int x, int y, int w, int h, Color fallback) {
-        if (tile != null) {
-            for (int xx = x; xx < x + w; xx += tileSize)
-                for (int yy = y; yy < y + h; yy += tileSize)
-                    g.drawImage(tile, xx, yy, tileSize, tileSize, null);
-        } else {
-            g.setColor(fallback);
-            g.fillRect(x, y, w, h);
+    private BufferedImage baseTile(List<String> candidates) {
+        String f = firstExisting(candidates);
+        return f != null ? loadImage(f) : null;
+    }
+
+    private String firstExisting(java.util.List<String> candidates) {
+        for (String want : candidates) {
+            String wantName = new File(want).getName();
+            for (String f : manifestFiles) {
+                if (f.equals(want) || f.endsWith("/" + wantName)) return f;
+            }
         }
+        return null;
     }
 }
\ No newline at end of file
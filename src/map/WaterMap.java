@@ -0,0 +1,238 @@
+package map;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where a world's water is. Any mix of shapes (rectangles, circles, polygons, painted tile
+ * masks) is rasterised once into a bitmap of {@code long} rows, one bit per cell, plus a signed
+ * distance to the shoreline: positive on land (how far to the water), negative in the water
+ * (how far to the shore). Point, box and distance queries are then lookups whatever the
+ * shapes were.
+ *
+ * Cells are 1 px while the world fits in {@link #MAX_CELLS}, so box tests are exact; bigger
+ * worlds get coarser cells. The distance field only steers casts, so it is kept
+ * {@link #SHORE_CELL} times coarser (a cell there is water if any of its pixels is), which
+ * keeps a rebuild cheap enough for the simulation thread. Outside the world is land. Immutable.
+ */
+public final class WaterMap {
+
+    public static final int MAX_CELLS = 4 << 20;
+    /** Bitmap cells per distance-field cell, each way (4 px at 1 px cells, as CollisionField). */
+    public static final int SHORE_CELL = 4;
+
+    public final int width, height, resolution, cols, rows;
+    private final int words;
+    private final long[] bits;
+    private final int shoreRes, shoreCols, shoreRows;
+    private final short[] shore; // quarter pixels, see DistanceTransform
+
+    private WaterMap(int width, int height, int resolution, int cols, int rows, long[] bits) {
+        this.width = width;
+        this.height = height;
+        this.resolution = resolution;
+        this.cols = cols;
+        this.rows = rows;
+        this.words = BitRows.words(cols);
+        this.bits = bits;
+        this.shoreRes = resolution * SHORE_CELL;
+        this.shoreCols = (cols + SHORE_CELL - 1) / SHORE_CELL;
+        this.shoreRows = (rows + SHORE_CELL - 1) / SHORE_CELL;
+        this.shore = DistanceTransform.signed(coarse(), shoreCols, shoreRows, shoreRes);
+    }
+
+    // the bitmap at distance-field resolution: a cell is water if any of its cells is
+    private long[] coarse() {
+        int coarseWords = BitRows.words(shoreCols);
+        long[] out = new long[coarseWords * shoreRows];
+        for (int r = 0; r < shoreRows; r++) {
+            int r0 = r * SHORE_CELL, r1 = Math.min(rows, r0 + SHORE_CELL) - 1;
+            for (int c = 0; c < shoreCols; c++) {
+                int c0 = c * SHORE_CELL, c1 = Math.min(cols, c0 + SHORE_CELL) - 1;
+                if (BitRows.any(bits, words, c0, c1, r0, r1)) out[r * coarseWords + (c >>> 6)] |= 1L << c;
+            }
+        }
+        return out;
+    }
+
+    public static Builder builder(int width, int height) {
+        return new Builder(width, height);
+    }
+
+    public static final class Builder {
+        private final int width, height;
+        private final List<Shape> shapes = new ArrayList<>();
+
+        private Builder(int width, int height) {
+            this.width = Math.max(1, width);
+            this.height = Math.max(1, height);
+        }
+
+        public Builder rect(int x, int y, int w, int h) {
+            if (w > 0 && h > 0) shapes.add(new Rectangle(x, y, w, h));
+            return this;
+        }
+
+        public Builder rect(Rectangle r) {
+            return r == null ? this : rect(r.x, r.y, r.width, r.height);
+        }
+
+        public Builder circle(int cx, int cy, int radius) {
+            if (radius > 0) shapes.add(new Ellipse2D.Double(cx - radius, cy - radius, radius * 2.0, radius * 2.0));
+            return this;
+        }
+
+        public Builder polygon(int[] xs, int[] ys) {
+            if (xs.length >= 3) shapes.add(new Polygon(xs, ys, Math.min(xs.length, ys.length)));
+            return this;
+        }
+
+        /** Painted tiles: {@code mask[row][col]} marks a {@code tileSize} square of water. */
+        public Builder tiles(boolean[][] mask, int tileSize) {
+            for (int r = 0; r < mask.length; r++) {
+                for (int c = 0; c < mask[r].length; ) {
+                    if (!mask[r][c]) {
+                        c++;
+                        continue;
+                    }
+                    int start = c;
+                    while (c < mask[r].length && mask[r][c]) c++;
+                    rect(start * tileSize, r * tileSize, (c - start) * tileSize, tileSize); // one rect per run
+                }
+            }
+            return this;
+        }
+
+        public Builder shape(Shape s) {
+            if (s != null) shapes.add(s);
+            return this;
+        }
+
+        public WaterMap build() {
+            int res = 1;
+            while ((long) ((width + res - 1) / res) * ((height + res - 1) / res) > MAX_CELLS) res++;
+            int cols = (width + res - 1) / res, rows = (height + res - 1) / res;
+
+            int words = BitRows.words(cols);
+            long[] bits = new long[words * rows];
+            for (Shape s : shapes) {
+                if (res == 1 && s instanceof Rectangle r) fillRect(bits, words, cols, rows, r);
+                else fillShape(bits, words, cols, rows, res, s);
+            }
+            return new WaterMap(width, height, res, cols, rows, bits);
+        }
+
+        // the cells Java2D would fill for an integer rectangle at 1 px, without a raster
+        private static void fillRect(long[] bits, int words, int cols, int rows, Rectangle r) {
+            int c0 = Math.max(0, r.x), c1 = Math.min(cols, r.x + r.width) - 1;
+            int r0 = Math.max(0, r.y), r1 = Math.min(rows, r.y + r.height) - 1;
+            if (c0 > c1) return;
+            for (int row = r0; row <= r1; row++) BitRows.setRange(bits, row * words, c0, c1);
+        }
+
+        // Java2D fills cells whose centres are inside; only the shape's bounds are rasterised
+        private static void fillShape(long[] bits, int words, int cols, int rows, int res, Shape s) {
+            Rectangle b = s.getBounds();
+            int c0 = Math.max(0, Math.floorDiv(b.x, res) - 1), c1 = Math.min(cols, Math.floorDiv(b.x + b.width, res) + 2);
+            int r0 = Math.max(0, Math.floorDiv(b.y, res) - 1), r1 = Math.min(rows, Math.floorDiv(b.y + b.height, res) + 2);
+            if (c0 >= c1 || r0 >= r1) return;
+            BufferedImage raster = new BufferedImage(c1 - c0, r1 - r0, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = raster.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+                g.translate(-c0, -r0);
+                if (res > 1) g.scale(1.0 / res, 1.0 / res);
+                g.setColor(Color.WHITE);
+                g.fill(s);
+            } finally {
+                g.dispose();
+            }
+            byte[] px = ((DataBufferByte) raster.getRaster().getDataBuffer()).getData();
+            int stride = ((ComponentSampleModel) raster.getRaster().getSampleModel()).getScanlineStride();
+            for (int r = r0; r < r1; r++) {
+                int base = (r - r0) * stride - c0;
+                for (int c = c0; c < c1; c++) {
+                    if (px[base + c] != 0) bits[r * words + (c >>> 6)] |= 1L << c;
+                }
+            }
+        }
+    }
+
+    // -------- Queries --------
+
+    public boolean isWater(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return BitRows.get(bits, words, x / resolution, y / resolution);
+    }
+
+    /** True when any water lies in the box (parts outside the world count as land). */
+    public boolean overlaps(int x, int y, int w, int h) {
+        int x0 = Math.max(0, x), y0 = Math.max(0, y);
+        int x1 = Math.min(width, x + w), y1 = Math.min(height, y + h);
+        if (x0 >= x1 || y0 >= y1) return false;
+        return BitRows.any(bits, words, x0 / resolution, (x1 - 1) / resolution, y0 / resolution, (y1 - 1) / resolution);
+    }
+
+    /** {@link #overlaps} for the box grown by {@code margin} on every side (shrunk when negative). */
+    public boolean overlapsGrown(int x, int y, int w, int h, int margin) {
+        return overlaps(x - margin, y - margin, w + margin * 2, h + margin * 2);
+    }
+
+    /**
+     * Signed distance in pixels from (x, y) to the shoreline: positive on land, negative in the
+     * water. Very large when the world has no water (or nothing but).
+     */
+    public float distance(int x, int y) {
+        return shore[index(x, y)] / 4f;
+    }
+
+    public boolean hasWater() {
+        for (long b : bits) if (b != 0) return true;
+        return false;
+    }
+
+    /**
+     * Where a line cast from (x, y) lands: about {@code depth} px past the nearest shoreline,
+     * following the distance field downhill. Writes it to {@code out} and returns true, or
+     * returns false when there's no water to reach.
+     */
+    public boolean castPoint(int x, int y, int depth, Point out) {
+        if (isWater(x, y)) {
+            out.setLocation(x, y);
+            return true;
+        }
+        float d = Math.max(0, distance(x, y)); // 0 when (x, y) shares a field cell with the water
+        if (d >= Short.MAX_VALUE / 4f) return false;
+        int c = clampC(Math.floorDiv(x, shoreRes)), r = clampR(Math.floorDiv(y, shoreRes));
+        float gx = at(clampC(c + 1), r) - at(clampC(c - 1), r);
+        float gy = at(c, clampR(r + 1)) - at(c, clampR(r - 1));
+        float len = (float) Math.sqrt(gx * gx + gy * gy);
+        if (len == 0) return false;
+        gx /= len;
+        gy /= len;
+        for (float t = d + depth; t >= 0; t -= resolution) { // back off if the water is narrower than depth
+            int tx = Math.round(x - gx * t), ty = Math.round(y - gy * t);
+            if (isWater(tx, ty)) {
+                out.setLocation(tx, ty);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private float at(int c, int r) { return shore[r * shoreCols + c]; }
+
+    private int index(int x, int y) {
+        return clampR(Math.floorDiv(y, shoreRes)) * shoreCols + clampC(Math.floorDiv(x, shoreRes));
+    }
+
+    // distance-field cells
+    private int clampC(int c) { return Math.max(0, Math.min(shoreCols - 1, c)); }
+    private int clampR(int r) { return Math.max(0, Math.min(shoreRows - 1, r)); }
+}
@@ -1,5 +1,7 @@
 package map;
 
+import render.TextureAtlas;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -10,11 +12,28 @@ public class WorldObject {
     public final int y;
     public final Rectangle collider; 
 
+    // when packed: the atlas page and where the sprite sits on it (image is then a view of that rect)
+    public final BufferedImage atlas;
+    public final int srcX, srcY;
+
     public WorldObject(BufferedImage image, int x, int y, Rectangle collider) {
         this.image = image;
         this.x = x;
         this.y = y;
         this.collider = collider;
+        this.atlas = null;
+        this.srcX = 0;
+        this.srcY = 0;
+    }
+
+    public WorldObject(TextureAtlas.Region region, int x, int y, Rectangle collider) {
+        this.image = region.subimage();
+        this.x = x;
+        this.y = y;
+        this.collider = collider;
+        this.atlas = region.page;
+        this.srcX = region.x;
+        this.srcY = region.y;
     }
 
     public int footY() {
@@ -22,6 +41,11 @@ public class WorldObject {
     }
 
     public void draw(Graphics2D g) {
-        g.drawImage(image, x, y, null);
+        if (atlas != null) {
+            int w = image.getWidth(), h = image.getHeight();
+            g.drawImage(atlas, x, y, x + w, y + h, srcX, srcY, srcX + w, srcY + h, null);
+        } else {
+            g.drawImage(image, x, y, null);
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,13 +7,17 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
 import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+
+import render.RetainedLayer;
 
 public class QuestManager {
     private QuestDef def;
@@ -24,6 +28,11 @@ public class QuestManager {
     private final Rectangle panelBounds = new Rectangle();
     private final Rectangle toggleBounds = new Rectangle();
     private boolean collapsed = false;
+    private boolean translucentBackground = true;
+    private Layout layout; // EDT only
+    // bumped whenever the panel would draw differently; progress moves on the simulation thread,
+    // clicks and quality changes on the EDT
+    private final AtomicInteger version = new AtomicInteger();
 
     public static class GoalPayout {
         public final String goalId;
@@ -63,6 +72,7 @@ public class QuestManager {
             q.goals.add(gd);
         }
         def = q;
+        version.incrementAndGet();
     }
 
     public QuestDef getDef() { return def; }
@@ -74,6 +84,7 @@ public class QuestManager {
             if (!"catch_count".equalsIgnoreCase(g.type)) continue;
             if (matchFilter(g.filter, fishName, golden)) {
                 progress.add(g.id, 1, g.target);
+                version.incrementAndGet();
             }
         }
     }
@@ -92,79 +103,163 @@ public class QuestManager {
         return list;
     }
 
-    public void draw(Graphics2D g2d, int screenW, int screenH) {
-        if (def == null) return;
-
-        double sW = screenW / 1400.0;
-        double sH = screenH / 800.0;
-        double s = Math.min(sW, sH);
-        if (s < 0.75) s = 0.75;
-        if (s > 1.5) s = 1.5;
-
-        int width = round(300 * s);
-        int pad = round(10 * s);
-        int headerH = round(10 * s);
-
-        int titleFontPx = clamp(round(12 * s), 10, 22);
-        int goalFontPx = clamp(round(13 * s), 10, 22);
-        Font titleFont = new Font("Arial", Font.BOLD, titleFontPx);
-        Font goalFont = new Font("Arial", Font.BOLD, goalFontPx);
-
-        int anchorY = (int) (screenH * 0.815) - round(10 * s);
-
-        int toggleW = clamp(round(24 * s), 18, 36);
-        int gap = clamp(round(6 * s), 4, 12);
-        int gutterW = toggleW + gap;
-
-        int contentWidth = width - pad - gutterW - pad;
+    /** Low quality tiers draw the panel on an opaque backdrop, which is cheaper to composite. */
+    public void setTranslucentBackground(boolean translucent) {
+        if (translucent != translucentBackground) version.incrementAndGet();
+        this.translucentBackground = translucent;
+    }
 
-        g2d.setFont(goalFont);
-        FontMetrics goalFM = g2d.getFontMetrics();
-        int checkSize = clamp(round(18 * s), 12, 28);
-        int textGap = clamp(round(8 * s), 6, 14);
-        int lineStep = clamp(round(20 * s), 14, 28);
-        int afterTitleSpace = clamp(round(8 * s), 6, 12);
-        int betweenGoals = clamp(round(6 * s), 4, 10);
+    public int getVersion() { return version.get(); }
 
-        int contentH = pad;
-        g2d.setFont(titleFont);
-        FontMetrics titleFM = g2d.getFontMetrics();
-        int titleHeight = titleFM.getAscent();
-        contentH += titleHeight + afterTitleSpace;
+    /** Screen area the panel can cover at this size (expanded or collapsed), for partial repaints. */
+    public Rectangle damageBounds(int screenW, int screenH) {
+        double s = Math.max(0.75, Math.min(1.5, Math.min(screenW / 1400.0, screenH / 800.0)));
+        int left = (int) (screenW * 0.985) - round(300 * s);
+        Rectangle r = new Rectangle(left, 0, screenW - left, (int) (screenH * 0.815));
+        if (!panelBounds.isEmpty()) r.add(panelBounds);
+        if (!toggleBounds.isEmpty()) r.add(toggleBounds);
+        return r;
+    }
 
-        int perLineTextWidth = Math.max(20, contentWidth - checkSize - textGap);
+    public void draw(Graphics2D g2d, int screenW, int screenH) {
+        draw(g2d, screenW, screenH, progress);
+    }
 
-        List<List<String>> wrappedPerGoal = new ArrayList<>();
-        List<Integer> blockHeights = new ArrayList<>();
+    /**
+     * Draws against {@code shown}, e.g. a snapshot's copy, instead of the live progress. The
+     * panel is laid out and painted once per (screen size, progress version, collapsed state,
+     * backdrop, font rendering context) and blitted from a retained image in between.
+     */
+    public void draw(Graphics2D g2d, int screenW, int screenH, QuestProgress shown) {
+        if (def == null) return;
+        FontRenderContext frc = g2d.getFontRenderContext();
+        Layout l = layout;
+        if (l == null || !l.matches(def, screenW, screenH, shown.getVersion(), collapsed, translucentBackground, frc)) {
+            l = new Layout(g2d, def, screenW, screenH, shown, collapsed, translucentBackground);
+            layout = l;
+        }
+        panelBounds.setBounds(l.panel);
+        toggleBounds.setBounds(l.toggle);
+        Layout drawn = l;
+        l.layer.draw(g2d, 0, g -> paint(g, drawn, shown));
+    }
 
-        for (QuestModels.GoalDef g : def.goals) {
-            String base = buildGoalText(g);
-            List<String> lines = wrapText(base, goalFM, perLineTextWidth);
-            int blockH = Math.max(checkSize, lines.size() * lineStep);
-            wrappedPerGoal.add(lines);
-            blockHeights.add(blockH);
-            contentH += blockH + betweenGoals;
+    /** Everything about the panel that depends only on its key: geometry, wrapped lines and their glyphs. */
+    private static final class Layout {
+        final QuestDef def;
+        final int screenW, screenH, progressVersion;
+        final boolean collapsed, translucent;
+        final FontRenderContext frc;
+
+        final double s;
+        final Rectangle panel = new Rectangle();
+        final Rectangle toggle = new Rectangle();
+        final int pad, checkSize, textGap, lineStep, afterTitleSpace, betweenGoals, gutterW, radius;
+        final GlyphVector title;
+        final int titleAscent, goalAscent;
+        final List<GlyphVector[]> goalLines = new ArrayList<>();
+        final int[] blockHeights;
+        final RetainedLayer layer;
+
+        Layout(Graphics2D g2d, QuestDef def, int screenW, int screenH, QuestProgress shown, boolean collapsed,
+               boolean translucent) {
+            FontRenderContext frc = g2d.getFontRenderContext();
+            this.def = def;
+            this.screenW = screenW;
+            this.screenH = screenH;
+            this.progressVersion = shown.getVersion();
+            this.collapsed = collapsed;
+            this.translucent = translucent;
+            this.frc = frc;
+
+            double sW = screenW / 1400.0;
+            double sH = screenH / 800.0;
+            double s = Math.min(sW, sH);
+            if (s < 0.75) s = 0.75;
+            if (s > 1.5) s = 1.5;
+            this.s = s;
+
+            int width = round(300 * s);
+            pad = round(10 * s);
+
+            int titleFontPx = clamp(round(12 * s), 10, 22);
+            int goalFontPx = clamp(round(13 * s), 10, 22);
+            Font titleFont = new Font("Arial", Font.BOLD, titleFontPx);
+            Font goalFont = new Font("Arial", Font.BOLD, goalFontPx);
+
+            int anchorY = (int) (screenH * 0.815) - round(10 * s);
+
+            int toggleW = clamp(round(24 * s), 18, 36);
+            int gap = clamp(round(6 * s), 4, 12);
+            gutterW = toggleW + gap;
+
+            int contentWidth = width - pad - gutterW - pad;
+
+            checkSize = clamp(round(18 * s), 12, 28);
+            textGap = clamp(round(8 * s), 6, 14);
+            lineStep = clamp(round(20 * s), 14, 28);
+            afterTitleSpace = clamp(round(8 * s), 6, 12);
+            betweenGoals = clamp(round(6 * s), 4, 10);
+            radius = round(10 * s);
+
+            titleAscent = g2d.getFontMetrics(titleFont).getAscent();
+            goalAscent = g2d.getFontMetrics(goalFont).getAscent();
+            title = titleFont.createGlyphVector(frc, def.title);
+
+            int contentH = pad + titleAscent + afterTitleSpace;
+            int perLineTextWidth = Math.max(20, contentWidth - checkSize - textGap);
+
+            blockHeights = new int[def.goals.size()];
+            for (int i = 0; i < def.goals.size(); i++) {
+                List<String> lines = wrapText(buildGoalText(def.goals.get(i), shown), goalFont, frc, perLineTextWidth);
+                GlyphVector[] glyphs = new GlyphVector[lines.size()];
+                for (int j = 0; j < glyphs.length; j++) glyphs[j] = goalFont.createGlyphVector(frc, lines.get(j));
+                goalLines.add(glyphs);
+                blockHeights[i] = Math.max(checkSize, lines.size() * lineStep);
+                contentH += blockHeights[i] + betweenGoals;
+            }
+            contentH += pad;
+
+            int yTop = anchorY - contentH;
+            Rectangle drawn;
+            if (collapsed) {
+                panel.setBounds(screenW, yTop, width, contentH);
+                toggle.setBounds(screenW - toggleW, yTop, toggleW, contentH);
+                drawn = toggle;
+            } else {
+                panel.setBounds((int) (screenW * 0.985) - width, yTop, width, contentH);
+                toggle.setBounds(panel.x, panel.y, toggleW, contentH);
+                drawn = panel;
+            }
+            // +1 for the outline stroke
+            layer = new RetainedLayer(new Rectangle(drawn.x, drawn.y, drawn.width + 1, drawn.height + 1));
         }
-        contentH += pad; 
 
-        int yTop = anchorY - contentH;
+        boolean matches(QuestDef def, int screenW, int screenH, int progressVersion, boolean collapsed,
+                        boolean translucent, FontRenderContext frc) {
+            return this.def == def && this.screenW == screenW && this.screenH == screenH
+                    && this.progressVersion == progressVersion && this.collapsed == collapsed
+                    && this.translucent == translucent && this.frc.equals(frc);
+        }
 
-        if (collapsed) {
-            panelBounds.setBounds(screenW, yTop, width, contentH);
-            int toggleX = screenW - toggleW;
-            int toggleY = yTop;
-            toggleBounds.setBounds(toggleX, toggleY, toggleW, contentH);
+        Color backdrop(int alpha) {
+            return translucent ? new Color(0, 0, 0, alpha) : new Color(28, 28, 32);
+        }
+    }
 
-            int radius = round(10 * s);
-            int arrowSize = clamp(round(6 * s), 4, 10);
+    private static void paint(Graphics2D g2d, Layout l, QuestProgress shown) {
+        double s = l.s;
+        int arrowSize = clamp(round(6 * s), 4, 10);
+        Rectangle toggle = l.toggle;
 
-            g2d.setColor(new Color(0, 0, 0, 90));
-            g2d.fillRoundRect(toggleBounds.x, toggleBounds.y, toggleBounds.width, toggleBounds.height, radius, radius);
+        if (l.collapsed) {
+            g2d.setColor(l.backdrop(90));
+            g2d.fillRoundRect(toggle.x, toggle.y, toggle.width, toggle.height, l.radius, l.radius);
             g2d.setColor(new Color(255, 255, 255, 140));
-            g2d.drawRoundRect(toggleBounds.x, toggleBounds.y, toggleBounds.width, toggleBounds.height, radius, radius);
+            g2d.drawRoundRect(toggle.x, toggle.y, toggle.width, toggle.height, l.radius, l.radius);
 
-            int cx = toggleBounds.x + toggleBounds.width / 2;
-            int cy = toggleBounds.y + toggleBounds.height / 2;
+            int cx = toggle.x + toggle.width / 2;
+            int cy = toggle.y + toggle.height / 2;
             Polygon leftArrow = new Polygon();
             leftArrow.addPoint(cx - arrowSize, cy);
             leftArrow.addPoint(cx + (int)Math.round(arrowSize * 0.7), cy - arrowSize);
@@ -174,27 +269,19 @@ public class QuestManager {
             return;
         }
 
-        int xExpanded = (int) (screenW * 0.985) - width;
-        panelBounds.setBounds(xExpanded, yTop, width, contentH);
-
-        int radius = round(10 * s);
-        g2d.setColor(new Color(0, 0, 0, 90));
-        g2d.fillRoundRect(panelBounds.x, panelBounds.y, panelBounds.width, panelBounds.height, radius, radius);
+        Rectangle panel = l.panel;
+        g2d.setColor(l.backdrop(90));
+        g2d.fillRoundRect(panel.x, panel.y, panel.width, panel.height, l.radius, l.radius);
         g2d.setColor(new Color(255, 255, 255, 180));
-        g2d.drawRoundRect(panelBounds.x, panelBounds.y, panelBounds.width, panelBounds.height, radius, radius);
+        g2d.drawRoundRect(panel.x, panel.y, panel.width, panel.height, l.radius, l.radius);
 
-        int toggleX = panelBounds.x;
-        int toggleY = panelBounds.y;
-        toggleBounds.setBounds(toggleX, toggleY, toggleW, contentH);
-
-        g2d.setColor(new Color(0, 0, 0, 110));
-        g2d.fillRoundRect(toggleBounds.x, toggleBounds.y, toggleBounds.width, toggleBounds.height, radius, radius);
+        g2d.setColor(l.backdrop(110));
+        g2d.fillRoundRect(toggle.x, toggle.y, toggle.width, toggle.height, l.radius, l.radius);
         g2d.setColor(new Color(255, 255, 255, 160));
-        g2d.drawRoundRect(toggleBounds.x, toggleBounds.y, toggleBounds.width, toggleBounds.height, radius, radius);
+        g2d.drawRoundRect(toggle.x, toggle.y, toggle.width, toggle.height, l.radius, l.radius);
 
-        int arrowSize = clamp(round(6 * s), 4, 10);
-        int cx = toggleBounds.x + toggleBounds.width / 2;
-        int cy = toggleBounds.y + toggleBounds.height / 2;
+        int cx = toggle.x + toggle.width / 2;
+        int cy = toggle.y + toggle.height / 2;
         Polygon rightArrow = new Polygon();
         rightArrow.addPoint(cx + arrowSize, cy);
         rightArrow.addPoint(cx - (int)Math.round(arrowSize * 0.7), cy - arrowSize);
@@ -202,39 +289,38 @@ public class QuestManager {
         g2d.setColor(new Color(255, 255, 255, 200));
         g2d.fillPolygon(rightArrow);
 
-        int contentX = panelBounds.x + pad + gutterW;
-        int textX = contentX + checkSize + textGap;
+        int contentX = panel.x + l.pad + l.gutterW;
+        int textX = contentX + l.checkSize + l.textGap;
 
-        g2d.setFont(titleFont);
         g2d.setColor(new Color(230, 230, 230));
-        g2d.drawString(def.title, contentX, panelBounds.y + pad + titleFM.getAscent());
+        g2d.drawGlyphVector(l.title, contentX, panel.y + l.pad + l.titleAscent);
 
-        g2d.setFont(goalFont);
-        int yCursor = panelBounds.y + pad + titleHeight + afterTitleSpace;
-        for (int idx = 0; idx < def.goals.size(); idx++) {
-            List<String> lines = wrappedPerGoal.get(idx);
-            int blockH = blockHeights.get(idx);
+        int yCursor = panel.y + l.pad + l.titleAscent + l.afterTitleSpace;
+        int checkRadius = clamp(round(6 * s), 4, 10);
+        for (int idx = 0; idx < l.def.goals.size(); idx++) {
+            int blockH = l.blockHeights[idx];
 
-            int checkY = yCursor + Math.max(0, (blockH - checkSize) / 2);
-            g2d.setColor(progress.isCompleted(def.goals.get(idx).id)
+            int checkY = yCursor + Math.max(0, (blockH - l.checkSize) / 2);
+            g2d.setColor(shown.isCompleted(l.def.goals.get(idx).id)
                     ? new Color(125, 255, 50, 200)
                     : new Color(255, 255, 255, 80));
-            g2d.fillRoundRect(contentX, checkY, checkSize, checkSize, clamp(round(6 * s), 4, 10), clamp(round(6 * s), 4, 10));
+            g2d.fillRoundRect(contentX, checkY, l.checkSize, l.checkSize, checkRadius, checkRadius);
 
             g2d.setColor(Color.WHITE);
-            int lineY = yCursor + goalFM.getAscent();
-            for (String ln : lines) {
-                g2d.drawString(ln, textX, lineY);
-                lineY += lineStep;
+            int lineY = yCursor + l.goalAscent;
+            for (GlyphVector ln : l.goalLines.get(idx)) {
+                g2d.drawGlyphVector(ln, textX, lineY);
+                lineY += l.lineStep;
             }
 
-            yCursor += blockH + betweenGoals;
+            yCursor += blockH + l.betweenGoals;
         }
     }
 
     public boolean handleClick(int mx, int my) {
         if (toggleBounds.contains(mx, my)) {
             collapsed = !collapsed;
+            version.incrementAndGet();
             return true;
         }
         return false;
@@ -294,8 +380,8 @@ public class QuestManager {
     private static int round(double v) { return (int)Math.round(v); }
     private static int clamp(int v, int lo, int hi) { return Math.max(lo, Math.min(hi, v)); }
 
-    private String buildGoalText(QuestModels.GoalDef g) {
-        int cur = progress.get(g.id);
+    private static String buildGoalText(QuestModels.GoalDef g, QuestProgress shown) {
+        int cur = shown.get(g.id);
         String base = g.text;
         if ("catch_count".equalsIgnoreCase(g.type) && g.target > 0) {
             base += " (" + Math.min(cur, g.target) + "/" + g.target + ")";
@@ -310,7 +396,7 @@ public class QuestManager {
         return base;
     }
 
-    private static List<String> wrapText(String text, FontMetrics fm, int maxWidth) {
+    private static List<String> wrapText(String text, Font font, FontRenderContext frc, int maxWidth) {
         List<String> lines = new ArrayList<>();
         if (text == null || text.isEmpty()) {
             lines.add("");
@@ -320,7 +406,7 @@ public class QuestManager {
         StringBuilder cur = new StringBuilder();
         for (String w : words) {
             String candidate = cur.length() == 0 ? w : cur + " " + w;
-            if (fm.stringWidth(candidate) <= maxWidth) {
+            if (width(font, frc, candidate) <= maxWidth) {
                 cur.setLength(0);
                 cur.append(candidate);
             } else {
@@ -329,25 +415,27 @@ public class QuestManager {
                     cur.setLength(0);
                 }
 
-                if (fm.stringWidth(w) > maxWidth) {
-                    int start = 0;
-                    while (start < w.length()) {
-                        int end = start + 1;
-
-                        while (end <= w.length() && fm.stringWidth(w.substring(start, end)) <= maxWidth) {
-                            end++;
-                        }
-                        // ถอย 1 ตำแหน่งเพราะ end เกิน
-                        end = Math.max(start + 1, end - 1);
-                        lines.add(w.substring(start, end));
-                        start = end;
+                // a word wider than a line is cut at the longest prefix that fits (binary search
+                // rather than measuring every prefix); the last piece starts the next line
+                int start = 0;
+                while (width(font, frc, w.substring(start)) > maxWidth) {
+                    int lo = start + 1, hi = w.length() - 1;
+                    while (lo < hi) {
+                        int mid = (lo + hi + 1) >>> 1;
+                        if (width(font, frc, w.substring(start, mid)) <= maxWidth) lo = mid;
+                        else hi = mid - 1;
                     }
-
-                    cur.append(w);
+                    lines.add(w.substring(start, lo));
+                    start = lo;
                 }
+                cur.append(w, start, w.length());
             }
         }
         if (cur.length() > 0) lines.add(cur.toString());
         return lines;
     }
-}
\ No newline at end of file
+
+    private static double width(Font font, FontRenderContext frc, String text) {
+        return font.getStringBounds(text, frc).getWidth();
+    }
+}
@@ -24,6 +24,7 @@ public class QuestModels {
     public static class QuestProgress {
         public final Map<String, Integer> counters = new HashMap<>();
         public final Set<String> completed = new HashSet<>();
+        private int version;
 
         public int get(String goalId) { return counters.getOrDefault(goalId, 0); }
 
@@ -32,8 +33,20 @@ public class QuestModels {
             if (v < 0) v = 0;
             counters.put(goalId, v);
             if (target > 0 && v >= target) completed.add(goalId);
+            version++;
         }
 
+        /** Bumped on every change; copies keep it, so two copies with the same version show the same progress. */
+        public int getVersion() { return version; }
+
         public boolean isCompleted(String goalId) { return completed.contains(goalId); }
+
+        public QuestProgress copy() {
+            QuestProgress p = new QuestProgress();
+            p.counters.putAll(counters);
+            p.completed.addAll(completed);
+            p.version = version;
+            return p;
+        }
     }
 }
\ No newline at end of file
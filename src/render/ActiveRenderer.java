@@ -0,0 +1,72 @@
+package render;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+/**
+ * Active rendering onto a heavyweight {@link Canvas} through a page-flipping
+ * {@link BufferStrategy}. The game loop calls {@link #render} every frame; nothing
+ * goes through the RepaintManager. Falls back to blitting when the pipeline
+ * cannot flip (AWT picks this inside createBufferStrategy).
+ */
+public final class ActiveRenderer {
+
+    private final Canvas canvas;
+    private final int buffers;
+    private BufferStrategy strategy;
+
+    public ActiveRenderer(Color background, int buffers) {
+        this.buffers = Math.max(2, Math.min(3, buffers));
+        canvas = new Canvas();
+        canvas.setBackground(background);
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+    }
+
+    public Canvas getCanvas() { return canvas; }
+
+    public boolean isPageFlipping() {
+        BufferStrategy bs = strategy;
+        return bs != null && bs.getCapabilities().isPageFlipping();
+    }
+
+    /**
+     * Draws and shows one frame. Returns false when the canvas can't take a frame
+     * right now (not on screen yet, or the strategy went away with its peer).
+     */
+    public boolean render(Consumer<Graphics2D> painter) {
+        if (!canvas.isDisplayable() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return false;
+        try {
+            if (strategy == null || canvas.getBufferStrategy() != strategy) {
+                canvas.createBufferStrategy(buffers);
+                strategy = canvas.getBufferStrategy();
+                System.out.println("🖥️ BufferStrategy: " + buffers + " buffers, "
+                        + (isPageFlipping() ? "page flipping" : "blit"));
+            }
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        g.setColor(canvas.getBackground());
+                        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                        painter.accept(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+            return true;
+        } catch (IllegalStateException e) {
+            strategy = null;
+            return false;
+        }
+    }
+
+    public void dispose() {
+        if (strategy != null) strategy.dispose();
+        strategy = null;
+    }
+}
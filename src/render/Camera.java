@@ -0,0 +1,54 @@
+package render;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * Viewport onto a world that may be larger than the window. Follows a point (the player),
+ * centred but clamped so the view never leaves the world; a world smaller than the view stays
+ * pinned at the origin. World to screen is a plain translation by (-x, -y).
+ *
+ * EDT/render thread only.
+ */
+public final class Camera {
+
+    private final int viewW, viewH;
+    private int worldW, worldH;
+    private int x, y;
+
+    public Camera(int viewW, int viewH) {
+        this.viewW = viewW;
+        this.viewH = viewH;
+        this.worldW = viewW;
+        this.worldH = viewH;
+    }
+
+    public void setWorldSize(int w, int h) {
+        worldW = w;
+        worldH = h;
+    }
+
+    public void follow(int targetX, int targetY) {
+        x = clamp(targetX - viewW / 2, worldW - viewW);
+        y = clamp(targetY - viewH / 2, worldH - viewH);
+    }
+
+    private static int clamp(int v, int max) {
+        return Math.max(0, Math.min(max, v));
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+
+    /** The visible part of the world, in world coordinates. */
+    public Rectangle view() { return new Rectangle(x, y, viewW, viewH); }
+
+    public Rectangle toScreen(Rectangle world) {
+        return world == null ? null : new Rectangle(world.x - x, world.y - y, world.width, world.height);
+    }
+
+    /** Makes {@code g} draw in world coordinates; undo with {@link #end}. */
+    public void begin(Graphics2D g) { g.translate(-x, -y); }
+
+    public void end(Graphics2D g) { g.translate(x, y); }
+}
@@ -0,0 +1,88 @@
+package render;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A static layer of unbounded size drawn as fixed-size square chunks in world coordinates.
+ * Chunks are painted on first sight by the caller's painter (which gets the chunk's region and
+ * a Graphics already translated to it) and kept in a least-recently-used cache, so memory and
+ * per-frame cost follow the viewport rather than the map. Each chunk is drawn from a
+ * {@link VolatileSurface}, so on screen it comes from video memory and survives lost surfaces.
+ *
+ * EDT/render thread only.
+ */
+public final class ChunkCache {
+
+    private final int chunkSize;
+    private final int maxChunks;
+    private final int transparency;
+    private final BiConsumer<Graphics2D, Rectangle> painter;
+    private final LinkedHashMap<Long, VolatileSurface> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private VolatileSurface spare; // last evicted chunk, reused (image and video memory) for the next one
+
+    public ChunkCache(int chunkSize, int maxChunks, int transparency, BiConsumer<Graphics2D, Rectangle> painter) {
+        this.chunkSize = chunkSize;
+        this.maxChunks = Math.max(1, maxChunks);
+        this.transparency = transparency;
+        this.painter = painter;
+    }
+
+    /** Chunks needed to cover a {@code viewW} x {@code viewH} view at any offset, twice over for scrolling. */
+    public static int capacityFor(int viewW, int viewH, int chunkSize) {
+        return 2 * ((viewW + chunkSize - 1) / chunkSize + 1) * ((viewH + chunkSize - 1) / chunkSize + 1);
+    }
+
+    public int cachedChunks() { return chunks.size(); }
+
+    public void invalidate() {
+        for (VolatileSurface chunk : chunks.values()) chunk.dispose();
+        if (spare != null) spare.dispose();
+        chunks.clear();
+        spare = null;
+    }
+
+    /** Draws the chunks overlapping {@code view}; {@code g} must already map world to screen. */
+    public void draw(Graphics2D g, Rectangle view) {
+        int c0 = Math.floorDiv(view.x, chunkSize), c1 = Math.floorDiv(view.x + view.width - 1, chunkSize);
+        int r0 = Math.floorDiv(view.y, chunkSize), r1 = Math.floorDiv(view.y + view.height - 1, chunkSize);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                chunk(c, r).draw(g, c * chunkSize, r * chunkSize);
+            }
+        }
+    }
+
+    private VolatileSurface chunk(int col, int row) {
+        long key = ((long) col << 32) | (row & 0xffffffffL);
+        VolatileSurface chunk = chunks.get(key);
+        if (chunk != null) return chunk;
+
+        if (chunks.size() >= maxChunks) {
+            Iterator<Map.Entry<Long, VolatileSurface>> eldest = chunks.entrySet().iterator();
+            spare = eldest.next().getValue();
+            eldest.remove();
+        }
+        chunk = spare != null ? spare : new VolatileSurface(Images.create(chunkSize, chunkSize, transparency));
+        spare = null;
+
+        Graphics2D g = chunk.getSource().createGraphics();
+        try {
+            if (transparency != Transparency.OPAQUE) {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(0, 0, chunkSize, chunkSize);
+                g.setComposite(AlphaComposite.SrcOver);
+            }
+            g.translate(-col * chunkSize, -row * chunkSize);
+            painter.accept(g, new Rectangle(col * chunkSize, row * chunkSize, chunkSize, chunkSize));
+        } finally {
+            g.dispose();
+        }
+        chunk.sourceChanged();
+        chunks.put(key, chunk);
+        return chunk;
+    }
+}
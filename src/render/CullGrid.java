@@ -0,0 +1,89 @@
+package render;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Uniform grid over a fixed set of rectangles (sprite bounds in world coordinates) for finding
+ * the ones a viewport can see. Each rectangle is binned once, by its top-left corner, and a
+ * query widens the viewport by the largest rectangle's size, so no index is reported twice and
+ * no scratch marks are needed. Indices come back ascending, which keeps a caller's draw order.
+ *
+ * Immutable; {@link #query} writes into the caller's array and allocates nothing.
+ */
+public final class CullGrid {
+
+    private static final int CELL = 256;
+
+    private final int[] x, y, w, h;
+    private final int maxW, maxH;
+    private final int gridX, gridY, cols, rows;
+    private final int[] cellStart, cellItems;
+
+    public CullGrid(int[] x, int[] y, int[] w, int[] h) {
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        int n = x.length;
+
+        int minX = 0, minY = 0, maxX = 1, maxY = 1, mw = 0, mh = 0;
+        if (n > 0) {
+            minX = minY = Integer.MAX_VALUE;
+            maxX = maxY = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i] + 1);
+                maxY = Math.max(maxY, y[i] + 1);
+                mw = Math.max(mw, w[i]);
+                mh = Math.max(mh, h[i]);
+            }
+        }
+        maxW = mw;
+        maxH = mh;
+        gridX = minX;
+        gridY = minY;
+        cols = Math.max(1, Math.floorDiv(maxX - 1 - minX, CELL) + 1);
+        rows = Math.max(1, Math.floorDiv(maxY - 1 - minY, CELL) + 1);
+
+        cellStart = new int[cols * rows + 1];
+        for (int i = 0; i < n; i++) cellStart[cellOf(x[i], y[i]) + 1]++;
+        for (int k = 1; k < cellStart.length; k++) cellStart[k] += cellStart[k - 1];
+        cellItems = new int[n];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < n; i++) cellItems[fill[cellOf(x[i], y[i])]++] = i; // ascending per cell
+    }
+
+    private int cellOf(int px, int py) { return rowOf(py) * cols + colOf(px); }
+    private int colOf(int px) { return Math.max(0, Math.min(cols - 1, Math.floorDiv(px - gridX, CELL))); }
+    private int rowOf(int py) { return Math.max(0, Math.min(rows - 1, Math.floorDiv(py - gridY, CELL))); }
+
+    public int size() { return x.length; }
+
+    /**
+     * Writes the indices of rectangles overlapping {@code view} into {@code out} (ascending) and
+     * returns how many; {@code out} must hold {@link #size()} ints.
+     */
+    public int query(Rectangle view, int[] out) {
+        int n = 0;
+        if (x.length == 0 || view.width <= 0 || view.height <= 0) return 0;
+        // a rectangle overlapping view has its corner in [view.x - maxW, view.x + view.width)
+        int qx0 = view.x - maxW, qy0 = view.y - maxH;
+        int qx1 = view.x + view.width - 1, qy1 = view.y + view.height - 1;
+        if (qx1 < gridX || qy1 < gridY || qx0 >= gridX + cols * CELL || qy0 >= gridY + rows * CELL) return 0;
+        int c0 = colOf(qx0), c1 = colOf(qx1), r0 = rowOf(qy0), r1 = rowOf(qy1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    if (x[i] < view.x + view.width && view.x < x[i] + w[i]
+                            && y[i] < view.y + view.height && view.y < y[i] + h[i]) out[n++] = i;
+                }
+            }
+        }
+        Arrays.sort(out, 0, n);
+        return n;
+    }
+}
@@ -0,0 +1,73 @@
+package render;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the screen regions that changed since the last frame. Overlapping or
+ * touching regions are merged; past a handful of separate regions they collapse into
+ * one union, since each region costs a separate paint pass.
+ */
+public final class DamageTracker {
+    private static final int MAX_REGIONS = 6;
+
+    private final Rectangle surface;
+    private final List<Rectangle> regions = new ArrayList<>();
+    private boolean full = true;
+
+    public DamageTracker(int width, int height) {
+        this.surface = new Rectangle(0, 0, width, height);
+    }
+
+    public void addFull() {
+        full = true;
+    }
+
+    public void add(Rectangle r) {
+        if (r == null || full) return;
+        add(r.x, r.y, r.width, r.height);
+    }
+
+    public void add(int x, int y, int w, int h) {
+        if (full || w <= 0 || h <= 0) return;
+        Rectangle r = new Rectangle(x, y, w, h).intersection(surface);
+        if (r.isEmpty()) return;
+        for (int i = 0; i < regions.size(); i++) {
+            Rectangle o = regions.get(i);
+            if (touches(o, r)) {
+                regions.remove(i);
+                r.add(o);
+                i = -1; // the grown rect may now reach others
+            }
+        }
+        regions.add(r);
+        if (regions.size() > MAX_REGIONS) {
+            Rectangle u = new Rectangle(regions.get(0));
+            for (Rectangle o : regions) u.add(o);
+            regions.clear();
+            regions.add(u);
+        }
+    }
+
+    public boolean isFull() { return full; }
+    public boolean isEmpty() { return !full && regions.isEmpty(); }
+
+    /** This frame's regions (the whole surface if a full redraw was requested); clears the tracker. */
+    public List<Rectangle> take() {
+        List<Rectangle> out;
+        if (full) {
+            out = List.of(new Rectangle(surface));
+        } else {
+            out = new ArrayList<>(regions);
+        }
+        regions.clear();
+        full = false;
+        return out;
+    }
+
+    private static boolean touches(Rectangle a, Rectangle b) {
+        return a.x <= b.x + b.width && b.x <= a.x + a.width
+                && a.y <= b.y + b.height && b.y <= a.y + a.height;
+    }
+}
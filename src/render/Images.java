@@ -0,0 +1,99 @@
+package render;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Single place where decoded images are prepared for drawing. PNG decoding produces whatever
+ * raster layout the file used (palettes, 4-byte ABGR, gray+alpha...), and many of those miss
+ * Java2D's accelerated blit loops. {@link #toCompatible} redraws an image into the screen's
+ * own layout with the narrowest transparency its pixels need, which also lets Java2D cache it
+ * in video memory as a managed image.
+ *
+ * Headless (servers, the HeadlessRunner) falls back to plain INT RGB/ARGB_PRE images.
+ */
+public final class Images {
+
+    private Images() {}
+
+    /** {@link ImageIO#read} + {@link #toCompatible}; null if the file can't be decoded. */
+    public static BufferedImage read(File f) throws IOException {
+        BufferedImage img = ImageIO.read(f);
+        return img != null ? toCompatible(img) : null;
+    }
+
+    public static BufferedImage toCompatible(BufferedImage src) {
+        if (src == null) return null;
+        int transparency = transparencyOf(src);
+        GraphicsConfiguration gc = screenConfig();
+        if (gc != null) {
+            if (src.getColorModel().equals(gc.getColorModel(transparency))) return src;
+            BufferedImage dst = gc.createCompatibleImage(src.getWidth(), src.getHeight(), transparency);
+            copy(src, dst);
+            return dst;
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+        if (src.getType() == type) return src;
+        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), type);
+        copy(src, dst);
+        return dst;
+    }
+
+    /** Blank image in the screen's layout (or INT RGB/ARGB_PRE headless). */
+    public static BufferedImage create(int w, int h, int transparency) {
+        GraphicsConfiguration gc = screenConfig();
+        if (gc != null) return gc.createCompatibleImage(w, h, transparency);
+        return new BufferedImage(w, h, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * OPAQUE when every pixel is fully opaque, BITMASK when alpha is only ever 0 or 255,
+     * TRANSLUCENT otherwise. Reads the alpha band a row at a time and stops at the first
+     * partially transparent pixel.
+     */
+    public static int transparencyOf(BufferedImage img) {
+        if (!img.getColorModel().hasAlpha()) return Transparency.OPAQUE;
+        int w = img.getWidth(), h = img.getHeight();
+        int[] row = new int[w];
+        boolean sawClear = false;
+        Raster alpha = img.getAlphaRaster();
+        for (int y = 0; y < h; y++) {
+            if (alpha != null) {
+                alpha.getSamples(alpha.getMinX(), alpha.getMinY() + y, w, 1, 0, row);
+            } else {
+                img.getRGB(0, y, w, 1, row, 0, w);
+                for (int x = 0; x < w; x++) row[x] >>>= 24;
+            }
+            for (int x = 0; x < w; x++) {
+                int a = row[x];
+                if (a == 0) sawClear = true;
+                else if (a != 255) return Transparency.TRANSLUCENT;
+            }
+        }
+        return sawClear ? Transparency.BITMASK : Transparency.OPAQUE;
+    }
+
+    /** The default screen's configuration, or null when there is no display. */
+    public static GraphicsConfiguration screenConfig() {
+        if (GraphicsEnvironment.isHeadless()) return null;
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        } catch (HeadlessException e) {
+            return null;
+        }
+    }
+
+    private static void copy(BufferedImage src, BufferedImage dst) {
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(src, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+    }
+}
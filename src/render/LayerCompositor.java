@@ -0,0 +1,106 @@
+package render;
+
+import map.DrawList;
+import map.Ground;
+import map.WorldObject;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a map into the parts that never change relative to the player and the rest. The
+ * static part is the ground, the wave row and every prop that is always drawn behind the
+ * player: its foot is above the highest foot position the player can reach, or it can't
+ * overlap the player's sprite anywhere in the walkable region nor any still-dynamic prop drawn
+ * before it. Everything else stays in {@link Baked#dynamic} and is drawn around the player each
+ * frame as before.
+ *
+ * The static part is painted per region ({@link Baked#paint}), so callers can cache it in
+ * chunks (see {@link ChunkCache}) instead of one image the size of the world. Callers keep the
+ * result until the world, the wave setting or the player's sprite size changes.
+ */
+public final class LayerCompositor {
+
+    public static final class Baked {
+        public final DrawList behind;
+        public final DrawList dynamic;
+        public final int bakedProps;
+
+        private final int width, height;
+        private final Color background;
+        private final Ground ground;
+        private final BufferedImage waveTile;
+        private final int waveY;
+        private final int[] visible;
+
+        private Baked(int width, int height, Color background, Ground ground, BufferedImage waveTile, int waveY,
+                      DrawList behind, DrawList dynamic) {
+            this.width = width;
+            this.height = height;
+            this.background = background;
+            this.ground = ground;
+            this.waveTile = waveTile;
+            this.waveY = waveY;
+            this.behind = behind;
+            this.dynamic = dynamic;
+            this.bakedProps = behind.size();
+            this.visible = new int[behind.size()];
+        }
+
+        /** Paints the static layer inside {@code region} (world coordinates). EDT/render thread only. */
+        public void paint(Graphics2D g, Rectangle region) {
+            Rectangle r = region.intersection(new Rectangle(0, 0, width, height));
+            if (r.isEmpty()) return;
+            g.setColor(background);
+            g.fillRect(r.x, r.y, r.width, r.height);
+            if (ground != null) ground.paint(g, r);
+            if (waveTile != null && waveY < r.y + r.height && waveY + waveTile.getHeight() > r.y) {
+                int tw = waveTile.getWidth();
+                for (int x = Math.floorDiv(r.x, tw) * tw; x < r.x + r.width && x < width; x += tw) {
+                    g.drawImage(waveTile, x, waveY, tw, waveTile.getHeight(), null);
+                }
+            }
+            int n = behind.visible(r, visible);
+            behind.draw(g, visible, 0, n);
+        }
+    }
+
+    private LayerCompositor() {}
+
+    /**
+     * @param width        world size; nothing is painted outside it
+     * @param walkableFeet foot positions the player can reach
+     * @param spriteOffset the player's sprite bounds relative to its foot position
+     * @param waveTile     tile repeated across the width at {@code waveY}, or null for none
+     */
+    public static Baked bake(int width, int height, Color background, Ground ground,
+                             BufferedImage waveTile, int waveY, DrawList props,
+                             Rectangle walkableFeet, Rectangle spriteOffset) {
+        Rectangle reach = new Rectangle(walkableFeet.x + spriteOffset.x, walkableFeet.y + spriteOffset.y,
+                walkableFeet.width + spriteOffset.width, walkableFeet.height + spriteOffset.height);
+
+        List<WorldObject> dynamic = new ArrayList<>();
+        List<Rectangle> dynamicBounds = new ArrayList<>();
+        List<WorldObject> baked = new ArrayList<>();
+        for (int i = 0; i < props.size(); i++) {
+            WorldObject o = props.get(i);
+            Rectangle b = new Rectangle(o.x, o.y, o.image.getWidth(), o.image.getHeight());
+            boolean behind = props.footY(i) < walkableFeet.y;
+            if (!behind && !b.intersects(reach)) {
+                behind = true;
+                for (Rectangle d : dynamicBounds) {
+                    if (d.intersects(b)) { behind = false; break; }
+                }
+            }
+            if (behind) {
+                baked.add(o);
+            } else {
+                dynamic.add(o);
+                dynamicBounds.add(b);
+            }
+        }
+        return new Baked(width, height, background, ground, waveTile, waveY, new DrawList(baked), new DrawList(dynamic));
+    }
+}
@@ -0,0 +1,310 @@
+package render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Short-lived effect particles (splashes, ripples, sparkles, coins). Particles live in
+ * preallocated parallel arrays, one slot per particle and no object each; a dead particle is
+ * replaced by the last live one, so the live ones are always slots 0..count-1. Emitting when
+ * full drops the new particles.
+ *
+ * {@link #update} and {@link #emit} belong to the loop thread. {@link #publish} copies what
+ * the renderer needs into one of three fixed buffers, and {@link #draw} (EDT) draws the newest
+ * published one, so neither thread waits for the other and nothing is allocated per frame.
+ * The sprites are drawn procedurally, once at every width up to {@code MAX_SIZE}, and packed
+ * into a {@link TextureAtlas}, so a particle is always a 1:1 copy from the atlas.
+ */
+public final class ParticleSystem {
+
+    public enum Kind {
+        DROP(1.0f, 520f, 1.6f),
+        RIPPLE(0.4f, 0f, 0f),
+        SPARKLE(1.0f, -30f, 1.0f),
+        COIN(1.0f, 600f, 0.4f);
+
+        final float aspect;  // drawn height / width
+        final float gravity; // px/s^2, positive is down
+        final float drag;    // fraction of velocity lost per second
+
+        Kind(float aspect, float gravity, float drag) {
+            this.aspect = aspect;
+            this.gravity = gravity;
+            this.drag = drag;
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final int MAX_SIZE = 96; // widths 1..MAX_SIZE are drawn ahead, so every draw is a 1:1 copy
+    private static final int ALPHA_LEVELS = 16;
+    private static final AlphaComposite[] ALPHA = new AlphaComposite[ALPHA_LEVELS + 1];
+    static {
+        for (int i = 0; i <= ALPHA_LEVELS; i++) ALPHA[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / (float) ALPHA_LEVELS);
+    }
+
+    private final int capacity;
+    private int count;
+    private final float[] x, y, vx, vy, age, life, size, grow;
+    private final byte[] kind;
+    private int seed = 0x2545F491;
+
+    // triple buffer: one view is written by the loop thread, one is drawn by the EDT, the third
+    // is the newest finished one; {@code middle} holds its index plus a bit saying the EDT hasn't seen it
+    private static final int FRESH = 4;
+    private final View[] views = new View[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0, front = 2;
+
+    private final TextureAtlas.Region[][] sprites = new TextureAtlas.Region[KINDS.length][MAX_SIZE + 1];
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new float[capacity];
+        life = new float[capacity];
+        size = new float[capacity];
+        grow = new float[capacity];
+        kind = new byte[capacity];
+        for (int i = 0; i < views.length; i++) views[i] = new View(capacity);
+
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (Kind k : KINDS) {
+            for (int w = 1; w <= MAX_SIZE; w++) images.put(k.name() + w, paintSprite(k, w, spriteHeight(k, w)));
+        }
+        TextureAtlas atlas = TextureAtlas.pack(images, 512, 1);
+        for (Kind k : KINDS) {
+            for (int w = 1; w <= MAX_SIZE; w++) sprites[k.ordinal()][w] = atlas.get(k.name() + w);
+        }
+    }
+
+    public int capacity() { return capacity; }
+    public int size() { return count; }
+
+    // -------- Loop thread --------
+
+    /**
+     * Adds one particle at (px, py) moving at (pvx, pvy) px/s, {@code width} px wide and growing
+     * by {@code growth} px/s, for {@code seconds}. Returns false when full.
+     */
+    public boolean emit(Kind k, float px, float py, float pvx, float pvy, float width, float growth, float seconds) {
+        if (count == capacity || seconds <= 0) return false;
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        age[i] = 0;
+        life[i] = seconds;
+        size[i] = width;
+        grow[i] = growth;
+        kind[i] = (byte) k.ordinal();
+        return true;
+    }
+
+    /** Droplets thrown up and out from (px, py). */
+    public void splash(float px, float py, int drops, float strength) {
+        for (int i = 0; i < drops; i++) {
+            float a = (float) Math.PI * (1.1f + 0.8f * rand()); // upward fan
+            float v = strength * (0.5f + 0.5f * rand());
+            emit(Kind.DROP, px + 6 * (rand() - 0.5f), py, (float) Math.cos(a) * v, (float) Math.sin(a) * v * 1.4f,
+                    3 + 3 * rand(), -2f, 0.45f + 0.35f * rand());
+        }
+    }
+
+    /** Rings spreading on the surface at (px, py), one after another. */
+    public void ripples(float px, float py, int rings) {
+        for (int i = 0; i < rings; i++) {
+            emit(Kind.RIPPLE, px, py, 0, 0, 6 + 10 * i, 46f, 0.9f + 0.25f * i);
+        }
+    }
+
+    /** Golden twinkles drifting up around (px, py) within {@code radius}. */
+    public void sparkle(float px, float py, int n, float radius) {
+        for (int i = 0; i < n; i++) {
+            emit(Kind.SPARKLE, px + radius * (2 * rand() - 1), py + radius * (2 * rand() - 1),
+                    12 * (rand() - 0.5f), -20 - 30 * rand(), 5 + 5 * rand(), -4f, 0.6f + 0.7f * rand());
+        }
+    }
+
+    /** Coins tossed up from (px, py). */
+    public void coins(float px, float py, int n) {
+        for (int i = 0; i < n; i++) {
+            emit(Kind.COIN, px, py, 140 * (rand() - 0.5f), -220 - 120 * rand(), 8, 0f, 0.7f + 0.3f * rand());
+        }
+    }
+
+    public void update(float dt) {
+        for (int i = 0; i < count; ) {
+            float a = age[i] + dt;
+            if (a >= life[i]) {
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                age[i] = age[last];
+                life[i] = life[last];
+                size[i] = size[last];
+                grow[i] = grow[last];
+                kind[i] = kind[last];
+                continue;
+            }
+            Kind k = KINDS[kind[i]];
+            float keep = Math.max(0f, 1f - k.drag * dt);
+            vx[i] *= keep;
+            vy[i] = vy[i] * keep + k.gravity * dt;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            size[i] = Math.max(1f, size[i] + grow[i] * dt);
+            age[i] = a;
+            i++;
+        }
+    }
+
+    public void clear() { count = 0; }
+
+    /** Hands the current particles to the renderer. */
+    public void publish() {
+        View v = views[back];
+        int n = count;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Kind k = KINDS[kind[i]];
+            float w = Math.min(MAX_SIZE, Math.round(size[i])), h = spriteHeight(k, (int) w);
+            float left = x[i] - w * 0.5f, top = y[i] - h * 0.5f;
+            v.x[i] = left;
+            v.y[i] = top;
+            v.w[i] = w;
+            v.h[i] = h;
+            v.kind[i] = kind[i];
+            float remaining = 1f - age[i] / life[i];
+            v.alpha[i] = (byte) Math.min(ALPHA_LEVELS, Math.round(Math.min(1f, remaining * 2.5f) * ALPHA_LEVELS));
+            minX = Math.min(minX, left);
+            minY = Math.min(minY, top);
+            maxX = Math.max(maxX, left + w);
+            maxY = Math.max(maxY, top + h);
+        }
+        v.count = n;
+        if (n > 0) {
+            v.bounds.setBounds((int) Math.floor(minX) - 1, (int) Math.floor(minY) - 1,
+                    (int) Math.ceil(maxX - minX) + 3, (int) Math.ceil(maxY - minY) + 3);
+        } else {
+            v.bounds.setBounds(0, 0, 0, 0);
+        }
+        back = middle.getAndSet(back | FRESH) & 3;
+    }
+
+    // -------- EDT --------
+
+    /** Takes the newest published particles, if any; returns the world area they cover (empty when none). */
+    public Rectangle acquire() {
+        if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & 3;
+        return views[front].bounds;
+    }
+
+    /** Draws the particles last {@link #acquire acquired} that overlap {@code view} (world coordinates). */
+    public void draw(Graphics2D g, Rectangle view) {
+        View v = views[front];
+        if (v.count == 0) return;
+        Composite saved = g.getComposite();
+        int level = -1;
+        float vx0 = view.x, vy0 = view.y, vx1 = view.x + view.width, vy1 = view.y + view.height;
+        for (int i = 0; i < v.count; i++) {
+            float px = v.x[i], py = v.y[i], w = v.w[i], h = v.h[i];
+            if (px >= vx1 || py >= vy1 || px + w <= vx0 || py + h <= vy0 || v.alpha[i] == 0) continue;
+            if (v.alpha[i] != level) {
+                level = v.alpha[i];
+                g.setComposite(ALPHA[level]);
+            }
+            TextureAtlas.Region r = sprites[v.kind[i]][(int) w];
+            int dx = Math.round(px), dy = Math.round(py);
+            g.drawImage(r.page, dx, dy, dx + r.w, dy + r.h, r.x, r.y, r.x + r.w, r.y + r.h, null);
+        }
+        g.setComposite(saved);
+    }
+
+    // xorshift: cosmetic randomness that never touches the game's own Random
+    private float rand() {
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return (s >>> 8) / (float) (1 << 24);
+    }
+
+    private static final class View {
+        final float[] x, y, w, h;
+        final byte[] kind, alpha;
+        final Rectangle bounds = new Rectangle();
+        int count;
+
+        View(int capacity) {
+            x = new float[capacity];
+            y = new float[capacity];
+            w = new float[capacity];
+            h = new float[capacity];
+            kind = new byte[capacity];
+            alpha = new byte[capacity];
+        }
+    }
+
+    private static int spriteHeight(Kind k, int w) {
+        return Math.max(1, Math.round(w * k.aspect));
+    }
+
+    private static BufferedImage paintSprite(Kind k, int w, int h) {
+        BufferedImage img = Images.create(w, h, Transparency.TRANSLUCENT);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            switch (k) {
+                case DROP -> {
+                    g.setColor(new Color(200, 235, 255));
+                    g.fillOval(0, 0, w, h);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(w / 5, h / 5, Math.max(1, w / 3), Math.max(1, h / 3));
+                }
+                case RIPPLE -> {
+                    g.setStroke(new BasicStroke(1.5f));
+                    g.setColor(new Color(230, 245, 255, 210));
+                    g.drawOval(1, 1, Math.max(1, w - 3), Math.max(1, h - 3));
+                }
+                case SPARKLE -> {
+                    float c = w / 2f, t = Math.max(0.5f, w / 9f);
+                    java.awt.geom.Path2D.Float star = new java.awt.geom.Path2D.Float();
+                    star.moveTo(c, 0);
+                    star.lineTo(c + t, c - t);
+                    star.lineTo(w, c);
+                    star.lineTo(c + t, c + t);
+                    star.lineTo(c, h);
+                    star.lineTo(c - t, c + t);
+                    star.lineTo(0, c);
+                    star.lineTo(c - t, c - t);
+                    star.closePath();
+                    g.setColor(new Color(255, 225, 90));
+                    g.fill(star);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(w / 2, h / 2, 1, 1);
+                }
+                case COIN -> {
+                    g.setColor(new Color(184, 134, 11));
+                    g.fillOval(0, 0, w, h);
+                    g.setColor(new Color(255, 215, 0));
+                    g.fillOval(w / 8, h / 8, w - w / 4, h - h / 4);
+                    g.setColor(new Color(255, 245, 180));
+                    g.fillRect(w * 3 / 8, h / 4, Math.max(1, w / 8), Math.max(1, h * 3 / 8));
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+}
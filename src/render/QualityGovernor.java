@@ -0,0 +1,168 @@
+package render;
+
+import util.Json;
+
+import java.awt.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks a rendering quality tier from measured paint time. Steps down one tier after a
+ * run of frames over budget and back up after a longer run with headroom, so a single
+ * hitch never flips the tier. Tiers come from {@code resources/config/quality.json}.
+ */
+public final class QualityGovernor {
+
+    public static final class Tier {
+        public final String name;
+        public final boolean antialias;
+        public final boolean waves;
+        public final boolean hudShadows;
+        public final boolean questTranslucent;
+
+        public Tier(String name, boolean antialias, boolean waves, boolean hudShadows, boolean questTranslucent) {
+            this.name = name;
+            this.antialias = antialias;
+            this.waves = waves;
+            this.hudShadows = hudShadows;
+            this.questTranslucent = questTranslucent;
+        }
+    }
+
+    private static final double EMA = 0.1;
+
+    private final List<Tier> tiers;
+    private double budgetMs;
+    private final double configuredBudgetMs;
+    private final double downAt, upAt;
+    private final int downAfter, upAfter;
+
+    private int index = 0;
+    private boolean pinned = false;
+    private double paintMs, frameMs;
+    private long lastFrameNanos;
+    private int overRun, underRun;
+
+    private QualityGovernor(List<Tier> tiers, double budgetMs, double downAt, double upAt, int downAfter, int upAfter) {
+        this.tiers = tiers;
+        this.configuredBudgetMs = budgetMs;
+        this.budgetMs = budgetMs;
+        this.downAt = downAt;
+        this.upAt = upAt;
+        this.downAfter = Math.max(1, downAfter);
+        this.upAfter = Math.max(1, upAfter);
+    }
+
+    /** Reads the tier table; falls back to a single full-quality tier if the file is missing. */
+    public static QualityGovernor load(String path) {
+        List<Tier> tiers = new ArrayList<>();
+        Map<String, Object> root = Map.of();
+        try {
+            Path p = Paths.get(path);
+            if (Files.exists(p)) root = Json.parseObject(new String(Files.readAllBytes(p), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            System.out.println("⚠️ quality config: " + e.getMessage());
+        }
+        if (root.get("tiers") instanceof List<?> list) {
+            for (Object o : list) {
+                if (!(o instanceof Map<?, ?> m)) continue;
+                tiers.add(new Tier(String.valueOf(m.get("name")),
+                        flag(m, "antialias"), flag(m, "waves"), flag(m, "hudShadows"), flag(m, "questTranslucent")));
+            }
+        }
+        if (tiers.isEmpty()) tiers.add(new Tier("high", true, true, true, true));
+        return new QualityGovernor(tiers,
+                num(root, "budgetMs", 0), num(root, "downAtBudget", 0.9), num(root, "upAtBudget", 0.5),
+                (int) num(root, "downAfterFrames", 20), (int) num(root, "upAfterFrames", 240));
+    }
+
+    private static boolean flag(Map<?, ?> m, String key) {
+        Object v = m.get(key);
+        return v == null || Boolean.TRUE.equals(v);
+    }
+
+    private static double num(Map<String, Object> m, String key, double def) {
+        return m.get(key) instanceof Number n ? n.doubleValue() : def;
+    }
+
+    /** Budget used when the config leaves budgetMs at 0 (normally 1000 / target fps). */
+    public void setDefaultBudgetMs(double ms) {
+        if (configuredBudgetMs <= 0) budgetMs = ms;
+    }
+
+    /** Holds the named tier and stops adapting; unknown names leave the governor automatic. */
+    public void pin(String name) {
+        for (int i = 0; i < tiers.size(); i++) {
+            if (tiers.get(i).name.equalsIgnoreCase(name)) {
+                index = i;
+                pinned = true;
+                return;
+            }
+        }
+    }
+
+    public Tier tier() { return tiers.get(index); }
+
+    /** Call once per presented frame with the time spent painting it. */
+    public void record(long paintNanos) {
+        record(paintNanos, true);
+    }
+
+    /**
+     * As {@link #record(long)}; {@code full} is false when only damaged regions were repainted.
+     * Such a frame says nothing about what a full one costs, so it can only count against the
+     * tier (when even it is over budget), never toward stepping up.
+     */
+    public void record(long paintNanos, boolean full) {
+        long now = System.nanoTime();
+        double p = paintNanos / 1e6;
+        if (full) paintMs = paintMs == 0 ? p : paintMs + (p - paintMs) * EMA;
+        if (lastFrameNanos != 0) {
+            double f = (now - lastFrameNanos) / 1e6;
+            frameMs = frameMs == 0 ? f : frameMs + (f - frameMs) * EMA;
+        }
+        lastFrameNanos = now;
+
+        if (pinned || budgetMs <= 0) return;
+        if (p > budgetMs * downAt) { overRun++; underRun = 0; }
+        else if (!full) return;
+        else if (p < budgetMs * upAt) { underRun++; overRun = 0; }
+        else { overRun = 0; underRun = 0; }
+
+        if (overRun >= downAfter && index < tiers.size() - 1) {
+            index++;
+            overRun = 0;
+            System.out.println("🎚️ quality -> " + tier().name + String.format(" (paint %.1f ms, budget %.1f ms)", paintMs, budgetMs));
+        } else if (underRun >= upAfter && index > 0) {
+            index--;
+            underRun = 0;
+            System.out.println("🎚️ quality -> " + tier().name + String.format(" (paint %.1f ms, budget %.1f ms)", paintMs, budgetMs));
+        }
+    }
+
+    public void drawOverlay(Graphics2D g, int right, int top) {
+        Tier t = tier();
+        String[] lines = {
+                "quality: " + t.name + (pinned ? " (pinned)" : " (auto " + (index + 1) + "/" + tiers.size() + ")"),
+                String.format("paint %.2f ms / budget %.1f ms", paintMs, budgetMs),
+                String.format("frame %.2f ms (%.0f fps)", frameMs, frameMs > 0 ? 1000.0 / frameMs : 0),
+                "aa=" + t.antialias + " waves=" + t.waves,
+                "shadows=" + t.hudShadows + " questBg=" + t.questTranslucent
+        };
+        g.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        FontMetrics fm = g.getFontMetrics();
+        int w = 0;
+        for (String s : lines) w = Math.max(w, fm.stringWidth(s));
+        int lh = fm.getHeight();
+        int x = right - w - 16;
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRect(x - 8, top, w + 16, lh * lines.length + 10);
+        g.setColor(new Color(180, 255, 180));
+        for (int i = 0; i < lines.length; i++) g.drawString(lines[i], x, top + 5 + fm.getAscent() + i * lh);
+    }
+}
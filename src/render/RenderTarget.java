@@ -0,0 +1,198 @@
+package render;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+
+/**
+ * Where a frame is drawn. The game always paints in logical coordinates (its fixed
+ * width x height); this class decides how many pixels that becomes. By default ("native") the
+ * painter draws straight onto the output and Java2D applies any display scale itself, as
+ * before. With a render scale it draws into a back buffer of logical size x render scale,
+ * which is then stretched onto the output in device pixels with the chosen filter: 0.5
+ * renders a quarter of the pixels ("performance mode"), 2 or 3 gives pixel art hard edges on
+ * HiDPI screens, and "auto" matches the display's own scale. An output larger than the
+ * logical size gets the picture centred, grown by whole multiples when the filter is
+ * nearest-neighbour.
+ *
+ * On screen the back buffer is a {@link VolatileImage}, so drawing into it and stretching it
+ * stay on the accelerated pipeline; it is recreated when the screen changes and the frame
+ * repainted when its contents are lost. Off screen (headless, or when no volatile image can
+ * be made) it is a plain image.
+ *
+ * EDT/render thread only, except {@link #getViewport} and {@link #toLogical} (input handlers).
+ */
+public final class RenderTarget {
+
+    public enum Filter { NEAREST, BILINEAR }
+
+    public static final double NATIVE = -1;
+
+    private final int logicalW, logicalH;
+    private final double renderScale; // 0 = follow the display scale, NATIVE = no back buffer
+    private final Filter filter;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private VolatileImage volatileBuffer;
+    private boolean volatileUnavailable;
+    private BufferedImage buffer; // off-screen fallback
+    private double lastDeviceScale = 1.0;
+    private volatile Rectangle viewport; // where the picture went, in output coordinates; replaced, never mutated
+
+    public RenderTarget(int logicalW, int logicalH, double renderScale, Filter filter) {
+        this.logicalW = logicalW;
+        this.logicalH = logicalH;
+        this.renderScale = renderScale;
+        this.filter = filter;
+        viewport = new Rectangle(0, 0, logicalW, logicalH);
+    }
+
+    /** -Dfishing.renderScale=native|auto|0.5|1|2|3 (default native) and -Dfishing.scaleFilter=nearest|bilinear. */
+    public static RenderTarget fromProperties(int logicalW, int logicalH) {
+        String s = System.getProperty("fishing.renderScale", "native");
+        double scale;
+        try {
+            scale = "native".equalsIgnoreCase(s) ? NATIVE
+                    : "auto".equalsIgnoreCase(s) ? 0 : Math.max(0.25, Math.min(4.0, Double.parseDouble(s)));
+        } catch (NumberFormatException e) {
+            System.out.println("⚠️ fishing.renderScale ไม่ถูกต้อง: " + s + " (ใช้ native)");
+            scale = NATIVE;
+        }
+        String f = System.getProperty("fishing.scaleFilter");
+        Filter filter = f != null ? ("bilinear".equalsIgnoreCase(f) ? Filter.BILINEAR : Filter.NEAREST)
+                : (scale > 0 && scale < 1 ? Filter.BILINEAR : Filter.NEAREST);
+        RenderTarget t = new RenderTarget(logicalW, logicalH, scale, filter);
+        if (scale != NATIVE) System.out.println("🖼️ render scale " + (scale == 0 ? "auto" : scale) + ", filter " + filter);
+        return t;
+    }
+
+    /** True when frames go straight to the output, so partial repaints are worth doing. */
+    public boolean isDirect() {
+        return isDirect(lastDeviceScale);
+    }
+
+    private boolean isDirect(double device) {
+        boolean unscaled = renderScale == NATIVE || (effectiveScale(device) == 1.0 && device == 1.0);
+        Rectangle vp = viewport;
+        return unscaled && vp.width == logicalW && vp.height == logicalH;
+    }
+
+    /** Output rectangle (component coordinates) the logical frame is shown in. */
+    public Rectangle getViewport() { return new Rectangle(viewport); }
+
+    /** Maps a point on the output (e.g. a mouse event) to logical coordinates. */
+    public Point toLogical(int x, int y) {
+        Rectangle vp = viewport;
+        return new Point((int) Math.floor((x - vp.x) * (double) logicalW / vp.width),
+                (int) Math.floor((y - vp.y) * (double) logicalH / vp.height));
+    }
+
+    /**
+     * Paints one frame onto {@code g}, an output of {@code outW} x {@code outH} in component
+     * coordinates. {@code painter} always sees logical coordinates.
+     */
+    public void render(Graphics2D g, int outW, int outH, Consumer<Graphics2D> painter) {
+        AffineTransform tx = g.getTransform();
+        double device = Math.max(tx.getScaleX(), tx.getScaleY());
+        lastDeviceScale = device;
+        fit(outW, outH, device);
+
+        if (isDirect(device)) {
+            g.translate(viewport.x, viewport.y);
+            painter.accept(g);
+            g.translate(-viewport.x, -viewport.y);
+            return;
+        }
+
+        double scale = renderScale == NATIVE ? device : effectiveScale(device);
+        int bw = (int) Math.ceil(logicalW * scale), bh = (int) Math.ceil(logicalH * scale);
+        GraphicsConfiguration gc = g.getDeviceConfiguration();
+        if (!volatileUnavailable && gc != null && gc.getDevice().getType() == GraphicsDevice.TYPE_RASTER_SCREEN) {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                VolatileImage vb = validVolatile(gc, bw, bh);
+                if (vb == null) break;
+                paintBuffer(vb.createGraphics(), g, bw, bh, scale, painter);
+                if (vb.contentsLost()) continue; // lost while painting: paint again
+                blit(g, tx, device, vb);
+                if (!vb.contentsLost()) return;
+            }
+        }
+
+        if (buffer == null || buffer.getWidth() != bw || buffer.getHeight() != bh) {
+            buffer = Images.create(bw, bh, Transparency.OPAQUE);
+        }
+        paintBuffer(buffer.createGraphics(), g, bw, bh, scale, painter);
+        blit(g, tx, device, buffer);
+    }
+
+    // the volatile back buffer at bw x bh, (re)created when missing, resized or incompatible with gc
+    private VolatileImage validVolatile(GraphicsConfiguration gc, int bw, int bh) {
+        try {
+            VolatileImage vb = volatileBuffer;
+            if (vb == null || vb.getWidth() != bw || vb.getHeight() != bh
+                    || vb.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (vb != null) vb.flush();
+                vb = gc.createCompatibleVolatileImage(bw, bh, Transparency.OPAQUE);
+                volatileBuffer = vb;
+            }
+            return vb;
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ VolatileImage unavailable, rendering the scaled frame in memory: " + e.getMessage());
+            volatileBuffer = null;
+            volatileUnavailable = true;
+            return null;
+        }
+    }
+
+    private static void paintBuffer(Graphics2D bg, Graphics2D g, int bw, int bh, double scale, Consumer<Graphics2D> painter) {
+        try {
+            bg.setRenderingHints(g.getRenderingHints());
+            bg.setColor(g.getBackground() != null ? g.getBackground() : Color.BLACK);
+            bg.fillRect(0, 0, bw, bh);
+            bg.scale(scale, scale);
+            painter.accept(bg);
+        } finally {
+            bg.dispose();
+        }
+    }
+
+    // blit in device pixels so the display scale doesn't filter the frame a second time
+    private void blit(Graphics2D g, AffineTransform tx, double device, Image frame) {
+        Graphics2D out = (Graphics2D) g.create();
+        try {
+            out.setTransform(new AffineTransform(1, 0, 0, 1, tx.getTranslateX(), tx.getTranslateY()));
+            out.setRenderingHint(RenderingHints.KEY_INTERPOLATION, filter == Filter.NEAREST
+                    ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            Rectangle vp = viewport;
+            int dx = (int) Math.round(vp.x * device), dy = (int) Math.round(vp.y * device);
+            int dw = (int) Math.round(vp.width * device), dh = (int) Math.round(vp.height * device);
+            out.drawImage(frame, dx, dy, dw, dh, null);
+        } finally {
+            out.dispose();
+        }
+    }
+
+    private double effectiveScale(double device) {
+        return renderScale == 0 ? device : renderScale;
+    }
+
+    // largest fit of the logical frame into the output; when growing with NEAREST, whole device-pixel multiples
+    private void fit(int outW, int outH, double device) {
+        if (outW <= 0 || outH <= 0) {
+            setViewport(0, 0, logicalW, logicalH);
+            return;
+        }
+        double k = Math.min(outW / (double) logicalW, outH / (double) logicalH);
+        if (filter == Filter.NEAREST && k > 1) k = Math.max(1.0, Math.floor(k * device) / device);
+        int w = (int) Math.round(logicalW * k), h = (int) Math.round(logicalH * k);
+        setViewport((outW - w) / 2, (outH - h) / 2, w, h);
+    }
+
+    private void setViewport(int x, int y, int w, int h) {
+        Rectangle vp = viewport;
+        if (vp.x != x || vp.y != y || vp.width != w || vp.height != h) viewport = new Rectangle(x, y, w, h);
+    }
+}
@@ -0,0 +1,72 @@
+package render;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * A screen region drawn once into a cached translucent image and blitted until its key
+ * changes. The key is whatever stamp the caller builds from the panel's inputs (values,
+ * version counters, quality flags); painting happens in screen coordinates with the target's
+ * rendering hints, so a retained panel looks the same as one drawn directly. The image has as
+ * many pixels as the panel covers on the target (bounds x the target's scale, e.g. a 2x or 3x
+ * render scale) and is drawn back at 1/scale, so text stays as sharp as the rest of the frame.
+ *
+ * EDT/render thread only.
+ */
+public final class RetainedLayer {
+
+    private final Rectangle bounds;
+    private BufferedImage image;
+    private double scale;
+    private long key;
+    private boolean valid;
+
+    public RetainedLayer(Rectangle bounds) {
+        this.bounds = new Rectangle(bounds);
+    }
+
+    public Rectangle getBounds() { return new Rectangle(bounds); }
+
+    public void invalidate() { valid = false; }
+
+    public void draw(Graphics2D g, long key, Consumer<Graphics2D> painter) {
+        AffineTransform tx = g.getTransform();
+        double s = Math.max(Math.abs(tx.getScaleX()), Math.abs(tx.getScaleY()));
+        if (!(s > 0)) s = 1.0;
+        if (!valid || key != this.key || s != scale) {
+            rebuild(g, painter, s);
+            this.key = key;
+            valid = true;
+        }
+        if (scale == 1.0) {
+            g.drawImage(image, bounds.x, bounds.y, null);
+        } else {
+            g.translate(bounds.x, bounds.y);
+            g.scale(1 / scale, 1 / scale);
+            g.drawImage(image, 0, 0, null);
+            g.setTransform(tx);
+        }
+    }
+
+    private void rebuild(Graphics2D target, Consumer<Graphics2D> painter, double s) {
+        int w = (int) Math.ceil(bounds.width * s), h = (int) Math.ceil(bounds.height * s);
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = Images.create(w, h, Transparency.TRANSLUCENT);
+        }
+        scale = s;
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, w, h);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHints(target.getRenderingHints());
+            g.scale(s, s);
+            g.translate(-bounds.x, -bounds.y);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package render;
+
+import javax.swing.Icon;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resized copies of images (previews, thumbnails) made once on a background thread and kept
+ * in a least-recently-used cache bounded by bytes. {@link #get} returns the scaled copy if it's
+ * ready; otherwise it queues the work and returns the original, which the caller draws at the
+ * target size as before until {@code onReady} tells it to draw again.
+ *
+ * Reductions of more than half are done in halving steps, each one bilinear, so every source
+ * pixel still contributes (one big bilinear or nearest-neighbour step skips most of them).
+ * Enlargements keep hard pixel edges, which suits the pixel-art assets.
+ */
+public final class ScaledImageCache {
+
+    public enum Quality { FAST, SMOOTH }
+
+    private static final ScaledImageCache SHARED = new ScaledImageCache(Long.getLong("fishing.scaledCacheMB", 32L) << 20);
+
+    public static ScaledImageCache shared() { return SHARED; }
+
+    private record Key(String asset, int w, int h, Quality quality) { }
+
+    private final long maxBytes;
+    private long bytes;
+    private final LinkedHashMap<Key, BufferedImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Key> pending = new HashSet<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ImageScaler");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    public ScaledImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * {@code src} at {@code w} x {@code h}, or {@code src} itself while the copy is being made.
+     * {@code asset} identifies the source (e.g. its path); {@code onReady} (may be null) runs on
+     * the worker thread once the copy is cached.
+     */
+    public BufferedImage get(String asset, BufferedImage src, int w, int h, Quality quality, Runnable onReady) {
+        if (src == null || w <= 0 || h <= 0) return src;
+        if (src.getWidth() == w && src.getHeight() == h) return src;
+        Key key = new Key(asset, w, h, quality);
+        synchronized (this) {
+            BufferedImage hit = cache.get(key);
+            if (hit != null) return hit;
+            if (!pending.add(key)) return src;
+        }
+        worker.execute(() -> {
+            BufferedImage scaled;
+            try {
+                scaled = scale(src, w, h, quality);
+            } catch (RuntimeException e) {
+                System.out.println("⚠️ ย่อรูปไม่สำเร็จ: " + asset + " (" + e.getMessage() + ")");
+                synchronized (this) { pending.remove(key); }
+                return;
+            }
+            synchronized (this) {
+                pending.remove(key);
+                put(key, scaled);
+            }
+            if (onReady != null) onReady.run();
+        });
+        return src;
+    }
+
+    /** An icon of fixed size that draws {@link #get}'s current result and repaints {@code owner} when the copy is ready. */
+    public Icon icon(String asset, BufferedImage src, int w, int h, Quality quality, Component owner) {
+        Runnable repaint = owner != null ? owner::repaint : null;
+        return new Icon() {
+            @Override public void paintIcon(Component c, Graphics g, int x, int y) {
+                g.drawImage(get(asset, src, w, h, quality, repaint), x, y, w, h, null);
+            }
+            @Override public int getIconWidth() { return w; }
+            @Override public int getIconHeight() { return h; }
+        };
+    }
+
+    public synchronized long getBytes() { return bytes; }
+    public synchronized int size() { return cache.size(); }
+
+    private void put(Key key, BufferedImage img) {
+        long b = sizeOf(img);
+        BufferedImage old = cache.put(key, img);
+        if (old != null) bytes -= sizeOf(old);
+        bytes += b;
+        Iterator<Map.Entry<Key, BufferedImage>> it = cache.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, BufferedImage> e = it.next();
+            if (Objects.equals(e.getKey(), key)) continue;
+            bytes -= sizeOf(e.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(BufferedImage img) {
+        return 4L * img.getWidth() * img.getHeight();
+    }
+
+    /** The resize itself, on the calling thread. */
+    public static BufferedImage scale(BufferedImage src, int w, int h, Quality quality) {
+        int transparency = src.getTransparency();
+        if (w >= src.getWidth() && h >= src.getHeight()) {
+            return step(src, w, h, transparency, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        }
+        Object interp = quality == Quality.SMOOTH ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+        BufferedImage cur = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        do {
+            if (quality == Quality.SMOOTH) {
+                cw = cw / 2 >= w ? cw / 2 : w;
+                ch = ch / 2 >= h ? ch / 2 : h;
+            } else {
+                cw = w;
+                ch = h;
+            }
+            cur = step(cur, cw, ch, transparency, interp);
+        } while (cw != w || ch != h);
+        return cur;
+    }
+
+    private static BufferedImage step(BufferedImage src, int w, int h, int transparency, Object interpolation) {
+        BufferedImage dst = Images.create(w, h, transparency);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+}
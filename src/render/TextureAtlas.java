@@ -0,0 +1,255 @@
+package render;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Packs many small sprites into a few large pages with a skyline (bottom-left) packer, so a
+ * map draws from a handful of big images instead of one per prop file. Each sprite becomes a
+ * {@link Region}: a page plus a source rectangle. Sprites larger than a page get a page of
+ * their own.
+ *
+ * A packed atlas can be written to and read back from a cache directory, keyed by whatever
+ * the caller uses to identify the inputs (e.g. file names, sizes and timestamps).
+ */
+public final class TextureAtlas {
+
+    public static final class Region {
+        public final BufferedImage page;
+        public final int pageIndex;
+        public final int x, y, w, h;
+
+        Region(BufferedImage page, int pageIndex, int x, int y, int w, int h) {
+            this.page = page;
+            this.pageIndex = pageIndex;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+        }
+
+        /** A view of the region sharing the page's pixels (no copy). */
+        public BufferedImage subimage() {
+            return page.getSubimage(x, y, w, h);
+        }
+    }
+
+    private final List<BufferedImage> pages;
+    private final Map<String, Region> regions;
+    private final long spritePixels;
+
+    private TextureAtlas(List<BufferedImage> pages, Map<String, Region> regions) {
+        this.pages = pages;
+        this.regions = regions;
+        long px = 0;
+        for (Region r : regions.values()) px += (long) r.w * r.h;
+        this.spritePixels = px;
+    }
+
+    public Region get(String key) { return regions.get(key); }
+    public int size() { return regions.size(); }
+    public List<BufferedImage> getPages() { return pages; }
+
+    public long pagePixels() {
+        long px = 0;
+        for (BufferedImage p : pages) px += (long) p.getWidth() * p.getHeight();
+        return px;
+    }
+
+    /** Fraction of page area covered by sprites. */
+    public double efficiency() {
+        long total = pagePixels();
+        return total == 0 ? 1.0 : spritePixels / (double) total;
+    }
+
+    // -------- Packing --------
+
+    /** Packs {@code images} (null values are skipped) into pages of at most {@code pageSize} square, {@code padding} px apart. */
+    public static TextureAtlas pack(Map<String, BufferedImage> images, int pageSize, int padding) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, BufferedImage> e : images.entrySet()) if (e.getValue() != null) keys.add(e.getKey());
+        // tall first, then wide: keeps the skyline flat
+        keys.sort((a, b) -> {
+            BufferedImage ia = images.get(a), ib = images.get(b);
+            int c = Integer.compare(ib.getHeight(), ia.getHeight());
+            return c != 0 ? c : Integer.compare(ib.getWidth(), ia.getWidth());
+        });
+
+        List<Skyline> open = new ArrayList<>();
+        List<int[]> placed = new ArrayList<>(); // page, x, y per key
+        List<int[]> pageSizes = new ArrayList<>();
+        for (String key : keys) {
+            BufferedImage img = images.get(key);
+            int w = img.getWidth() + padding, h = img.getHeight() + padding;
+            int[] at = null;
+            for (int p = 0; p < open.size() && at == null; p++) {
+                Skyline s = open.get(p);
+                if (s == null) continue;
+                int[] xy = s.insert(w, h);
+                if (xy != null) at = new int[] { p, xy[0], xy[1] };
+            }
+            if (at == null) {
+                int p = open.size();
+                if (w > pageSize || h > pageSize) {
+                    open.add(null); // oversized: a page of its own, closed to further sprites
+                    pageSizes.add(new int[] { img.getWidth(), img.getHeight() });
+                    at = new int[] { p, 0, 0 };
+                } else {
+                    Skyline s = new Skyline(pageSize, pageSize);
+                    open.add(s);
+                    pageSizes.add(null);
+                    int[] xy = s.insert(w, h);
+                    at = new int[] { p, xy[0], xy[1] };
+                }
+            }
+            placed.add(at);
+        }
+
+        for (int p = 0; p < open.size(); p++) {
+            if (open.get(p) != null) pageSizes.set(p, open.get(p).usedSize());
+        }
+        List<BufferedImage> pages = new ArrayList<>();
+        List<Graphics2D> gs = new ArrayList<>();
+        for (int[] sz : pageSizes) {
+            BufferedImage page = Images.create(Math.max(1, sz[0]), Math.max(1, sz[1]), Transparency.TRANSLUCENT);
+            pages.add(page);
+            Graphics2D g = page.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            gs.add(g);
+        }
+        Map<String, Region> regions = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            BufferedImage img = images.get(keys.get(i));
+            int[] at = placed.get(i);
+            gs.get(at[0]).drawImage(img, at[1], at[2], null);
+            regions.put(keys.get(i), new Region(pages.get(at[0]), at[0], at[1], at[2], img.getWidth(), img.getHeight()));
+        }
+        for (Graphics2D g : gs) g.dispose();
+        return new TextureAtlas(pages, regions);
+    }
+
+    /** Bottom-left skyline: a list of horizontal segments, lowest one that fits wins. */
+    private static final class Skyline {
+        private final int width, height;
+        private final List<int[]> segs = new ArrayList<>(); // x, y, w
+        private int usedW, usedH;
+
+        Skyline(int width, int height) {
+            this.width = width;
+            this.height = height;
+            segs.add(new int[] { 0, 0, width });
+        }
+
+        int[] insert(int w, int h) {
+            int best = -1, bestY = Integer.MAX_VALUE, bestW = Integer.MAX_VALUE;
+            for (int i = 0; i < segs.size(); i++) {
+                int y = fitY(i, w);
+                if (y < 0 || y + h > height) continue;
+                if (y < bestY || (y == bestY && segs.get(i)[2] < bestW)) {
+                    best = i;
+                    bestY = y;
+                    bestW = segs.get(i)[2];
+                }
+            }
+            if (best < 0) return null;
+            int x = segs.get(best)[0];
+            place(best, x, bestY + h, w);
+            usedW = Math.max(usedW, x + w);
+            usedH = Math.max(usedH, bestY + h);
+            return new int[] { x, bestY };
+        }
+
+        // top of the skyline under [x, x + w) starting at segment i, or -1 if it runs off the page
+        private int fitY(int i, int w) {
+            int x = segs.get(i)[0];
+            if (x + w > width) return -1;
+            int y = 0, left = w;
+            for (int j = i; left > 0; j++) {
+                if (j >= segs.size()) return -1;
+                y = Math.max(y, segs.get(j)[1]);
+                left -= segs.get(j)[2];
+            }
+            return y;
+        }
+
+        private void place(int i, int x, int top, int w) {
+            segs.add(i, new int[] { x, top, w });
+            int end = x + w;
+            for (int j = i + 1; j < segs.size(); ) {
+                int[] s = segs.get(j);
+                if (s[0] >= end) break;
+                int cut = end - s[0];
+                if (cut >= s[2]) {
+                    segs.remove(j);
+                } else {
+                    s[0] += cut;
+                    s[2] -= cut;
+                    break;
+                }
+            }
+            for (int j = 0; j + 1 < segs.size(); ) { // merge equal heights
+                int[] a = segs.get(j), b = segs.get(j + 1);
+                if (a[1] == b[1]) {
+                    a[2] += b[2];
+                    segs.remove(j + 1);
+                } else {
+                    j++;
+                }
+            }
+        }
+
+        int[] usedSize() { return new int[] { usedW, usedH }; }
+    }
+
+    // -------- Disk cache --------
+
+    /** Writes pages as PNGs plus an index under {@code dir}, named after {@code cacheKey}. */
+    public void save(File dir, String cacheKey) throws IOException {
+        Files.createDirectories(dir.toPath());
+        StringBuilder index = new StringBuilder();
+        index.append(pages.size()).append('\n');
+        for (int p = 0; p < pages.size(); p++) {
+            ImageIO.write(pages.get(p), "png", new File(dir, "atlas_" + cacheKey + "_" + p + ".png"));
+        }
+        for (Map.Entry<String, Region> e : regions.entrySet()) {
+            Region r = e.getValue();
+            index.append(r.pageIndex).append('\t').append(r.x).append('\t').append(r.y).append('\t')
+                    .append(r.w).append('\t').append(r.h).append('\t').append(e.getKey()).append('\n');
+        }
+        Files.writeString(new File(dir, "atlas_" + cacheKey + ".txt").toPath(), index, StandardCharsets.UTF_8);
+    }
+
+    /** Reads an atlas written by {@link #save}; null if it isn't there or is unreadable. */
+    public static TextureAtlas load(File dir, String cacheKey) {
+        File indexFile = new File(dir, "atlas_" + cacheKey + ".txt");
+        if (!indexFile.exists()) return null;
+        try {
+            List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            int count = Integer.parseInt(lines.get(0).trim());
+            List<BufferedImage> pages = new ArrayList<>();
+            for (int p = 0; p < count; p++) {
+                BufferedImage page = Images.read(new File(dir, "atlas_" + cacheKey + "_" + p + ".png"));
+                if (page == null) return null;
+                pages.add(page);
+            }
+            Map<String, Region> regions = new HashMap<>();
+            for (int i = 1; i < lines.size(); i++) {
+                String[] f = lines.get(i).split("\t", 6);
+                if (f.length < 6) continue;
+                int p = Integer.parseInt(f[0]);
+                regions.put(f[5], new Region(pages.get(p), p, Integer.parseInt(f[1]), Integer.parseInt(f[2]),
+                        Integer.parseInt(f[3]), Integer.parseInt(f[4])));
+            }
+            return new TextureAtlas(pages, regions);
+        } catch (Exception e) {
+            System.out.println("⚠️ อ่าน atlas cache ไม่ได้: " + indexFile.getPath() + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Keeps a {@link VolatileImage} (video memory) copy of a large, frequently drawn image such as
+ * a chunk of the static layer, and redraws it from the source whenever the copy is lost
+ * (display change, screen lock, another app grabbing the GPU), no longer matches the target
+ * screen, or the source was repainted ({@link #sourceChanged}).
+ * Drawing into anything that isn't a screen, or when a volatile copy can't be made, simply
+ * blits the source.
+ *
+ * EDT/render thread only.
+ */
+public final class VolatileSurface {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final BufferedImage source;
+    private final int transparency;
+    private VolatileImage copy;
+    private boolean stale;
+    private boolean unavailable;
+
+    public VolatileSurface(BufferedImage source) {
+        this.source = source;
+        this.transparency = source.getTransparency();
+    }
+
+    public BufferedImage getSource() { return source; }
+
+    /** The source was drawn into; the copy is refreshed on the next {@link #draw}. */
+    public void sourceChanged() {
+        stale = true;
+    }
+
+    public void draw(Graphics2D g, int x, int y) {
+        GraphicsConfiguration gc = g.getDeviceConfiguration();
+        if (unavailable || gc == null || gc.getDevice().getType() != GraphicsDevice.TYPE_RASTER_SCREEN) {
+            g.drawImage(source, x, y, null);
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (!ensureCopy(gc)) break;
+            g.drawImage(copy, x, y, null);
+            if (!copy.contentsLost()) return;
+        }
+        g.drawImage(source, x, y, null);
+    }
+
+    public void dispose() {
+        if (copy != null) copy.flush();
+        copy = null;
+    }
+
+    private boolean ensureCopy(GraphicsConfiguration gc) {
+        try {
+            int state = copy != null ? copy.validate(gc) : VolatileImage.IMAGE_INCOMPATIBLE;
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                dispose();
+                copy = gc.createCompatibleVolatileImage(source.getWidth(), source.getHeight(), transparency);
+                state = VolatileImage.IMAGE_RESTORED;
+            }
+            if (state == VolatileImage.IMAGE_RESTORED || stale) {
+                stale = false;
+                Graphics2D vg = copy.createGraphics();
+                try {
+                    vg.setComposite(AlphaComposite.Src);
+                    vg.drawImage(source, 0, 0, null);
+                } finally {
+                    vg.dispose();
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ VolatileImage unavailable, drawing from memory: " + e.getMessage());
+            dispose();
+            unavailable = true;
+            return false;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package sprites;
 
-import javax.imageio.ImageIO;
+import render.Images;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
-
+/**
+ * A character sheet cut into animations. Every cell is copied out of the sheet once, at load,
+ * into its own screen-compatible image, and each action's frames sit in a flat array, so
+ * picking the frame for a time is arithmetic and drawing it never touches the sheet. Nothing
+ * changes after construction, so a sheet can be drawn from any thread.
+ */
 public class NPCSpriteSheet {
 
     public enum Action {
@@ -25,11 +33,6 @@ public class NPCSpriteSheet {
         public final List<Frame> frames = new ArrayList<>();
         public final int msPerFrame;
         public Animation(int msPerFrame){ this.msPerFrame = msPerFrame; }
-        public Frame get(long t){
-            if (frames.isEmpty()) return new Frame(0,0);
-            int idx = (int)((t / msPerFrame) % frames.size());
-            return frames.get(idx);
-        }
     }
 
     private final BufferedImage sheet;
@@ -39,19 +42,36 @@ public class NPCSpriteSheet {
     private final Map<Action, Animation> anims = new EnumMap<>(Action.class);
     private final String fileName;
 
+    // built once in the constructor: every cell, and per Action.ordinal() the frame images
+    // (null = no animation) and timing
+    private final BufferedImage[] cells;
+    private final BufferedImage[][] frames = new BufferedImage[Action.values().length][];
+    private final int[] msPerFrame = new int[Action.values().length];
+
     public NPCSpriteSheet(String path, int cell, String mappingJsonPathIfAny) throws Exception {
         File imgFile = resolve(path);
         if (imgFile == null) throw new IllegalArgumentException("Sprite not found: " + path);
-        this.sheet = ImageIO.read(imgFile);
+        this.sheet = Images.read(imgFile);
         this.cell = cell <= 0 ? 64 : cell;
         this.cols = Math.max(1, sheet.getWidth() / this.cell);
         this.rows = Math.max(1, sheet.getHeight() / this.cell);
         this.fileName = imgFile.getName();
+        this.cells = new BufferedImage[cols * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) cells[r * cols + c] = cut(r, c);
+        }
 
         Map<String, Object> mapping = loadMapping(mappingJsonPathIfAny);
         if (!applyMapping(mapping)) {
             applyDefault();
         }
+        for (Map.Entry<Action, Animation> e : anims.entrySet()) {
+            List<Frame> list = e.getValue().frames;
+            BufferedImage[] f = new BufferedImage[list.size()];
+            for (int i = 0; i < f.length; i++) f[i] = crop(list.get(i).row, list.get(i).col);
+            frames[e.getKey().ordinal()] = f;
+            msPerFrame[e.getKey().ordinal()] = Math.max(1, e.getValue().msPerFrame);
+        }
     }
 
     private File resolve(String p){
@@ -151,18 +171,51 @@ public class NPCSpriteSheet {
     }
 
     public BufferedImage get(Action a, long t) {
-        Animation ani = anims.get(a);
-        if (ani == null) return crop(0,0);
-        Frame f = ani.get(t);
-        return crop(f.row, f.col);
+        BufferedImage[] f = frames[a.ordinal()];
+        if (f == null || f.length == 0) return cells[0];
+        return f[(int) Math.floorMod(t / msPerFrame[a.ordinal()], (long) f.length)];
+    }
+
+    public int getCellSize() { return cell; }
+
+    /** Index of the frame {@link #get} returns at {@code t}, for change detection. */
+    public int frameIndex(Action a, long t) {
+        BufferedImage[] f = frames[a.ordinal()];
+        if (f == null || f.length == 0) return 0;
+        return (int) Math.floorMod(t / msPerFrame[a.ordinal()], (long) f.length);
+    }
+
+    /** Milliseconds until {@link #get} returns a different frame for {@code a}; Long.MAX_VALUE if it never does. */
+    public long msUntilNextFrame(Action a, long t) {
+        BufferedImage[] f = frames[a.ordinal()];
+        if (f == null || f.length <= 1) return Long.MAX_VALUE;
+        int ms = msPerFrame[a.ordinal()];
+        return ms - Math.floorMod(t, ms);
     }
 
+    /** The cell at (row, col) as a standalone compatible image, copied from the sheet at load. */
     public BufferedImage crop(int row, int col){
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") outside " + fileName + " (" + rows + "x" + cols + ")");
+        }
+        return cells[row * cols + col];
+    }
+
+    private BufferedImage cut(int row, int col){
         int sx = col * cell;
         int sy = row * cell;
         int w = Math.min(cell, sheet.getWidth() - sx);
         int h = Math.min(cell, sheet.getHeight() - sy);
-        return sheet.getSubimage(sx, sy, w, h);
+        BufferedImage view = sheet.getSubimage(sx, sy, w, h);
+        BufferedImage img = Images.create(w, h, Images.transparencyOf(view));
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(view, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return img;
     }
 
     // ---------- JSON helpers ----------
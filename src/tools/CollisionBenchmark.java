@@ -0,0 +1,244 @@
+package tools;
+
+import map.CollisionWorld;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link CollisionWorld} with the linear scan over a {@code List<Rectangle>} it
+ * replaced, at 100, 1k, 10k and 100k colliders. Colliders are object feet sized like map.json's,
+ * scattered over a world that grows with their number so the density stays map-like. Each
+ * query kind runs against both, the answers are checked to agree, and ns/query is reported.
+ *
+ * Each measurement is warmed up first and repeated; the fastest round is kept. This is a plain
+ * main rather than JMH, since the project builds without dependencies.
+ *
+ *   java -cp bin tools.CollisionBenchmark [--queries 200000] [--sizes 100,1000,10000,100000]
+ */
+public class CollisionBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int queries = 200_000;
+        int[] sizes = { 100, 1_000, 10_000, 100_000 };
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--queries" -> queries = Integer.parseInt(args[++i]);
+                case "--sizes" -> {
+                    String[] parts = args[++i].split(",");
+                    sizes = new int[parts.length];
+                    for (int k = 0; k < parts.length; k++) sizes[k] = Integer.parseInt(parts[k].trim());
+                }
+                default -> { }
+            }
+        }
+
+        System.out.printf("%-9s %-10s %12s %12s %9s%n", "solids", "query", "linear ns", "grid ns", "speedup");
+        for (int n : sizes) run(n, queries);
+    }
+
+    private static void run(int n, int queries) {
+        Random rnd = new Random(n);
+        // ~300 colliders per 1400x800 screen, as in map.json
+        double screens = Math.max(1, n / 300.0);
+        int worldW = (int) (1400 * Math.sqrt(screens)), worldH = (int) (800 * Math.sqrt(screens));
+        List<Rectangle> solids = new ArrayList<>(n);
+        CollisionWorld grid = new CollisionWorld();
+        for (int i = 0; i < n; i++) {
+            Rectangle r = new Rectangle(rnd.nextInt(worldW), rnd.nextInt(worldH), 16 + rnd.nextInt(112), 4 + rnd.nextInt(20));
+            solids.add(r);
+            grid.add(r);
+        }
+        int q = (int) Math.max(1_000, Math.min(queries, queries * 1_000L / n)); // fewer at large n: the linear scan gets slow
+        int[] qx = new int[q], qy = new int[q];
+        double[] ang = new double[q];
+        for (int i = 0; i < q; i++) {
+            qx[i] = rnd.nextInt(worldW);
+            qy[i] = rnd.nextInt(worldH);
+            ang[i] = rnd.nextDouble() * Math.PI * 2;
+        }
+        int[] out = new int[n];
+
+        // blocks: player feet, as canStandAt asks twice per tick
+        long a = time(() -> {
+            int hits = 0;
+            for (int i = 0; i < q; i++) if (linearBlocks(solids, qx[i] - 16, qy[i] - 6, 32, 12)) hits++;
+            return hits;
+        }, q);
+        long b = time(() -> {
+            int hits = 0;
+            for (int i = 0; i < q; i++) if (grid.blocks(qx[i] - 16, qy[i] - 6, 32, 12)) hits++;
+            return hits;
+        }, q);
+        check(n, "blocks", () -> {
+            for (int i = 0; i < q; i++) {
+                if (linearBlocks(solids, qx[i] - 16, qy[i] - 6, 32, 12) != grid.blocks(qx[i] - 16, qy[i] - 6, 32, 12)) return false;
+            }
+            return true;
+        });
+        print(n, "blocks", a, b);
+
+        // region: a 256 px square around the point
+        a = time(() -> {
+            int total = 0;
+            for (int i = 0; i < q; i++) total += linearQuery(solids, qx[i] - 128, qy[i] - 128, 256, 256, out);
+            return total;
+        }, q);
+        b = time(() -> {
+            int total = 0;
+            for (int i = 0; i < q; i++) total += grid.query(qx[i] - 128, qy[i] - 128, 256, 256, out);
+            return total;
+        }, q);
+        check(n, "region", () -> {
+            for (int i = 0; i < q; i++) {
+                if (linearQuery(solids, qx[i] - 128, qy[i] - 128, 256, 256, out) != grid.query(qx[i] - 128, qy[i] - 128, 256, 256, out)) return false;
+            }
+            return true;
+        });
+        print(n, "region", a, b);
+
+        // nearest within 400 px; ties may pick different solids, so distances are compared
+        a = time(() -> {
+            long sum = 0;
+            for (int i = 0; i < q; i++) sum += linearNearest(solids, qx[i], qy[i], 400);
+            return sum;
+        }, q);
+        b = time(() -> {
+            long sum = 0;
+            for (int i = 0; i < q; i++) sum += grid.nearest(qx[i], qy[i], 400);
+            return sum;
+        }, q);
+        Rectangle tmp = new Rectangle();
+        check(n, "nearest", () -> {
+            for (int i = 0; i < q; i++) {
+                int l = linearNearest(solids, qx[i], qy[i], 400), g = grid.nearest(qx[i], qy[i], 400);
+                if ((l < 0) != (g < 0)) return false;
+                if (l >= 0) {
+                    grid.get(g, tmp);
+                    if (dist2(solids.get(l), qx[i], qy[i]) != dist2(tmp, qx[i], qy[i])) return false;
+                }
+            }
+            return true;
+        });
+        print(n, "nearest", a, b);
+
+        // raycast up to 600 px in a random direction
+        a = time(() -> {
+            double sum = 0;
+            for (int i = 0; i < q; i++) sum += Math.min(1e4, linearRay(solids, qx[i], qy[i], Math.cos(ang[i]), Math.sin(ang[i]), 600));
+            return (long) sum;
+        }, q);
+        b = time(() -> {
+            double sum = 0;
+            for (int i = 0; i < q; i++) sum += Math.min(1e4, grid.raycast(qx[i], qy[i], Math.cos(ang[i]), Math.sin(ang[i]), 600));
+            return (long) sum;
+        }, q);
+        check(n, "raycast", () -> {
+            for (int i = 0; i < q; i++) {
+                double l = linearRay(solids, qx[i], qy[i], Math.cos(ang[i]), Math.sin(ang[i]), 600);
+                double g = grid.raycast(qx[i], qy[i], Math.cos(ang[i]), Math.sin(ang[i]), 600);
+                if (l != g && Math.abs(l - g) > 1e-6) return false;
+            }
+            return true;
+        });
+        print(n, "raycast", a, b);
+
+        // remove and re-add every tenth solid, as a hot reload would
+        long t0 = System.nanoTime();
+        int changed = 0;
+        for (int id = 0; id < n; id += 10) {
+            Rectangle r = new Rectangle();
+            grid.get(id, r);
+            grid.remove(id);
+            grid.add(r);
+            changed++;
+        }
+        System.out.printf("%-9d %-10s %12s %12d%n", n, "remove+add", "-", (System.nanoTime() - t0) / Math.max(1, changed));
+    }
+
+    private interface Work { long run(); }
+    private interface Check { boolean ok(); }
+
+    private static long sink;
+
+    // fastest of ROUNDS after a warm-up round, in ns per query
+    private static long time(Work w, int q) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r <= ROUNDS; r++) {
+            long t0 = System.nanoTime();
+            sink += w.run();
+            long t = System.nanoTime() - t0;
+            if (r > 0) best = Math.min(best, t);
+        }
+        return best / q;
+    }
+
+    private static void check(int n, String what, Check c) {
+        if (!c.ok()) throw new IllegalStateException("grid and linear scan disagree: " + what + " at " + n);
+    }
+
+    private static void print(int n, String what, long linear, long grid) {
+        System.out.printf("%-9d %-10s %12d %12d %8.1fx%n", n, what, linear, grid, linear / (double) Math.max(1, grid));
+    }
+
+    // -------- The old way --------
+
+    private static boolean linearBlocks(List<Rectangle> solids, int x, int y, int w, int h) {
+        Rectangle r = new Rectangle(x, y, w, h); // as GameEngine built one per check
+        for (Rectangle s : solids) if (s.intersects(r)) return true;
+        return false;
+    }
+
+    private static int linearQuery(List<Rectangle> solids, int x, int y, int w, int h, int[] out) {
+        Rectangle r = new Rectangle(x, y, w, h);
+        int n = 0;
+        for (int i = 0; i < solids.size(); i++) if (solids.get(i).intersects(r)) out[n++] = i;
+        return n;
+    }
+
+    private static long dist2(Rectangle s, int px, int py) {
+        long dx = Math.max(0, Math.max(s.x - px, px - (s.x + s.width - 1)));
+        long dy = Math.max(0, Math.max(s.y - py, py - (s.y + s.height - 1)));
+        return dx * dx + dy * dy;
+    }
+
+    private static int linearNearest(List<Rectangle> solids, int px, int py, int maxDist) {
+        int best = -1;
+        long bestD2 = (long) maxDist * maxDist;
+        for (int i = 0; i < solids.size(); i++) {
+            long d2 = dist2(solids.get(i), px, py);
+            if (d2 < bestD2 || (d2 == bestD2 && best < 0)) {
+                bestD2 = d2;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static double linearRay(List<Rectangle> solids, double ox, double oy, double dx, double dy, double maxDist) {
+        double best = Double.POSITIVE_INFINITY;
+        for (Rectangle s : solids) {
+            double t0 = 0, t1 = Double.POSITIVE_INFINITY;
+            if (dx == 0) {
+                if (ox < s.x || ox >= s.x + s.width) continue;
+            } else {
+                double a = (s.x - ox) / dx, b = (s.x + s.width - ox) / dx;
+                t0 = Math.max(t0, Math.min(a, b));
+                t1 = Math.min(t1, Math.max(a, b));
+            }
+            if (dy == 0) {
+                if (oy < s.y || oy >= s.y + s.height) continue;
+            } else {
+                double a = (s.y - oy) / dy, b = (s.y + s.height - oy) / dy;
+                t0 = Math.max(t0, Math.min(a, b));
+                t1 = Math.min(t1, Math.max(a, b));
+            }
+            if (t0 < t1) best = Math.min(best, t0);
+        }
+        return best <= maxDist ? best : Double.POSITIVE_INFINITY;
+    }
+}
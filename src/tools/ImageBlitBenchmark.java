@@ -0,0 +1,111 @@
+package tools;
+
+import render.ChunkCache;
+import render.Images;
+import render.VolatileSurface;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * Times blitting sprites as decoded by ImageIO against the same sprites after
+ * {@link Images#toCompatible}, into a screen-compatible target (or a plain INT RGB one when
+ * headless). With a display it also times a full screen drawn from memory, from one
+ * {@link VolatileSurface}, and through the {@link ChunkCache} the game draws its static layer with.
+ *
+ *   java -cp bin tools.ImageBlitBenchmark [image.png ...] [--blits 20000]
+ */
+public class ImageBlitBenchmark {
+
+    private static final int W = 1400, H = 800;
+
+    public static void main(String[] args) throws Exception {
+        int blits = 20_000;
+        java.util.List<File> files = new java.util.ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--blits".equals(args[i]) && i + 1 < args.length) blits = Integer.parseInt(args[++i]);
+            else files.add(new File(args[i]));
+        }
+        if (files.isEmpty()) {
+            files.add(new File("src/assets/Cute_Fantasy/Trees/Big_Oak_Tree.png"));
+            files.add(new File("src/assets/Cute_Fantasy/Tiles/Grass/Grass_1_Middle.png"));
+            files.add(new File("src/assets/Cute_Fantasy/Outdoor decoration/Boat.png"));
+        }
+
+        GraphicsConfiguration gc = Images.screenConfig();
+        BufferedImage target = gc != null ? gc.createCompatibleImage(W, H, Transparency.OPAQUE)
+                : new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        System.out.println("🎯 target: " + describe(target) + (gc == null ? " (headless)" : ""));
+
+        for (File f : files) {
+            BufferedImage raw = f.exists() ? ImageIO.read(f) : null;
+            if (raw == null) {
+                System.out.println("⚠️ อ่านรูปไม่ได้: " + f.getPath());
+                continue;
+            }
+            BufferedImage prepared = Images.toCompatible(raw);
+            System.out.println("🖼️ " + f.getName() + " " + raw.getWidth() + "x" + raw.getHeight());
+            report("  decoded  " + describe(raw), time(target, raw, blits), blits);
+            report("  prepared " + describe(prepared), time(target, prepared, blits), blits);
+        }
+
+        if (gc != null) {
+            BufferedImage layer = gc.createCompatibleImage(W, H, Transparency.OPAQUE);
+            VolatileSurface surface = new VolatileSurface(layer);
+            ChunkCache chunks = new ChunkCache(512, ChunkCache.capacityFor(W, H, 512), Transparency.OPAQUE,
+                    (cg, region) -> cg.drawImage(layer, 0, 0, null));
+            Rectangle view = new Rectangle(0, 0, W, H);
+            Frame frame = new Frame("blit");
+            Canvas canvas = new Canvas();
+            canvas.setSize(W, H);
+            frame.add(canvas);
+            frame.pack();
+            frame.setVisible(true);
+            int n = Math.max(1, blits / 100);
+            for (String label : new String[] { "full-screen from memory", "full-screen VolatileSurface", "full-screen ChunkCache" }) {
+                Graphics2D g = (Graphics2D) canvas.getGraphics();
+                if (label.endsWith("ChunkCache")) chunks.draw(g, view); // paints the chunks once
+                long t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    if (label.endsWith("memory")) g.drawImage(layer, 0, 0, null);
+                    else if (label.endsWith("VolatileSurface")) surface.draw(g, 0, 0);
+                    else chunks.draw(g, view);
+                }
+                Toolkit.getDefaultToolkit().sync();
+                report("  " + label, System.nanoTime() - t0, n);
+                g.dispose();
+            }
+            surface.dispose();
+            chunks.invalidate();
+            frame.dispose();
+        }
+    }
+
+    private static long time(BufferedImage target, BufferedImage sprite, int blits) {
+        Graphics2D g = target.createGraphics();
+        try {
+            int maxX = Math.max(1, W - sprite.getWidth()), maxY = Math.max(1, H - sprite.getHeight());
+            for (int i = 0; i < blits / 10; i++) g.drawImage(sprite, (i * 37) % maxX, (i * 53) % maxY, null); // warm-up
+            long t0 = System.nanoTime();
+            for (int i = 0; i < blits; i++) g.drawImage(sprite, (i * 37) % maxX, (i * 53) % maxY, null);
+            return System.nanoTime() - t0;
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void report(String label, long nanos, int blits) {
+        System.out.printf("%-48s %8.2f ms total  %7.2f µs/blit%n", label, nanos / 1e6, nanos / 1e3 / blits);
+    }
+
+    private static String describe(BufferedImage img) {
+        String t = switch (img.getTransparency()) {
+            case Transparency.OPAQUE -> "opaque";
+            case Transparency.BITMASK -> "bitmask";
+            default -> "translucent";
+        };
+        return "type=" + img.getType() + " " + t;
+    }
+}
@@ -0,0 +1,100 @@
+package tools;
+
+import render.Images;
+import sprites.NPCSpriteSheet;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Draws a screen of animated NPCs (200 by default) from one character sheet two ways: cutting
+ * each frame out of the decoded sheet with getSubimage on every draw, as the sprite sheet used
+ * to, and through {@link NPCSpriteSheet#get}'s prepared frames. Reports time and bytes
+ * allocated per frame.
+ *
+ *   java -cp bin tools.NpcAnimationBenchmark [sheet.png] [--npcs 200] [--frames 600] [--cell 64]
+ */
+public class NpcAnimationBenchmark {
+
+    private static final int W = 1400, H = 800;
+    private static final NPCSpriteSheet.Action[] WALKS = {
+            NPCSpriteSheet.Action.WALK_DOWN, NPCSpriteSheet.Action.WALK_LEFT,
+            NPCSpriteSheet.Action.WALK_RIGHT, NPCSpriteSheet.Action.WALK_UP
+    };
+
+    public static void main(String[] args) throws Exception {
+        String path = "src/assets/Cute_Fantasy/NPCs (Premade)/Fisherman_Fin.png";
+        int npcs = 200, frames = 600, cell = 64;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--npcs" -> npcs = Integer.parseInt(args[++i]);
+                case "--frames" -> frames = Integer.parseInt(args[++i]);
+                case "--cell" -> cell = Integer.parseInt(args[++i]);
+                default -> path = args[i];
+            }
+        }
+
+        NPCSpriteSheet sheet = new NPCSpriteSheet(path, cell, "src/assets/npc_animations.json");
+        BufferedImage raw = ImageIO.read(new File(path).exists() ? new File(path) : new File("src/" + path));
+
+        Random rnd = new Random(1);
+        int[] x = new int[npcs], y = new int[npcs], dir = new int[npcs];
+        long[] phase = new long[npcs];
+        for (int i = 0; i < npcs; i++) {
+            x[i] = rnd.nextInt(W - cell);
+            y[i] = rnd.nextInt(H - cell);
+            dir[i] = rnd.nextInt(WALKS.length);
+            phase[i] = rnd.nextInt(1000);
+        }
+
+        BufferedImage target = Images.create(W, H, Transparency.OPAQUE);
+        System.out.println("🎯 " + npcs + " NPCs, " + frames + " frames, sheet " + raw.getWidth() + "x" + raw.getHeight());
+
+        for (int pass = 0; pass < 2; pass++) { // first pass warms up
+            for (boolean cached : new boolean[] { false, true }) {
+                long bytes0 = allocatedBytes();
+                long t0 = System.nanoTime();
+                for (int f = 0; f < frames; f++) {
+                    long now = f * 16L;
+                    Graphics2D g = target.createGraphics();
+                    try {
+                        g.setColor(Color.DARK_GRAY);
+                        g.fillRect(0, 0, W, H);
+                        for (int i = 0; i < npcs; i++) {
+                            NPCSpriteSheet.Action a = WALKS[dir[i]];
+                            long t = now + phase[i];
+                            BufferedImage img = cached ? sheet.get(a, t)
+                                    : crop(raw, dir[i], sheet.frameIndex(a, t), cell);
+                            g.drawImage(img, x[i], y[i], null);
+                        }
+                    } finally {
+                        g.dispose();
+                    }
+                }
+                long nanos = System.nanoTime() - t0;
+                long bytes = allocatedBytes() - bytes0;
+                if (pass == 1) {
+                    System.out.printf("%-28s %7.3f ms/frame  %9.0f bytes/frame%n",
+                            cached ? "prepared frames" : "getSubimage per draw",
+                            nanos / 1e6 / frames, bytes / (double) frames);
+                }
+            }
+        }
+    }
+
+    // the old NPCSpriteSheet.crop: a view into the decoded sheet, made on every draw
+    private static BufferedImage crop(BufferedImage sheet, int row, int col, int cell) {
+        int sx = Math.min(col * cell, sheet.getWidth() - 1), sy = Math.min(row * cell, sheet.getHeight() - 1);
+        return sheet.getSubimage(sx, sy, Math.min(cell, sheet.getWidth() - sx), Math.min(cell, sheet.getHeight() - sy));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean sun) return sun.getCurrentThreadAllocatedBytes();
+        return 0;
+    }
+}
@@ -0,0 +1,99 @@
+package tools;
+
+import render.Images;
+import render.ParticleSystem;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Keeps a particle system topped up at 10k live particles (by default) and steps it at 60 Hz:
+ * emit, update and publish, as the game loop does. Reports time and bytes allocated per tick
+ * and the collections seen, then times drawing the last published particles onto a
+ * screen-sized image.
+ *
+ *   java -cp bin tools.ParticleBenchmark [--live 10000] [--ticks 6000] [--draws 300]
+ */
+public class ParticleBenchmark {
+
+    private static final int W = 1400, H = 800;
+
+    public static void main(String[] args) {
+        int live = 10_000, ticks = 6_000, draws = 300;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--live" -> live = Integer.parseInt(args[++i]);
+                case "--ticks" -> ticks = Integer.parseInt(args[++i]);
+                case "--draws" -> draws = Integer.parseInt(args[++i]);
+                default -> { }
+            }
+        }
+
+        ParticleSystem ps = new ParticleSystem(live + live / 4);
+        float dt = 1f / 60f;
+        System.out.println("🎯 " + live + " live particles, " + ticks + " ticks");
+
+        for (int pass = 0; pass < 2; pass++) { // first pass warms up
+            long gc0 = collections();
+            long bytes0 = allocatedBytes();
+            long t0 = System.nanoTime();
+            long peak = 0;
+            for (int t = 0; t < ticks; t++) {
+                int k = t % 4;
+                while (ps.size() < live) {
+                    float x = 100 + (t * 37 + ps.size() * 13) % (W - 200), y = 200 + (ps.size() * 7) % (H - 300);
+                    switch (k++ & 3) {
+                        case 0 -> ps.splash(x, y, 8, 200f);
+                        case 1 -> ps.ripples(x, y, 2);
+                        case 2 -> ps.sparkle(x, y, 6, 24f);
+                        default -> ps.coins(x, y, 4);
+                    }
+                }
+                ps.update(dt);
+                ps.publish();
+                peak = Math.max(peak, ps.size());
+            }
+            long nanos = System.nanoTime() - t0;
+            long bytes = allocatedBytes() - bytes0;
+            long gcs = collections() - gc0;
+            if (pass == 1) {
+                System.out.printf("tick (emit+update+publish) %7.3f ms/tick  %7.1f bytes/tick  %d GCs  peak %d live%n",
+                        nanos / 1e6 / ticks, bytes / (double) ticks, gcs, peak);
+            }
+        }
+
+        BufferedImage target = Images.create(W, H, Transparency.OPAQUE);
+        Rectangle view = new Rectangle(0, 0, W, H);
+        ps.acquire();
+        for (int pass = 0; pass < 2; pass++) {
+            long t0 = System.nanoTime();
+            for (int f = 0; f < draws; f++) {
+                Graphics2D g = target.createGraphics();
+                try {
+                    g.setColor(Color.DARK_GRAY);
+                    g.fillRect(0, 0, W, H);
+                    ps.draw(g, view);
+                } finally {
+                    g.dispose();
+                }
+            }
+            if (pass == 1) {
+                System.out.printf("draw %7.3f ms/frame (%d particles)%n", (System.nanoTime() - t0) / 1e6 / draws, ps.size());
+            }
+        }
+    }
+
+    private static long collections() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean sun) return sun.getCurrentThreadAllocatedBytes();
+        return 0;
+    }
+}
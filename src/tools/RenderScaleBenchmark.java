@@ -0,0 +1,114 @@
+package tools;
+
+import render.Images;
+import render.RenderTarget;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.function.Consumer;
+
+/**
+ * Times a game-like frame (tiled ground, a few hundred translucent props, HUD text) drawn
+ * through {@link RenderTarget} at native and at each render scale, onto a 1400x800 window.
+ * With a display the output is an on-screen canvas, so the scaled frames go through the
+ * volatile back buffer on whatever pipeline Java2D picked (-Dsun.java2d.opengl=true,
+ * -Dsun.java2d.d3d=true, -Dsun.java2d.metal=true). Headless, the output is an image and the
+ * back buffer falls back to memory, which only measures the software path.
+ *
+ *   java -cp bin tools.RenderScaleBenchmark [--frames 300] [--scales 0.5,1,2]
+ */
+public class RenderScaleBenchmark {
+
+    private static final int W = 1400, H = 800;
+
+    public static void main(String[] args) throws Exception {
+        int frames = 300;
+        String[] scales = { "native", "0.5", "1", "2" };
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--frames" -> frames = Integer.parseInt(args[++i]);
+                case "--scales" -> {
+                    String[] parts = args[++i].split(",");
+                    scales = new String[parts.length + 1];
+                    scales[0] = "native";
+                    for (int k = 0; k < parts.length; k++) scales[k + 1] = parts[k].trim();
+                }
+                default -> { }
+            }
+        }
+
+        BufferedImage ground = load("src/assets/Cute_Fantasy/Tiles/Grass/Grass_1_Middle.png", 16, new Color(60, 140, 60));
+        BufferedImage tree = load("src/assets/Cute_Fantasy/Trees/Big_Oak_Tree.png", 64, new Color(30, 90, 30));
+        Consumer<Graphics2D> scene = g -> paintScene(g, ground, tree);
+
+        boolean headless = GraphicsEnvironment.isHeadless();
+        Frame frame = null;
+        Canvas canvas = null;
+        BufferedImage offscreen = null;
+        if (headless) {
+            offscreen = Images.create(W, H, Transparency.OPAQUE);
+            System.out.println("🎯 headless: output is an image, scaled frames use the in-memory back buffer");
+        } else {
+            frame = new Frame("render scale");
+            canvas = new Canvas();
+            canvas.setSize(W, H);
+            canvas.setIgnoreRepaint(true);
+            frame.add(canvas);
+            frame.pack();
+            frame.setVisible(true);
+            Thread.sleep(500);
+            System.out.println("🎯 on screen: " + canvas.getGraphicsConfiguration().getClass().getSimpleName());
+        }
+
+        System.out.printf("%-8s %10s %10s%n", "scale", "ms/frame", "fps");
+        for (String s : scales) {
+            System.setProperty("fishing.renderScale", s);
+            RenderTarget target = RenderTarget.fromProperties(W, H);
+            long best = Long.MAX_VALUE;
+            for (int pass = 0; pass < 3; pass++) { // the first pass warms up
+                long t0 = System.nanoTime();
+                for (int f = 0; f < frames; f++) {
+                    Graphics2D g = (Graphics2D) (headless ? offscreen.createGraphics() : canvas.getGraphics());
+                    try {
+                        target.render(g, W, H, scene);
+                    } finally {
+                        g.dispose();
+                    }
+                    Toolkit.getDefaultToolkit().sync();
+                }
+                if (pass > 0) best = Math.min(best, System.nanoTime() - t0);
+            }
+            double ms = best / 1e6 / frames;
+            System.out.printf("%-8s %10.3f %10.1f%n", s, ms, 1000 / ms);
+        }
+        if (frame != null) frame.dispose();
+    }
+
+    private static void paintScene(Graphics2D g, BufferedImage ground, BufferedImage tree) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        for (int y = 0; y < H; y += ground.getHeight()) {
+            for (int x = 0; x < W; x += ground.getWidth()) g.drawImage(ground, x, y, null);
+        }
+        for (int i = 0; i < 300; i++) g.drawImage(tree, (i * 151) % (W - 64), (i * 97) % (H - 64), null);
+        g.setColor(new Color(0, 0, 0, 150));
+        g.fillRect(0, 0, 420, 110);
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 20));
+        g.drawString("เงิน: 80910 บาท", 20, 35);
+        g.drawString("ปลาที่ตกได้: 2", 20, 65);
+    }
+
+    private static BufferedImage load(String path, int fallbackSize, Color fallback) {
+        try {
+            File f = new File(path);
+            if (f.exists()) return Images.read(f);
+        } catch (Exception ignored) {}
+        BufferedImage img = Images.create(fallbackSize, fallbackSize, Transparency.OPAQUE);
+        Graphics2D g = img.createGraphics();
+        g.setColor(fallback);
+        g.fillRect(0, 0, fallbackSize, fallbackSize);
+        g.dispose();
+        return img;
+    }
+}
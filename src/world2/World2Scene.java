@@ -0,0 +1,209 @@
+package world2;
+
+import map.MapData;
+import render.CullGrid;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * World 2 objects prepared once at load: images resolved, objects in draw order (by foot Y,
+ * ties keep map order) with their foot Y in an int array for a binary-search split around the
+ * player, and colliders binned into a uniform grid so a movement test only looks at the few
+ * it can touch. Sprite bounds get a {@link CullGrid} so drawing only visits what a viewport
+ * can see. Queries and drawing allocate nothing.
+ *
+ * Immutable, so the simulation and the renderer can share one instance.
+ */
+public final class World2Scene {
+
+    public static final World2Scene EMPTY = build(List.of(), src -> null);
+
+    private static final int PLACEHOLDER = 64;
+    private static final int CELL = 64;
+    private static final Color PLACEHOLDER_FILL = new Color(0,0,0,120);
+
+    // draw order
+    private final BufferedImage[] images;
+    private final int[] x, y, footY;
+    private final CullGrid drawGrid;
+
+    // colliders, CSR-binned per grid cell
+    private final int[] cx, cy, cw, ch;
+    private final int gridX, gridY, cols, rows;
+    private final int[] cellStart, cellItems;
+
+    private World2Scene(BufferedImage[] images, int[] x, int[] y, int[] footY,
+                        int[] cx, int[] cy, int[] cw, int[] ch) {
+        this.images = images;
+        this.x = x;
+        this.y = y;
+        this.footY = footY;
+        int[] w = new int[images.length], h = new int[images.length];
+        for (int i = 0; i < images.length; i++) {
+            w[i] = images[i] != null ? images[i].getWidth() : PLACEHOLDER + 1;
+            h[i] = images[i] != null ? images[i].getHeight() : PLACEHOLDER + 1;
+        }
+        this.drawGrid = new CullGrid(x, y, w, h);
+        this.cx = cx;
+        this.cy = cy;
+        this.cw = cw;
+        this.ch = ch;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < cx.length; i++) {
+            minX = Math.min(minX, cx[i]);
+            minY = Math.min(minY, cy[i]);
+            maxX = Math.max(maxX, cx[i] + cw[i]);
+            maxY = Math.max(maxY, cy[i] + ch[i]);
+        }
+        if (cx.length == 0) { minX = minY = 0; maxX = maxY = 1; }
+        gridX = minX;
+        gridY = minY;
+        cols = Math.max(1, Math.floorDiv(maxX - 1 - minX, CELL) + 1);
+        rows = Math.max(1, Math.floorDiv(maxY - 1 - minY, CELL) + 1);
+
+        cellStart = new int[cols * rows + 1];
+        for (int i = 0; i < cx.length; i++) {
+            for (int r = rowOf(cy[i]); r <= rowOf(cy[i] + ch[i] - 1); r++) {
+                for (int c = colOf(cx[i]); c <= colOf(cx[i] + cw[i] - 1); c++) cellStart[r * cols + c + 1]++;
+            }
+        }
+        for (int k = 1; k < cellStart.length; k++) cellStart[k] += cellStart[k - 1];
+        cellItems = new int[cellStart[cellStart.length - 1]];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < cx.length; i++) {
+            for (int r = rowOf(cy[i]); r <= rowOf(cy[i] + ch[i] - 1); r++) {
+                for (int c = colOf(cx[i]); c <= colOf(cx[i] + cw[i] - 1); c++) cellItems[fill[r * cols + c]++] = i;
+            }
+        }
+    }
+
+    private int colOf(int px) { return Math.max(0, Math.min(cols - 1, Math.floorDiv(px - gridX, CELL))); }
+    private int rowOf(int py) { return Math.max(0, Math.min(rows - 1, Math.floorDiv(py - gridY, CELL))); }
+
+    /** Resolves each distinct image once through {@code images} (null = missing) and prepares the scene. */
+    public static World2Scene build(List<MapData.MapObject> objects, Function<String, BufferedImage> images) {
+        Map<String, BufferedImage> resolved = new HashMap<>();
+        List<MapData.MapObject> list = new ArrayList<>();
+        List<BufferedImage> imgs = new ArrayList<>();
+        for (MapData.MapObject o : objects) {
+            if (o == null || o.src == null || o.src.isEmpty()) continue;
+            list.add(o);
+            imgs.add(resolved.computeIfAbsent(o.src, images));
+        }
+
+        int n = list.size();
+        Integer[] order = new Integer[n];
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            keys[i] = list.get(i).y + (imgs.get(i) != null ? imgs.get(i).getHeight() : PLACEHOLDER);
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> keys[i])); // stable
+
+        BufferedImage[] di = new BufferedImage[n];
+        int[] dx = new int[n], dy = new int[n], df = new int[n];
+        int colliders = 0;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            di[k] = imgs.get(i);
+            dx[k] = list.get(i).x;
+            dy[k] = list.get(i).y;
+            df[k] = keys[i];
+            if (list.get(i).collide) colliders++;
+        }
+
+        int[] cx = new int[colliders], cy = new int[colliders], cw = new int[colliders], ch = new int[colliders];
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            MapData.MapObject o = list.get(i);
+            if (!o.collide) continue;
+            BufferedImage img = imgs.get(i);
+            int w = img != null ? img.getWidth() : PLACEHOLDER;
+            int h = img != null ? img.getHeight() : PLACEHOLDER;
+            int fh = Math.max(4, o.footH);
+            cx[c] = o.x;
+            cy[c] = o.y + h - fh;
+            cw[c] = Math.max(4, w);
+            ch[c] = fh;
+            c++;
+        }
+        return new World2Scene(di, dx, dy, df, cx, cy, cw, ch);
+    }
+
+    public int size() { return images.length; }
+    public boolean isEmpty() { return images.length == 0; }
+
+    /** True if any collider overlaps the rectangle (same edge rules as {@link Rectangle#intersects}). */
+    public boolean blocks(int rx, int ry, int rw, int rh) {
+        if (rw <= 0 || rh <= 0 || cx.length == 0) return false;
+        if (rx + rw <= gridX || ry + rh <= gridY || rx >= gridX + cols * CELL || ry >= gridY + rows * CELL) return false;
+        int c1 = colOf(rx + rw - 1), r1 = rowOf(ry + rh - 1);
+        for (int r = rowOf(ry); r <= r1; r++) {
+            for (int c = colOf(rx); c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    if (rx < cx[i] + cw[i] && cx[i] < rx + rw && ry < cy[i] + ch[i] && cy[i] < ry + rh) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean blocks(Rectangle r) {
+        return blocks(r.x, r.y, r.width, r.height);
+    }
+
+    /** Index of the first object whose foot is at or below {@code footY}; everything before it draws behind. */
+    public int splitAt(int footY) {
+        int lo = 0, hi = this.footY.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.footY[mid] < footY) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Draws objects [from, to) in order; missing images get a placeholder box. */
+    public void draw(Graphics2D g2d, int from, int to) {
+        for (int i = from; i < to; i++) drawOne(g2d, i);
+    }
+
+    /** Indices of objects overlapping {@code view}, in draw order; {@code out} must hold {@link #size()} ints. */
+    public int visible(Rectangle view, int[] out) {
+        return drawGrid.query(view, out);
+    }
+
+    /** {@link #splitAt(int)} over the first {@code n} indices of a {@link #visible} result. */
+    public int splitAt(int[] idx, int n, int footY) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.footY[idx[mid]] < footY) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Draws the objects at idx[from, to). */
+    public void draw(Graphics2D g2d, int[] idx, int from, int to) {
+        for (int k = from; k < to; k++) drawOne(g2d, idx[k]);
+    }
+
+    private void drawOne(Graphics2D g2d, int i) {
+        if (images[i] != null) {
+            g2d.drawImage(images[i], x[i], y[i], null);
+        } else {
+            g2d.setColor(PLACEHOLDER_FILL);
+            g2d.fillRect(x[i], y[i], PLACEHOLDER, PLACEHOLDER);
+            g2d.setColor(Color.WHITE);
+            g2d.drawRect(x[i], y[i], PLACEHOLDER, PLACEHOLDER);
+        }
+    }
+}